@@ -303,6 +303,43 @@ tasks.test {
     systemProperty("cct.test-files", buildDir.resolve("tmp/testFiles").absolutePath)
 }
 
+val runLoadTest by tasks.registering(JavaExec::class) {
+    group = JavaBasePlugin.VERIFICATION_GROUP
+    description = "Runs many computers without Minecraft, reporting throughput, latency and memory usage."
+
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("dan200.computercraft.core.computer.LoadTest")
+}
+
+// Benchmarks
+
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"(sourceSets.main.get().output)
+    "jmhImplementation"(testFixtures(project))
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator)
+}
+
+val runBenchmarks by tasks.registering(JavaExec::class) {
+    group = JavaBasePlugin.VERIFICATION_GROUP
+    description = "Runs the JMH benchmarks, writing the results to build/reports/jmh/results.json."
+
+    val results = buildDir.resolve("reports/jmh/results.json")
+    outputs.file(results)
+    outputs.upToDateWhen { false }
+    doFirst { results.parentFile.mkdirs() }
+
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    // Use -Pbenchmarks=<regex> to only run some benchmarks.
+    args = listOfNotNull(project.findProperty("benchmarks")?.toString(), "-rf", "json", "-rff", results.absolutePath)
+}
+
 val lintLua by tasks.registering(IlluaminateExec::class) {
     group = JavaBasePlugin.VERIFICATION_GROUP
     description = "Lint Lua (and Lua docs) with illuaminate"
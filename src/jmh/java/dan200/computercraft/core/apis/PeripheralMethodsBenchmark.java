@@ -0,0 +1,70 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.apis;
+
+import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.api.peripheral.IPeripheral;
+import dan200.computercraft.core.asm.PeripheralMethod;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PeripheralAPI#getMethods(IPeripheral)}, which is called every time a peripheral is attached to a
+ * computer or wired modem.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class PeripheralMethodsBenchmark
+{
+    private final Peripheral peripheral = new Peripheral();
+
+    @Benchmark
+    public Map<String, PeripheralMethod> getMethods()
+    {
+        return PeripheralAPI.getMethods( peripheral );
+    }
+
+    public static class Peripheral implements IPeripheral
+    {
+        @Nonnull
+        @Override
+        public String getType()
+        {
+            return "benchmark";
+        }
+
+        @Override
+        public boolean equals( @Nullable IPeripheral other )
+        {
+            return this == other;
+        }
+
+        @LuaFunction
+        public final int getCount()
+        {
+            return 0;
+        }
+
+        @LuaFunction
+        public final String getName()
+        {
+            return "benchmark";
+        }
+
+        @LuaFunction
+        public final void setEnabled( boolean enabled )
+        {
+        }
+    }
+}
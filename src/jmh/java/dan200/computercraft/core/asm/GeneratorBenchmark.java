@@ -0,0 +1,76 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.asm;
+
+import dan200.computercraft.api.lua.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks looking up and calling methods generated by {@link Generator}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class GeneratorBenchmark
+{
+    private final Api api = new Api();
+    private LuaMethod add;
+    private LuaMethod concat;
+    private ObjectArguments addArgs;
+    private ObjectArguments concatArgs;
+
+    @Setup
+    public void setup()
+    {
+        for( NamedMethod<LuaMethod> method : LuaMethod.GENERATOR.getMethods( Api.class ) )
+        {
+            if( method.getName().equals( "add" ) ) add = method.getMethod();
+            if( method.getName().equals( "concat" ) ) concat = method.getMethod();
+        }
+
+        addArgs = new ObjectArguments( 1.0, 2.0 );
+        concatArgs = new ObjectArguments( "hello", "world" );
+    }
+
+    @Benchmark
+    public List<NamedMethod<LuaMethod>> getMethods()
+    {
+        return LuaMethod.GENERATOR.getMethods( Api.class );
+    }
+
+    @Benchmark
+    public MethodResult callNumbers() throws LuaException
+    {
+        return add.apply( api, null, addArgs );
+    }
+
+    @Benchmark
+    public MethodResult callStrings() throws LuaException
+    {
+        return concat.apply( api, null, concatArgs );
+    }
+
+    public static class Api
+    {
+        @LuaFunction
+        public final double add( double x, double y )
+        {
+            return x + y;
+        }
+
+        @LuaFunction
+        public final String concat( String x, String y )
+        {
+            return x + y;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.computer;
+
+import dan200.computercraft.core.ComputerContext;
+import dan200.computercraft.core.computer.mainthread.MainThread;
+import dan200.computercraft.core.terminal.Terminal;
+import dan200.computercraft.test.core.computer.BasicEnvironment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks propagating a computer's redstone output, as done once per tick by {@link Environment#updateOutput()}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class RedstoneBenchmark
+{
+    private ComputerContext context;
+    private Environment environment;
+    private int level;
+
+    @Setup
+    public void setup()
+    {
+        BasicEnvironment basicEnvironment = new BasicEnvironment();
+        context = new ComputerContext( basicEnvironment, 1, new MainThread() );
+        Computer computer = new Computer( context, basicEnvironment, new Terminal( 51, 19, true ), 0 );
+        environment = computer.getEnvironment();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException
+    {
+        context.ensureClosed( 1, TimeUnit.SECONDS );
+    }
+
+    @Benchmark
+    public int unchanged()
+    {
+        environment.setOutput( ComputerSide.TOP, 15 );
+        return environment.updateOutput();
+    }
+
+    @Benchmark
+    public int oneSide()
+    {
+        environment.setOutput( ComputerSide.TOP, level++ & 15 );
+        return environment.updateOutput();
+    }
+
+    @Benchmark
+    public int allSides()
+    {
+        int level = this.level++ & 15;
+        for( ComputerSide side : ComputerSide.values() ) environment.setOutput( side, level );
+        return environment.updateOutput();
+    }
+}
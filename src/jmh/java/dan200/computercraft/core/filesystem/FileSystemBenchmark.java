@@ -0,0 +1,85 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.filesystem;
+
+import dan200.computercraft.test.core.filesystem.MemoryMount;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks for common {@link FileSystem} operations, using an in-memory mount.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FileSystemBenchmark
+{
+    private static final int FILE_SIZE = 4096;
+
+    private FileSystem fileSystem;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() throws FileSystemException
+    {
+        StringBuilder contents = new StringBuilder( FILE_SIZE );
+        for( int i = 0; i < FILE_SIZE; i++ ) contents.append( (char) ('a' + i % 26) );
+
+        MemoryMount mount = new MemoryMount().addFile( "file.txt", contents.toString() );
+        mount.makeDirectory( "dir" );
+        for( int i = 0; i < 32; i++ ) mount.addFile( "dir/file" + i + ".txt", "" );
+
+        fileSystem = new FileSystem( "hdd", mount );
+        buffer = ByteBuffer.allocate( FILE_SIZE );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        fileSystem.close();
+    }
+
+    @Benchmark
+    public String[] list() throws FileSystemException
+    {
+        return fileSystem.list( "dir" );
+    }
+
+    @Benchmark
+    public boolean exists() throws FileSystemException
+    {
+        return fileSystem.exists( "dir/file12.txt" );
+    }
+
+    @Benchmark
+    public int read() throws IOException
+    {
+        buffer.clear();
+        try( FileSystemWrapper<ReadableByteChannel> wrapper = fileSystem.openForRead( "file.txt", Function.identity() ) )
+        {
+            return wrapper.get().read( buffer );
+        }
+    }
+
+    @Benchmark
+    public int write() throws IOException
+    {
+        buffer.clear();
+        try( FileSystemWrapper<WritableByteChannel> wrapper = fileSystem.openForWrite( "out.txt", false, Function.identity() ) )
+        {
+            return wrapper.get().write( buffer );
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import com.google.common.io.ByteStreams;
+import dan200.computercraft.api.lua.ILuaAPI;
+import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.core.computer.ComputerThread;
+import dan200.computercraft.core.computer.TimeoutState;
+import dan200.computercraft.test.core.computer.BasicEnvironment;
+import org.openjdk.jmh.annotations.*;
+import org.squiddev.cobalt.LuaValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CobaltLuaMachine}: converting values between Java and Lua, and booting a machine with a cold or
+ * warm {@link ChunkCache}.
+ * <p>
+ * Booting loads the bios and the ROM files a computer loads on startup through {@code load}, in the same way as
+ * {@code loadfile} does, so covers both the cache lookup and the read-only check done on a miss.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CobaltLuaMachineBenchmark
+{
+    /**
+     * The files loaded by {@link #boot(ChunkCache)}, relative to the {@code lua} resource directory.
+     */
+    private static final List<String> BOOT_FILES = Arrays.asList(
+        "bios.lua",
+        "rom/apis/colors.lua", "rom/apis/colours.lua", "rom/apis/disk.lua", "rom/apis/fs.lua", "rom/apis/gps.lua",
+        "rom/apis/help.lua", "rom/apis/io.lua", "rom/apis/keys.lua", "rom/apis/paintutils.lua",
+        "rom/apis/parallel.lua", "rom/apis/peripheral.lua", "rom/apis/rednet.lua", "rom/apis/settings.lua",
+        "rom/apis/term.lua", "rom/apis/textutils.lua", "rom/apis/vector.lua", "rom/apis/window.lua",
+        "rom/modules/main/cc/expect.lua", "rom/modules/main/cc/completion.lua", "rom/modules/main/cc/require.lua",
+        "rom/modules/main/cc/shell/completion.lua", "rom/programs/shell.lua", "rom/startup.lua"
+    );
+
+    private static final String BOOT = "for _, path in ipairs(rom.files()) do\n" +
+        "  assert(load(rom.read(path), \"@/\" .. path, nil, _ENV))\n" +
+        "end\n";
+
+    private final BasicEnvironment environment = new BasicEnvironment();
+    private final Map<String, String> files = new HashMap<>();
+    private ComputerThread thread;
+    private ChunkCache sharedCache;
+
+    private CobaltLuaMachine machine;
+    private Map<String, Object> object;
+    private LuaValue value;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        for( String path : BOOT_FILES )
+        {
+            try( InputStream stream = environment.createResourceFile( "computercraft", "lua/" + path ) )
+            {
+                files.put( path, new String( ByteStreams.toByteArray( stream ), StandardCharsets.UTF_8 ) );
+            }
+        }
+
+        thread = new ComputerThread( 1 );
+        sharedCache = new ChunkCache();
+        machine = createMachine( sharedCache );
+
+        // Something shaped like an item's details.
+        object = new HashMap<>();
+        object.put( "name", "minecraft:stone" );
+        object.put( "count", 64 );
+        object.put( "tags", Collections.singletonMap( "forge:stone", true ) );
+        List<Object> list = new ArrayList<>();
+        for( int i = 0; i < 16; i++ ) list.add( Collections.singletonMap( "slot", i ) );
+        object.put( "slots", list );
+
+        value = machine.toValue( object, null );
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException
+    {
+        machine.close();
+        thread.stop( 1, TimeUnit.SECONDS );
+    }
+
+    private CobaltLuaMachine createMachine( ChunkCache cache )
+    {
+        return new CobaltLuaMachine( new MachineEnvironment(
+            null, environment, new TimeoutState( thread ), environment.getHostString(), cache, files::get
+        ) );
+    }
+
+    @Benchmark
+    public LuaValue toValue()
+    {
+        return machine.toValue( object, null );
+    }
+
+    @Benchmark
+    public Object toObject()
+    {
+        return CobaltLuaMachine.toObject( value, null );
+    }
+
+    @Benchmark
+    public MachineResult bootCold()
+    {
+        return boot( new ChunkCache() );
+    }
+
+    @Benchmark
+    public MachineResult bootWarm()
+    {
+        return boot( sharedCache );
+    }
+
+    private MachineResult boot( ChunkCache cache )
+    {
+        CobaltLuaMachine machine = createMachine( cache );
+        try
+        {
+            machine.addAPI( new RomAPI() );
+            MachineResult result = machine.loadBios( new ByteArrayInputStream( BOOT.getBytes( StandardCharsets.UTF_8 ) ) );
+            if( result.isError() ) throw new IllegalStateException( result.getMessage() );
+
+            result = machine.handleEvent( null, null );
+            if( result.isError() ) throw new IllegalStateException( result.getMessage() );
+            return result;
+        }
+        finally
+        {
+            machine.close();
+        }
+    }
+
+    /**
+     * Exposes {@link #files} to the boot script, standing in for the {@code fs} API.
+     */
+    public final class RomAPI implements ILuaAPI
+    {
+        @Override
+        public String[] getNames()
+        {
+            return new String[] { "rom" };
+        }
+
+        @LuaFunction
+        public final List<String> files()
+        {
+            return BOOT_FILES;
+        }
+
+        @LuaFunction
+        public final String read( String path )
+        {
+            return files.get( path );
+        }
+    }
+}
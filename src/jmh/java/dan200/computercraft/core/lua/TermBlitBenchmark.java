@@ -0,0 +1,120 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import dan200.computercraft.api.lua.IArguments;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.ObjectArguments;
+import dan200.computercraft.core.apis.TermMethods;
+import dan200.computercraft.core.terminal.Terminal;
+import org.openjdk.jmh.annotations.*;
+import org.squiddev.cobalt.LuaString;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.squiddev.cobalt.ValueFactory.varargsOf;
+
+/**
+ * Benchmarks for {@code term.blit} and {@code term.write}, as called from Lua. This compares reading arguments
+ * directly from Lua strings against the generic {@link ByteBuffer}/{@link String} path used by other callers.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TermBlitBenchmark
+{
+    private static final int WIDTH = 164;
+    private static final int HEIGHT = 81;
+
+    private TermMethods term;
+    private IArguments luaBlit;
+    private IArguments objectBlit;
+    private IArguments luaWrite;
+    private IArguments objectWrite;
+
+    @Setup
+    public void setup()
+    {
+        // The size of a full 8x6 monitor at the smallest text scale.
+        Terminal terminal = new Terminal( WIDTH, HEIGHT, true );
+        term = new TermMethods()
+        {
+            @Nonnull
+            @Override
+            public Terminal getTerminal()
+            {
+                return terminal;
+            }
+        };
+
+        byte[] text = new byte[WIDTH], textColour = new byte[WIDTH], backgroundColour = new byte[WIDTH];
+        for( int i = 0; i < WIDTH; i++ )
+        {
+            text[i] = (byte) ('a' + i % 26);
+            textColour[i] = (byte) "0123456789abcdef".charAt( i % 16 );
+            backgroundColour[i] = 'f';
+        }
+
+        luaBlit = VarargArguments.of( varargsOf(
+            LuaString.valueOf( text ), LuaString.valueOf( textColour ), LuaString.valueOf( backgroundColour )
+        ) );
+        objectBlit = new ObjectArguments( decode( text ), decode( textColour ), decode( backgroundColour ) );
+
+        luaWrite = VarargArguments.of( LuaString.valueOf( text ) );
+        objectWrite = new ObjectArguments( decode( text ) );
+    }
+
+    private static String decode( byte[] bytes )
+    {
+        return new String( bytes, StandardCharsets.ISO_8859_1 );
+    }
+
+    @Benchmark
+    public void blitLua() throws LuaException
+    {
+        redraw( luaBlit, true );
+    }
+
+    @Benchmark
+    public void blitObject() throws LuaException
+    {
+        redraw( objectBlit, true );
+    }
+
+    @Benchmark
+    public void writeLua() throws LuaException
+    {
+        redraw( luaWrite, false );
+    }
+
+    @Benchmark
+    public void writeObject() throws LuaException
+    {
+        redraw( objectWrite, false );
+    }
+
+    private void redraw( IArguments arguments, boolean blit ) throws LuaException
+    {
+        for( int y = 1; y <= HEIGHT; y++ )
+        {
+            term.setCursorPos( 1, y );
+            if( blit )
+            {
+                term.blit( arguments );
+            }
+            else
+            {
+                term.write( arguments );
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.metrics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks recording values into a shared {@link Histogram}, as every computer thread does for task timings.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class HistogramBenchmark
+{
+    private final Histogram histogram = new Histogram();
+
+    @Benchmark
+    @Threads( 1 )
+    public void recordUncontended()
+    {
+        histogram.record( ThreadLocalRandom.current().nextLong( 1_000_000 ) );
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public void recordContended()
+    {
+        histogram.record( ThreadLocalRandom.current().nextLong( 1_000_000 ) );
+    }
+
+    /**
+     * The worst case for contention: every thread records into the same bucket, as happens when many computers
+     * report near-identical task timings.
+     */
+    @Benchmark
+    @Threads( 4 )
+    public void recordContendedSameBucket()
+    {
+        histogram.record( 1000 );
+    }
+
+    @Benchmark
+    @Threads( 1 )
+    public long percentile()
+    {
+        return histogram.percentile( 0.99 );
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.terminal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the most common {@link Terminal} operations.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TerminalBenchmark
+{
+    private static final int WIDTH = 51;
+    private static final int HEIGHT = 19;
+
+    private Terminal terminal;
+    private String line;
+    private ByteBuffer text;
+    private ByteBuffer textColour;
+    private ByteBuffer backgroundColour;
+
+    @Setup
+    public void setup()
+    {
+        terminal = new Terminal( WIDTH, HEIGHT, true );
+
+        StringBuilder builder = new StringBuilder( WIDTH );
+        for( int i = 0; i < WIDTH; i++ ) builder.append( (char) ('a' + i % 26) );
+        line = builder.toString();
+
+        text = ByteBuffer.wrap( line.getBytes( StandardCharsets.US_ASCII ) );
+        textColour = ByteBuffer.wrap( repeat( '0', WIDTH ) );
+        backgroundColour = ByteBuffer.wrap( repeat( 'f', WIDTH ) );
+    }
+
+    private static byte[] repeat( char c, int length )
+    {
+        byte[] bytes = new byte[length];
+        for( int i = 0; i < length; i++ ) bytes[i] = (byte) c;
+        return bytes;
+    }
+
+    @Benchmark
+    public void write()
+    {
+        terminal.setCursorPos( 0, 0 );
+        terminal.write( line );
+    }
+
+    @Benchmark
+    public void blit()
+    {
+        terminal.setCursorPos( 0, 0 );
+        terminal.blit( text.duplicate(), textColour.duplicate(), backgroundColour.duplicate() );
+    }
+
+    @Benchmark
+    public void blitArray()
+    {
+        terminal.setCursorPos( 0, 0 );
+        terminal.blit( text.array(), 0, textColour.array(), 0, backgroundColour.array(), 0, WIDTH );
+    }
+
+    @Benchmark
+    public void scroll()
+    {
+        terminal.scroll( 1 );
+    }
+
+    @Benchmark
+    public void clear()
+    {
+        terminal.clear();
+    }
+
+    @Benchmark
+    public void redraw()
+    {
+        // Roughly what a program redrawing the whole screen does.
+        for( int y = 0; y < HEIGHT; y++ )
+        {
+            terminal.setCursorPos( 0, y );
+            terminal.blit( text.duplicate(), textColour.duplicate(), backgroundColour.duplicate() );
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.terminal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TextBuffer}, which is used for printed pages and views of a {@link Terminal}'s lines.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TextBufferBenchmark
+{
+    private TextBuffer buffer;
+    private TextBuffer other;
+    private String text;
+
+    @Setup
+    public void setup()
+    {
+        buffer = new TextBuffer( ' ', 51 );
+        other = new TextBuffer( 'x', 51 );
+        text = "Hello, world! This is a line of text for the buffer.";
+    }
+
+    @Benchmark
+    public void writeString()
+    {
+        buffer.write( text, 0 );
+    }
+
+    @Benchmark
+    public void writeBuffer()
+    {
+        buffer.write( other );
+    }
+
+    @Benchmark
+    public void fill()
+    {
+        buffer.fill( ' ' );
+    }
+
+    @Benchmark
+    public String asString()
+    {
+        return buffer.toString();
+    }
+}
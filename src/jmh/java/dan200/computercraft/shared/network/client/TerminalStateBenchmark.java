@@ -0,0 +1,60 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.network.client;
+
+import dan200.computercraft.core.terminal.Terminal;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serialising a terminal with {@link TerminalState}, as done whenever a terminal is sent to the client.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TerminalStateBenchmark
+{
+    @Param( { "false", "true" } )
+    public boolean compress;
+
+    private Terminal terminal;
+    private ByteBuf buffer;
+
+    @Setup
+    public void setup()
+    {
+        terminal = new Terminal( 51, 19, true );
+        for( int y = 0; y < terminal.getHeight(); y++ )
+        {
+            terminal.setCursorPos( 0, y );
+            terminal.setTextColour( y % 16 );
+            terminal.write( "Line " + y + " of the terminal, with some text in it." );
+        }
+
+        buffer = Unpooled.buffer();
+    }
+
+    @Benchmark
+    public TerminalState create()
+    {
+        return new TerminalState( terminal, compress );
+    }
+
+    @Benchmark
+    public TerminalState roundTrip()
+    {
+        buffer.clear();
+        new TerminalState( terminal, compress ).write( new PacketBuffer( buffer ) );
+        return new TerminalState( new PacketBuffer( buffer ) );
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.util;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link NBTUtil#getNBTHash(CompoundNBT)}, which is used when listing the contents of inventories.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NBTUtilBenchmark
+{
+    private CompoundNBT tag;
+    private int counter;
+
+    @Setup
+    public void setup()
+    {
+        tag = new CompoundNBT();
+        CompoundNBT display = new CompoundNBT();
+        display.putString( "Name", "{\"text\":\"A named item\"}" );
+        ListNBT lore = new ListNBT();
+        for( int i = 0; i < 4; i++ ) lore.add( StringNBT.valueOf( "{\"text\":\"Lore line " + i + "\"}" ) );
+        display.put( "Lore", lore );
+        tag.put( "display", display );
+        tag.putInt( "Damage", 12 );
+    }
+
+    @Benchmark
+    public String hashCached()
+    {
+        return NBTUtil.getNBTHash( tag );
+    }
+
+    @Benchmark
+    public String hashUncached()
+    {
+        // Change the tag every time, so it is never in the cache.
+        tag.putInt( "Counter", counter++ );
+        return NBTUtil.getNBTHash( tag );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.wired;
+
+import dan200.computercraft.api.ComputerCraftAPI;
+import dan200.computercraft.api.network.wired.IWiredElement;
+import dan200.computercraft.api.network.wired.IWiredNetworkChange;
+import dan200.computercraft.api.network.wired.IWiredNode;
+import dan200.computercraft.api.peripheral.IPeripheral;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link WiredNetwork}: joining and splitting networks, and changing a node's peripherals.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class WiredNetworkBenchmark
+{
+    @Param( { "16", "256" } )
+    public int size;
+
+    private Element[] elements;
+    private Element extra;
+    private Map<String, IPeripheral> peripherals;
+
+    @Setup
+    public void setup()
+    {
+        elements = new Element[size];
+        for( int i = 0; i < size; i++ )
+        {
+            Element element = elements[i] = new Element( "node_" + i );
+            element.getNode().updatePeripherals( Collections.singletonMap( "peripheral_" + i, new Peripheral() ) );
+            if( i > 0 ) elements[i - 1].getNode().connectTo( element.getNode() );
+        }
+
+        extra = new Element( "extra" );
+        peripherals = Collections.singletonMap( "extra_peripheral", new Peripheral() );
+    }
+
+    @Benchmark
+    public void connectAndDisconnect()
+    {
+        IWiredNode last = elements[size - 1].getNode();
+        last.connectTo( extra.getNode() );
+        last.disconnectFrom( extra.getNode() );
+    }
+
+    @Benchmark
+    public void splitAndJoin()
+    {
+        // Split the network in half, and then join it back together.
+        IWiredNode left = elements[size / 2 - 1].getNode(), right = elements[size / 2].getNode();
+        left.disconnectFrom( right );
+        left.connectTo( right );
+    }
+
+    @Benchmark
+    public void updatePeripherals()
+    {
+        IWiredNode node = elements[0].getNode();
+        node.updatePeripherals( peripherals );
+        node.updatePeripherals( Collections.emptyMap() );
+    }
+
+    private static final class Element implements IWiredElement
+    {
+        private final String id;
+        private final IWiredNode node;
+
+        Element( String id )
+        {
+            this.id = id;
+            node = ComputerCraftAPI.createWiredNodeForElement( this );
+        }
+
+        @Nonnull
+        @Override
+        @SuppressWarnings( "ConstantConditions" )
+        public World getWorld()
+        {
+            return null;
+        }
+
+        @Nonnull
+        @Override
+        public Vector3d getPosition()
+        {
+            return Vector3d.ZERO;
+        }
+
+        @Nonnull
+        @Override
+        public String getSenderID()
+        {
+            return id;
+        }
+
+        @Nonnull
+        @Override
+        public IWiredNode getNode()
+        {
+            return node;
+        }
+
+        @Override
+        public void networkChanged( @Nonnull IWiredNetworkChange change )
+        {
+        }
+    }
+
+    private static final class Peripheral implements IPeripheral
+    {
+        @Nonnull
+        @Override
+        public String getType()
+        {
+            return "benchmark";
+        }
+
+        @Override
+        public boolean equals( @Nullable IPeripheral other )
+        {
+            return this == other;
+        }
+    }
+}
@@ -35,9 +35,16 @@
     public static boolean commandRequireCreative = true;
 
     public static int computerThreads = 1;
+    public static int maxConcurrentBoots = 4;
+    public static long maxLuaMemory = 64 * 1024 * 1024;
     public static long maxMainGlobalTime = TimeUnit.MILLISECONDS.toNanos( 10 );
     public static long maxMainComputerTime = TimeUnit.MILLISECONDS.toNanos( 5 );
 
+    public static boolean prometheusEnabled = false;
+    public static String prometheusAddress = "127.0.0.1";
+    public static int prometheusPort = 9225;
+    public static int prometheusMaxComputers = 100;
+
     public static boolean httpEnabled = true;
     public static boolean httpWebsocketEnabled = true;
     public static List<AddressRule> httpRules = Collections.unmodifiableList( Arrays.asList(
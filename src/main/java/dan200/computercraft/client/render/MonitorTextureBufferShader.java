@@ -12,8 +12,6 @@
 import dan200.computercraft.client.FrameInfo;
 import dan200.computercraft.client.render.text.FixedWidthFontRenderer;
 import dan200.computercraft.core.terminal.Terminal;
-import dan200.computercraft.core.terminal.TextBuffer;
-import dan200.computercraft.shared.util.Colour;
 import dan200.computercraft.shared.util.Palette;
 import net.minecraft.client.renderer.texture.TextureUtil;
 import net.minecraft.util.math.vector.Matrix4f;
@@ -26,8 +24,6 @@
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 
-import static dan200.computercraft.client.render.text.FixedWidthFontRenderer.getColour;
-
 class MonitorTextureBufferShader
 {
     public static final int UNIFORM_SIZE = 4 * 4 * 16 + 4 + 4 + 2 * 4 + 4;
@@ -160,12 +156,11 @@ public static void setTerminalData( ByteBuffer buffer, Terminal terminal )
         int pos = 0;
         for( int y = 0; y < height; y++ )
         {
-            TextBuffer text = terminal.getLine( y ), textColour = terminal.getTextColourLine( y ), background = terminal.getBackgroundColourLine( y );
             for( int x = 0; x < width; x++ )
             {
-                buffer.put( pos, (byte) (text.charAt( x ) & 0xFF) );
-                buffer.put( pos + 1, (byte) getColour( textColour.charAt( x ), Colour.WHITE ) );
-                buffer.put( pos + 2, (byte) getColour( background.charAt( x ), Colour.BLACK ) );
+                buffer.put( pos, (byte) terminal.getCharAt( x, y ) );
+                buffer.put( pos + 1, (byte) (15 - terminal.getTextColourAt( x, y )) );
+                buffer.put( pos + 2, (byte) (15 - terminal.getBackgroundColourAt( x, y )) );
                 pos += 3;
             }
         }
@@ -5,9 +5,11 @@
  */
 package dan200.computercraft.core;
 
+import dan200.computercraft.core.computer.BootQueue;
 import dan200.computercraft.core.computer.ComputerThread;
 import dan200.computercraft.core.computer.GlobalEnvironment;
 import dan200.computercraft.core.computer.mainthread.MainThreadScheduler;
+import dan200.computercraft.core.lua.ChunkCache;
 import dan200.computercraft.core.lua.CobaltLuaMachine;
 import dan200.computercraft.core.lua.ILuaMachine;
 
@@ -23,6 +25,8 @@
     private final ComputerThread computerScheduler;
     private final MainThreadScheduler mainThreadScheduler;
     private final ILuaMachine.Factory factory;
+    private final ChunkCache chunkCache = new ChunkCache();
+    private final BootQueue bootQueue = new BootQueue();
 
     public ComputerContext(
         GlobalEnvironment globalEnvironment, ComputerThread computerScheduler,
@@ -88,6 +92,26 @@ public ILuaMachine.Factory luaFactory()
         return factory;
     }
 
+    /**
+     * The cache of compiled Lua chunks, shared between all machines.
+     *
+     * @return The current chunk cache.
+     */
+    public ChunkCache chunkCache()
+    {
+        return chunkCache;
+    }
+
+    /**
+     * The {@link BootQueue} which limits how many computers may start at once.
+     *
+     * @return The current boot queue.
+     */
+    public BootQueue bootQueue()
+    {
+        return bootQueue;
+    }
+
     /**
      * Close the current {@link ComputerContext}, disposing of any resources inside.
      *
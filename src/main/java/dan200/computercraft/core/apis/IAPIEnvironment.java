@@ -77,5 +77,21 @@
 
     void observe( @Nonnull Metric.Event event, long change );
 
+    default void observe( @Nonnull Metric.Event event, @Nonnull String label, long change )
+    {
+        observe( event, change );
+    }
+
     void observe( @Nonnull Metric.Counter counter );
+
+    /**
+     * Determine whether metrics are currently being collected for this computer.
+     *
+     * @return Whether metrics are enabled.
+     * @see dan200.computercraft.core.metrics.MetricsObserver#isEnabled()
+     */
+    default boolean isMetricsEnabled()
+    {
+        return true;
+    }
 }
@@ -5,6 +5,8 @@
  */
 package dan200.computercraft.core.apis;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import dan200.computercraft.api.filesystem.IMount;
 import dan200.computercraft.api.filesystem.IWritableMount;
 import dan200.computercraft.api.lua.*;
@@ -39,6 +41,7 @@ private class PeripheralWrapper extends ComputerAccess
         private final String type;
         private final Set<String> additionalTypes;
         private final Map<String, PeripheralMethod> methodMap;
+        private final Map<String, String> methodLabels = new HashMap<>();
         private boolean attached = false;
 
         PeripheralWrapper( IPeripheral peripheral, String side )
@@ -101,15 +104,31 @@ public void detach()
         public MethodResult call( ILuaContext context, String methodName, IArguments arguments ) throws LuaException
         {
             PeripheralMethod method;
+            String label = null;
+            boolean timed = environment.isMetricsEnabled();
             synchronized( this )
             {
                 method = methodMap.get( methodName );
+                if( method != null && timed ) label = methodLabels.computeIfAbsent( methodName, m -> type + "." + m );
             }
 
             if( method == null ) throw new LuaException( "No such method " + methodName );
 
             environment.observe( Metrics.PERIPHERAL_OPS );
-            return method.apply( peripheral, context, this, arguments );
+            if( label == null ) return method.apply( peripheral, context, this, arguments );
+
+            // Time how long this method takes. For main-thread methods, the interesting part is the task run on the
+            // server thread, so we time that instead of the (near-instant) call which schedules it.
+            TimedContext timedContext = new TimedContext( context, label );
+            long start = System.nanoTime();
+            try
+            {
+                return method.apply( peripheral, timedContext, this, arguments );
+            }
+            finally
+            {
+                if( !timedContext.issuedTask ) environment.observe( Metrics.PERIPHERAL_TIME, label, System.nanoTime() - start );
+            }
         }
 
         // IComputerAccess implementation
@@ -199,6 +218,39 @@ public IWorkMonitor getMainThreadMonitor()
         }
     }
 
+    /**
+     * An {@link ILuaContext} which records how long any main thread tasks take to execute.
+     */
+    private class TimedContext implements ILuaContext
+    {
+        private final ILuaContext context;
+        private final String label;
+        boolean issuedTask;
+
+        TimedContext( ILuaContext context, String label )
+        {
+            this.context = context;
+            this.label = label;
+        }
+
+        @Override
+        public long issueMainThreadTask( @Nonnull ILuaTask task ) throws LuaException
+        {
+            issuedTask = true;
+            return context.issueMainThreadTask( () -> {
+                long start = System.nanoTime();
+                try
+                {
+                    return task.execute();
+                }
+                finally
+                {
+                    environment.observe( Metrics.PERIPHERAL_TIME, label, System.nanoTime() - start );
+                }
+            } );
+        }
+    }
+
     private final IAPIEnvironment environment;
     private final PeripheralWrapper[] peripherals = new PeripheralWrapper[6];
     private boolean running;
@@ -369,13 +421,39 @@ public final MethodResult call( ILuaContext context, IArguments args ) throws Lu
         }
     }
 
+    /**
+     * Get the methods of a peripheral, mapped by name.
+     * <p>
+     * This is called every time a peripheral is attached, and so is cached: the methods of non-dynamic peripherals are
+     * cached per class, and those of dynamic peripherals are cached on their method names array. The latter means
+     * peripherals which return the same {@link IDynamicPeripheral#getMethodNames()} array (such as generic peripherals
+     * with the same layout) share a single map.
+     *
+     * @param peripheral The peripheral to get the methods of.
+     * @return The peripheral's methods. This map must not be modified.
+     */
     public static Map<String, PeripheralMethod> getMethods( IPeripheral peripheral )
     {
-        String[] dynamicMethods = peripheral instanceof IDynamicPeripheral
-            ? Objects.requireNonNull( ((IDynamicPeripheral) peripheral).getMethodNames(), "Peripheral methods cannot be null" )
-            : LuaMethod.EMPTY_METHODS;
+        if( !(peripheral instanceof IDynamicPeripheral) ) return STATIC_METHODS.get( peripheral.getClass() );
 
-        List<NamedMethod<PeripheralMethod>> methods = PeripheralMethod.GENERATOR.getMethods( peripheral.getClass() );
+        String[] dynamicMethods = Objects.requireNonNull( ((IDynamicPeripheral) peripheral).getMethodNames(), "Peripheral methods cannot be null" );
+
+        // The cache uses identity (rather than equality) for its keys, so we also check that the contents of the
+        // array have not changed since it was cached.
+        DynamicMethods cached = DYNAMIC_METHODS.getIfPresent( dynamicMethods );
+        if( cached != null && cached.klass == peripheral.getClass() && Arrays.equals( cached.names, dynamicMethods ) )
+        {
+            return cached.methods;
+        }
+
+        Map<String, PeripheralMethod> methods = buildMethods( peripheral.getClass(), dynamicMethods );
+        DYNAMIC_METHODS.put( dynamicMethods, new DynamicMethods( peripheral.getClass(), dynamicMethods.clone(), methods ) );
+        return methods;
+    }
+
+    private static Map<String, PeripheralMethod> buildMethods( Class<?> klass, String[] dynamicMethods )
+    {
+        List<NamedMethod<PeripheralMethod>> methods = PeripheralMethod.GENERATOR.getMethods( klass );
 
         Map<String, PeripheralMethod> methodMap = new HashMap<>( methods.size() + dynamicMethods.length );
         for( int i = 0; i < dynamicMethods.length; i++ )
@@ -386,6 +464,33 @@ public static Map<String, PeripheralMethod> getMethods( IPeripheral peripheral )
         {
             methodMap.put( method.getName(), method.getMethod() );
         }
-        return methodMap;
+        return Collections.unmodifiableMap( methodMap );
+    }
+
+    private static final ClassValue<Map<String, PeripheralMethod>> STATIC_METHODS = new ClassValue<Map<String, PeripheralMethod>>()
+    {
+        @Override
+        protected Map<String, PeripheralMethod> computeValue( Class<?> type )
+        {
+            return buildMethods( type, LuaMethod.EMPTY_METHODS );
+        }
+    };
+
+    private static final Cache<String[], DynamicMethods> DYNAMIC_METHODS = CacheBuilder.newBuilder()
+        .weakKeys()
+        .build();
+
+    private static final class DynamicMethods
+    {
+        final Class<?> klass;
+        final String[] names;
+        final Map<String, PeripheralMethod> methods;
+
+        DynamicMethods( Class<?> klass, String[] names, Map<String, PeripheralMethod> methods )
+        {
+            this.klass = klass;
+            this.names = names;
+            this.methods = methods;
+        }
     }
 }
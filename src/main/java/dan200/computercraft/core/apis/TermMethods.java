@@ -8,6 +8,7 @@
 import dan200.computercraft.api.lua.IArguments;
 import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.core.lua.RawStringArguments;
 import dan200.computercraft.core.terminal.Terminal;
 import dan200.computercraft.shared.util.Palette;
 import dan200.computercraft.shared.util.StringUtil;
@@ -50,6 +51,22 @@ private static int getHighestBit( int group )
     @LuaFunction
     public final void write( IArguments arguments ) throws LuaException
     {
+        // Copy strings straight from Lua's buffer where possible, rather than converting to a String first.
+        byte[] bytes = arguments instanceof RawStringArguments ? ((RawStringArguments) arguments).getRawBytes( 0 ) : null;
+        if( bytes != null )
+        {
+            RawStringArguments raw = (RawStringArguments) arguments;
+            int length = raw.getRawLength( 0 );
+
+            Terminal terminal = getTerminal();
+            synchronized( terminal )
+            {
+                terminal.write( bytes, raw.getRawOffset( 0 ), length );
+                terminal.setCursorPos( terminal.getCursorX() + length, terminal.getCursorY() );
+            }
+            return;
+        }
+
         String text = StringUtil.toString( arguments.get( 0 ) );
         Terminal terminal = getTerminal();
         synchronized( terminal )
@@ -269,10 +286,11 @@ public final boolean getIsColour() throws LuaException
      * characters represent a single hexadecimal digit, which is converted to one of CC's colours. For instance,
      * {@code "a"} corresponds to purple.
      *
-     * @param text             The text to write.
-     * @param textColour       The corresponding text colours.
-     * @param backgroundColour The corresponding background colours.
+     * @param arguments The text and colours to write.
      * @throws LuaException If the three inputs are not the same length.
+     * @cc.tparam string text The text to write.
+     * @cc.tparam string textColour The corresponding text colours.
+     * @cc.tparam string backgroundColour The corresponding background colours.
      * @cc.see colors For a list of colour constants, and their hexadecimal values.
      * @cc.since 1.74
      * @cc.changed 1.80pr1 Standard computers can now use all 16 colors, being changed to grayscale on screen.
@@ -282,7 +300,38 @@ public final boolean getIsColour() throws LuaException
      * }</pre>
      */
     @LuaFunction
-    public final void blit( ByteBuffer text, ByteBuffer textColour, ByteBuffer backgroundColour ) throws LuaException
+    public final void blit( IArguments arguments ) throws LuaException
+    {
+        if( arguments instanceof RawStringArguments )
+        {
+            // Read directly from the Lua strings' buffers, avoiding wrapping each one in a ByteBuffer.
+            RawStringArguments raw = (RawStringArguments) arguments;
+            byte[] text = raw.getRawBytes( 0 ), textColour = raw.getRawBytes( 1 ), backgroundColour = raw.getRawBytes( 2 );
+            if( text != null && textColour != null && backgroundColour != null )
+            {
+                int length = raw.getRawLength( 0 );
+                if( raw.getRawLength( 1 ) != length || raw.getRawLength( 2 ) != length )
+                {
+                    throw new LuaException( "Arguments must be the same length" );
+                }
+
+                Terminal terminal = getTerminal();
+                synchronized( terminal )
+                {
+                    terminal.blit(
+                        text, raw.getRawOffset( 0 ), textColour, raw.getRawOffset( 1 ),
+                        backgroundColour, raw.getRawOffset( 2 ), length
+                    );
+                    terminal.setCursorPos( terminal.getCursorX() + length, terminal.getCursorY() );
+                }
+                return;
+            }
+        }
+
+        blit( arguments.getBytes( 0 ), arguments.getBytes( 1 ), arguments.getBytes( 2 ) );
+    }
+
+    private void blit( ByteBuffer text, ByteBuffer textColour, ByteBuffer backgroundColour ) throws LuaException
     {
         if( textColour.remaining() != text.remaining() || backgroundColour.remaining() != text.remaining() )
         {
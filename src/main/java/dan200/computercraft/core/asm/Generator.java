@@ -134,13 +134,13 @@ private void addMethod( List<NamedMethod<T>> methods, Method method, LuaFunction
         boolean isSimple = method.getReturnType() != MethodResult.class && !annotation.mainThread();
         if( names.length == 0 )
         {
-            methods.add( new NamedMethod<>( method.getName(), instance, isSimple, genericType ) );
+            methods.add( new NamedMethod<>( method.getName(), instance, isSimple, genericType, method ) );
         }
         else
         {
             for( String name : names )
             {
-                methods.add( new NamedMethod<>( name, instance, isSimple, genericType ) );
+                methods.add( new NamedMethod<>( name, instance, isSimple, genericType, method ) );
             }
         }
     }
@@ -9,6 +9,7 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.Method;
 
 public final class NamedMethod<T>
 {
@@ -17,13 +18,15 @@
     private final boolean nonYielding;
 
     private final PeripheralType genericType;
+    private final Method source;
 
-    NamedMethod( String name, T method, boolean nonYielding, PeripheralType genericType )
+    NamedMethod( String name, T method, boolean nonYielding, PeripheralType genericType, Method source )
     {
         this.name = name;
         this.method = method;
         this.nonYielding = nonYielding;
         this.genericType = genericType;
+        this.source = source;
     }
 
     @Nonnull
@@ -48,4 +51,15 @@ public PeripheralType getGenericType()
     {
         return genericType;
     }
+
+    /**
+     * The Java method this was generated from.
+     *
+     * @return The annotated source method.
+     */
+    @Nonnull
+    public Method getSource()
+    {
+        return source;
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.computer;
+
+import dan200.computercraft.ComputerCraft;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Limits the number of computers which may be starting up at once.
+ * <p>
+ * Starting a computer is relatively expensive: we need to create its filesystem, compile the bios and run its startup
+ * programs. When a world is loaded, every computer which was on will try to start at once, flooding the
+ * {@link ComputerThread} with work and starving computers which are already running.
+ * <p>
+ * Instead, computers {@linkplain #request(ComputerExecutor, int) request} to start, and are admitted once fewer than
+ * {@link ComputerCraft#maxConcurrentBoots} computers are starting. Waiting computers are admitted in order of their
+ * {@linkplain ComputerEnvironment#getBootPriority() priority}, and then in the order they requested to start.
+ */
+public final class BootQueue
+{
+    private static final Comparator<Entry> ORDER = Comparator
+        .<Entry>comparingInt( x -> -x.priority )
+        .thenComparingLong( x -> x.sequence );
+
+    private final PriorityQueue<Entry> pending = new PriorityQueue<>( ORDER );
+    private int running;
+    private long nextSequence;
+    private long booted;
+
+    /**
+     * Request a computer be started, starting it immediately if there is capacity.
+     *
+     * @param executor The computer to start.
+     * @param priority The priority of this computer. Higher priority computers are started first.
+     */
+    void request( ComputerExecutor executor, int priority )
+    {
+        synchronized( this )
+        {
+            if( executor.bootPending ) return;
+
+            executor.bootRequested = System.nanoTime();
+            if( running >= ComputerCraft.maxConcurrentBoots )
+            {
+                executor.bootPending = true;
+                pending.add( new Entry( executor, priority, nextSequence++ ) );
+                return;
+            }
+
+            running++;
+        }
+
+        if( !executor.queueStart() ) admitNext();
+    }
+
+    /**
+     * Remove a computer from the queue if it is waiting to start, for instance because it has been shut down.
+     *
+     * @param executor The computer which should no longer be started.
+     */
+    void cancel( ComputerExecutor executor )
+    {
+        synchronized( this )
+        {
+            if( !executor.bootPending ) return;
+
+            executor.bootPending = false;
+            pending.removeIf( x -> x.executor == executor );
+        }
+    }
+
+    /**
+     * Mark a computer as having finished starting (successfully or not), admitting the next computer if any.
+     */
+    void finished()
+    {
+        synchronized( this )
+        {
+            booted++;
+        }
+
+        admitNext();
+    }
+
+    private void admitNext()
+    {
+        while( true )
+        {
+            ComputerExecutor next;
+            synchronized( this )
+            {
+                Entry entry = pending.poll();
+                if( entry == null )
+                {
+                    running--;
+                    return;
+                }
+
+                next = entry.executor;
+                next.bootPending = false;
+            }
+
+            // If the computer has been unloaded, or was started some other way, then move on to the next one.
+            if( next.queueStart() ) return;
+        }
+    }
+
+    /**
+     * Get the number of computers waiting to start.
+     *
+     * @return The number of waiting computers.
+     */
+    public synchronized int getPending()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Get the number of computers which are currently starting.
+     *
+     * @return The number of starting computers.
+     */
+    public synchronized int getRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Get the total number of computers which have been admitted and finished starting.
+     *
+     * @return The number of computers started.
+     */
+    public synchronized long getBooted()
+    {
+        return booted;
+    }
+
+    private static final class Entry
+    {
+        final ComputerExecutor executor;
+        final int priority;
+        final long sequence;
+
+        Entry( ComputerExecutor executor, int priority, long sequence )
+        {
+            this.executor = executor;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
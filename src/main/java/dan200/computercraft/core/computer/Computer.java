@@ -12,10 +12,14 @@
 import dan200.computercraft.api.peripheral.IWorkMonitor;
 import dan200.computercraft.core.ComputerContext;
 import dan200.computercraft.core.apis.IAPIEnvironment;
+import dan200.computercraft.core.computer.mainthread.MainThreadPriority;
 import dan200.computercraft.core.computer.mainthread.MainThreadScheduler;
 import dan200.computercraft.core.filesystem.FileSystem;
+import dan200.computercraft.core.lua.LuaProfiler;
 import dan200.computercraft.core.terminal.Terminal;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -30,6 +34,7 @@
  * <li>Monitors whether the computer's visible state (redstone, on/off/blinking) has changed.</li>
  * <li>Passes commands and events to the {@link ComputerExecutor}.</li>
  * <li>Passes main thread tasks to the {@link MainThreadScheduler.Executor}.</li>
+ * <li>Parks the computer while it is idle, skipping most of its per-tick work.</li>
  * </ul>
  */
 public class Computer
@@ -45,6 +50,7 @@
     private final Terminal terminal;
     private final ComputerExecutor executor;
     private final MainThreadScheduler.Executor serverExecutor;
+    private volatile MainThreadPriority mainThreadPriority = MainThreadPriority.NORMAL;
 
     /**
      * An internal counter for {@link ILuaTask} ids.
@@ -58,10 +64,21 @@
     private boolean blinking = false;
     private final Environment internalEnvironment;
     private final AtomicBoolean externalOutputChanged = new AtomicBoolean();
+    private int redstoneOutputChanged;
 
     private boolean startRequested;
     private int ticksSinceStart = -1;
 
+    /**
+     * Set whenever something happens which may require a full {@linkplain #tick() tick} to process, such as new work
+     * being queued, or the world changing around the computer.
+     *
+     * @see #wake()
+     * @see #isParked()
+     */
+    private final AtomicBoolean wakeRequested = new AtomicBoolean( true );
+    private boolean parked;
+
     public Computer( ComputerContext context, ComputerEnvironment environment, Terminal terminal, int id )
     {
         if( id < 0 ) throw new IllegalStateException( "Id has not been assigned" );
@@ -107,6 +124,7 @@ public boolean isOn()
     public void turnOn()
     {
         startRequested = true;
+        wake();
     }
 
     public void shutdown()
@@ -161,11 +179,67 @@ public void setLabel( String label )
         {
             this.label = label;
             externalOutputChanged.set( true );
+            wake();
         }
     }
 
+    /**
+     * Wake this computer if it is parked, ensuring the next {@linkplain #tick() tick} is processed in full.
+     */
+    void wake()
+    {
+        wakeRequested.set( true );
+    }
+
+    /**
+     * Whether this computer was parked during the last {@linkplain #tickMain() tick}. Parked computers have no pending work,
+     * and so their outputs are guaranteed not to have changed.
+     *
+     * @return Whether this computer is parked.
+     */
+    public boolean isParked()
+    {
+        return parked;
+    }
+
+    /**
+     * Determine whether this computer may be parked. We are only called when nothing has woken the computer since the
+     * last tick, so we just need to check there is no work which is driven by the tick itself.
+     *
+     * @return Whether this computer may be parked.
+     */
+    private boolean canPark()
+    {
+        return !startRequested && (ticksSinceStart < 0 || ticksSinceStart > START_DELAY)
+            && executor.isIdle() && !internalEnvironment.hasTimers();
+    }
+
+    /**
+     * Tick this computer. This is equivalent to calling {@link #tickMain()} and then {@link #tickState()}.
+     */
     public void tick()
     {
+        tickMain();
+        tickState();
+    }
+
+    /**
+     * The first half of a computer's tick, which must be run on the main thread. This starts the computer if needed,
+     * and advances its APIs.
+     */
+    public void tickMain()
+    {
+        // If nothing has happened since the last tick, then there's nothing to do except advance our APIs (which
+        // drive os.clock and alarms).
+        if( !wakeRequested.getAndSet( false ) && canPark() )
+        {
+            parked = true;
+            executor.tick();
+            return;
+        }
+
+        parked = false;
+
         // We keep track of the number of ticks since the last start, only
         if( ticksSinceStart >= 0 && ticksSinceStart <= START_DELAY ) ticksSinceStart++;
 
@@ -175,17 +249,29 @@ public void tick()
             if( !executor.isOn() )
             {
                 ticksSinceStart = 0;
-                executor.queueStart();
+                executor.requestStart();
             }
         }
 
         executor.tick();
+    }
+
+    /**
+     * The second half of a computer's tick, which updates timers and the computer's redstone and blinking state.
+     * <p>
+     * This does not interact with the world, and so may be run off the main thread, in parallel with other computers.
+     * However, it must not run at the same time as {@link #tickMain()} or any method which reads this computer's
+     * outputs.
+     */
+    public void tickState()
+    {
+        if( parked ) return;
 
         // Update the environment's internal state.
         internalEnvironment.tick();
 
         // Propagate the environment's output to the world.
-        if( internalEnvironment.updateOutput() ) externalOutputChanged.set( true );
+        redstoneOutputChanged |= internalEnvironment.updateOutput();
 
         // Set output changed if the terminal has changed from blinking to not
         boolean blinking = terminal.getCursorBlink() &&
@@ -201,6 +287,7 @@ public void tick()
     void markChanged()
     {
         externalOutputChanged.set( true );
+        wake();
     }
 
     public boolean pollAndResetChanged()
@@ -208,11 +295,47 @@ public boolean pollAndResetChanged()
         return externalOutputChanged.getAndSet( false );
     }
 
+    /**
+     * Get which sides' redstone output has changed since this was last called. This should only be called on the main
+     * thread.
+     *
+     * @return A bitmask of changed {@linkplain ComputerSide sides}.
+     */
+    public int pollAndResetRedstoneChanged()
+    {
+        int changed = redstoneOutputChanged;
+        redstoneOutputChanged = 0;
+        return changed;
+    }
+
     public boolean isBlinking()
     {
         return isOn() && blinking;
     }
 
+    @Nullable
+    public LuaProfiler getProfiler()
+    {
+        return executor.getProfiler();
+    }
+
+    public void setProfiler( @Nullable LuaProfiler profiler )
+    {
+        executor.setProfiler( profiler );
+    }
+
+    @Nonnull
+    public MainThreadPriority getMainThreadPriority()
+    {
+        return mainThreadPriority;
+    }
+
+    public void setMainThreadPriority( @Nonnull MainThreadPriority priority )
+    {
+        mainThreadPriority = priority;
+        serverExecutor.setPriority( priority );
+    }
+
     public void addApi( ILuaAPI api )
     {
         executor.addApi( api );
@@ -43,4 +43,16 @@
      */
     @Nullable
     IWritableMount createRootMount();
+
+    /**
+     * Get the priority with which this computer should be started. When many computers are waiting to start, those
+     * with a higher priority are started first.
+     *
+     * @return This computer's boot priority.
+     * @see BootQueue
+     */
+    default int getBootPriority()
+    {
+        return 0;
+    }
 }
@@ -10,11 +10,16 @@
 import dan200.computercraft.api.filesystem.IWritableMount;
 import dan200.computercraft.api.lua.ILuaAPI;
 import dan200.computercraft.api.lua.ILuaAPIFactory;
+import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.core.ComputerContext;
 import dan200.computercraft.core.apis.*;
+import dan200.computercraft.core.apis.handles.EncodedReadableHandle;
 import dan200.computercraft.core.filesystem.FileSystem;
 import dan200.computercraft.core.filesystem.FileSystemException;
+import dan200.computercraft.core.filesystem.FileSystemWrapper;
+import dan200.computercraft.core.lua.ChunkCache;
 import dan200.computercraft.core.lua.ILuaMachine;
+import dan200.computercraft.core.lua.LuaProfiler;
 import dan200.computercraft.core.lua.MachineEnvironment;
 import dan200.computercraft.core.lua.MachineResult;
 import dan200.computercraft.core.metrics.Metrics;
@@ -25,6 +30,8 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -68,6 +75,13 @@
 
     private ILuaMachine machine;
 
+    /**
+     * The profiler currently sampling this computer's Lua machine, if any.
+     *
+     * @see #setProfiler(LuaProfiler)
+     */
+    private volatile LuaProfiler profiler;
+
     /**
      * Whether the computer is currently on. This is set to false when a shutdown starts, or when turning on completes
      * (but just before the Lua machine is started).
@@ -129,6 +143,22 @@
      */
     private volatile StateCommand command;
 
+    /**
+     * Whether {@link #command} was admitted by the {@link BootQueue}, and so we must notify it once the command has
+     * been processed.
+     */
+    private boolean booting;
+
+    /**
+     * Whether this computer is waiting in the {@link BootQueue}. This is guarded by the boot queue's lock.
+     */
+    boolean bootPending;
+
+    /**
+     * When this computer was last added to the {@link BootQueue}. This is set by the boot queue.
+     */
+    volatile long bootRequested;
+
     /**
      * The queue of events which should be executed when this computer is on.
      * <p>
@@ -162,6 +192,8 @@
     final AtomicReference<Thread> executingThread = new AtomicReference<>();
 
     private final ILuaMachine.Factory luaFactory;
+    private final ChunkCache chunkCache;
+    private final BootQueue bootQueue;
 
     ComputerExecutor( Computer computer, ComputerEnvironment computerEnvironment, ComputerContext context )
     {
@@ -169,6 +201,8 @@
         this.computerEnvironment = computerEnvironment;
         metrics = computerEnvironment.getMetrics();
         luaFactory = context.luaFactory();
+        chunkCache = context.chunkCache();
+        bootQueue = context.bootQueue();
         scheduler = context.computerScheduler();
         timeout = new TimeoutState( scheduler );
 
@@ -196,6 +230,16 @@ boolean isOn()
         return isOn;
     }
 
+    /**
+     * Whether this executor has no work scheduled or running.
+     *
+     * @return Whether this executor is idle.
+     */
+    boolean isIdle()
+    {
+        return !onComputerQueue && command == null;
+    }
+
     FileSystem getFileSystem()
     {
         return fileSystem;
@@ -212,17 +256,30 @@ void addApi( ILuaAPI api )
     }
 
     /**
-     * Schedule this computer to be started if not already on.
+     * Request this computer be started, once the {@link BootQueue} has capacity.
      */
-    void queueStart()
+    void requestStart()
+    {
+        bootQueue.request( this, computerEnvironment.getBootPriority() );
+    }
+
+    /**
+     * Schedule this computer to be started if not already on. This should only be called by the {@link BootQueue}.
+     *
+     * @return Whether the computer was scheduled to start. If so, {@link BootQueue#finished()} will be called once
+     * the start command has been processed.
+     */
+    boolean queueStart()
     {
         synchronized( queueLock )
         {
             // We should only schedule a start if we're not currently on and there's turn on.
-            if( closed || isOn || command != null ) return;
+            if( closed || isOn || command != null ) return false;
 
             command = StateCommand.TURN_ON;
+            booting = true;
             enqueue();
+            return true;
         }
     }
 
@@ -235,6 +292,9 @@ void queueStart()
      */
     void queueStop( boolean reboot, boolean close )
     {
+        // If we're still waiting to start, then we no longer need to. Reboots should still turn the computer on.
+        if( !reboot ) bootQueue.cancel( this );
+
         synchronized( queueLock )
         {
             if( closed ) return;
@@ -304,11 +364,28 @@ void queueEvent( @Nonnull String event, @Nullable Object[] args )
             // We also limit the number of events which can be queued.
             if( closed || command != null || eventQueue.size() >= QUEUE_LIMIT ) return;
 
+            // If the computer is idle (and so has no pending events), and is waiting for a different event, then the
+            // machine would discard this event as soon as it is resumed. Drop it now instead of waking the computer.
+            if( !onComputerQueue && isFiltered( event ) )
+            {
+                metrics.observe( Metrics.EVENTS_FILTERED );
+                return;
+            }
+
             eventQueue.offer( new Event( event, args ) );
             enqueue();
         }
     }
 
+    private boolean isFiltered( String event )
+    {
+        ILuaMachine machine = this.machine;
+        if( machine == null || event.equals( "terminate" ) ) return false;
+
+        String filter = machine.getEventFilter();
+        return filter != null && !filter.equals( event );
+    }
+
     /**
      * Add this executor to the {@link ComputerThread} if not already there.
      */
@@ -316,7 +393,11 @@ private void enqueue()
     {
         synchronized( queueLock )
         {
-            if( !onComputerQueue ) scheduler.queue( this );
+            if( !onComputerQueue )
+            {
+                scheduler.queue( this );
+                computer.wake();
+            }
         }
     }
 
@@ -346,6 +427,36 @@ void tick()
         }
     }
 
+    /**
+     * Read a file from a read-only mount, for use by the {@link ChunkCache}. This is called from the computer thread
+     * while the machine is running.
+     *
+     * @param path The path of the file to read.
+     * @return The file's contents, or {@code null} if it does not exist or is not read-only.
+     */
+    @Nullable
+    private String readOnlyFile( @Nonnull String path )
+    {
+        FileSystem fileSystem = this.fileSystem;
+        if( fileSystem == null ) return null;
+
+        try
+        {
+            if( !fileSystem.exists( path ) || fileSystem.isDir( path ) || !fileSystem.isReadOnly( path ) ) return null;
+
+            // Read the file in the same way as fs.open(path, "r").readAll(), so the contents match what the bios loads.
+            try( FileSystemWrapper<BufferedReader> reader = fileSystem.openForRead( path, EncodedReadableHandle::openUtf8 ) )
+            {
+                Object[] contents = new EncodedReadableHandle( reader.get(), reader ).readAll();
+                return contents == null ? null : (String) contents[0];
+            }
+        }
+        catch( FileSystemException | LuaException | IOException e )
+        {
+            return null;
+        }
+    }
+
     private IMount getRomMount()
     {
         return computer.getGlobalEnvironment().createResourceMount( "computercraft", "lua/rom" );
@@ -404,7 +515,8 @@ private ILuaMachine createLuaMachine()
 
         // Create the lua machine
         ILuaMachine machine = luaFactory.create( new MachineEnvironment(
-            new LuaContext( computer ), metrics, timeout, computer.getGlobalEnvironment().getHostString()
+            new LuaContext( computer ), metrics, timeout, computer.getGlobalEnvironment().getHostString(),
+            chunkCache, this::readOnlyFile
         ) );
 
         // Add the APIs. We unwrap them (yes, this is horrible) to get access to the underlying object.
@@ -538,7 +650,12 @@ boolean afterWork()
 
         synchronized( queueLock )
         {
-            if( eventQueue.isEmpty() && command == null ) return onComputerQueue = false;
+            if( eventQueue.isEmpty() && command == null )
+            {
+                // Wake the computer, so any changes made while running are propagated before it is parked again.
+                computer.wake();
+                return onComputerQueue = false;
+            }
             return true;
         }
     }
@@ -566,10 +683,13 @@ void work() throws InterruptedException
 
         StateCommand command;
         Event event = null;
+        boolean booting;
         synchronized( queueLock )
         {
             command = this.command;
             this.command = null;
+            booting = this.booting;
+            this.booting = false;
 
             // If we've no command, pull something from the event queue instead.
             if( command == null )
@@ -588,39 +708,13 @@ void work() throws InterruptedException
 
         if( command != null )
         {
-            switch( command )
+            try
             {
-                case TURN_ON:
-                    if( isOn ) return;
-                    turnOn();
-                    break;
-
-                case SHUTDOWN:
-
-                    if( !isOn ) return;
-                    computer.getTerminal().reset();
-                    shutdown();
-                    break;
-
-                case REBOOT:
-                    if( !isOn ) return;
-                    computer.getTerminal().reset();
-                    shutdown();
-
-                    computer.turnOn();
-                    break;
-
-                case ABORT:
-                    if( !isOn ) return;
-                    displayFailure( "Error running computer", TimeoutState.ABORT_MESSAGE );
-                    shutdown();
-                    break;
-
-                case ERROR:
-                    if( !isOn ) return;
-                    displayFailure( "Error running computer", "An internal error occurred, see logs." );
-                    shutdown();
-                    break;
+                runCommand( command );
+            }
+            finally
+            {
+                if( booting ) finishBoot();
             }
         }
         else if( event != null )
@@ -629,6 +723,73 @@ else if( event != null )
         }
     }
 
+    private void runCommand( StateCommand command ) throws InterruptedException
+    {
+        switch( command )
+        {
+            case TURN_ON:
+                if( isOn ) return;
+                turnOn();
+                break;
+
+            case SHUTDOWN:
+
+                if( !isOn ) return;
+                computer.getTerminal().reset();
+                shutdown();
+                break;
+
+            case REBOOT:
+                if( !isOn ) return;
+                computer.getTerminal().reset();
+                shutdown();
+
+                computer.turnOn();
+                break;
+
+            case ABORT:
+                if( !isOn ) return;
+                displayFailure( "Error running computer", TimeoutState.ABORT_MESSAGE );
+                shutdown();
+                break;
+
+            case ERROR:
+                if( !isOn ) return;
+                displayFailure( "Error running computer", "An internal error occurred, see logs." );
+                shutdown();
+                break;
+        }
+    }
+
+    private void finishBoot()
+    {
+        if( isOn ) metrics.observe( Metrics.COMPUTER_BOOT, System.nanoTime() - bootRequested );
+        bootQueue.finished();
+    }
+
+    @Nullable
+    LuaProfiler getProfiler()
+    {
+        return profiler;
+    }
+
+    /**
+     * Start or stop profiling this computer. This may be called from any thread.
+     * <p>
+     * We forward the profiler to the current machine immediately, so we can profile computers which are stuck in a
+     * long-running task. The profiler is also set each time the machine is resumed, which ensures newly created machines
+     * pick it up.
+     *
+     * @param profiler The profiler to use, or {@code null} to stop profiling.
+     */
+    void setProfiler( @Nullable LuaProfiler profiler )
+    {
+        this.profiler = profiler;
+
+        ILuaMachine machine = this.machine;
+        if( machine != null ) machine.setProfiler( profiler );
+    }
+
     void printState( StringBuilder out )
     {
         out.append( "Enqueued command: " ).append( command ).append( '\n' );
@@ -663,6 +824,7 @@ private void displayFailure( String message, String extra )
 
     private void resumeMachine( String event, Object[] args ) throws InterruptedException
     {
+        machine.setProfiler( profiler );
         MachineResult result = machine.handleEvent( event, args );
         interruptedEvent = result.isPause();
         if( !result.isError() ) return;
@@ -451,6 +451,38 @@ public boolean hasPendingWork()
         return !computerQueue.isEmpty();
     }
 
+    /**
+     * Get the number of computers waiting to be executed. This is intended for monitoring, and so may be slightly
+     * out-of-date.
+     *
+     * @return The number of queued computers.
+     */
+    public int getQueueSize()
+    {
+        // FIXME: See comment in scaledPeriod.
+        return computerQueue.size();
+    }
+
+    /**
+     * Get the number of workers which are waiting for work. This is intended for monitoring.
+     *
+     * @return The number of idle workers.
+     */
+    public int getIdleWorkers()
+    {
+        return idleWorkers.get();
+    }
+
+    /**
+     * Get the maximum number of workers this thread pool will run.
+     *
+     * @return The maximum number of workers.
+     */
+    public int getWorkerLimit()
+    {
+        return workers.length;
+    }
+
     /**
      * Check if we have more work queued than we have capacity for. Effectively a more fine-grained version of
      * {@link #hasPendingWork()}.
@@ -25,16 +25,28 @@
  * <p>
  * This handles storing and updating of peripherals and redstone.
  *
+ * <h1>Threading</h1>
+ * {@link #tick()} and {@link #updateOutput()} are called from {@link Computer#tickState()}, which may run off the main
+ * thread, in parallel with other computers. It never runs at the same time as {@link Computer#tickMain()} or anything
+ * else touching this computer on the main thread, and the server hands work to and from the ticking pool with a
+ * fork-join, which makes main-thread writes visible to the state tick (and vice versa). Neither method may access the
+ * world.
+ *
  * <h1>Redstone</h1>
  * We holds three kinds of arrays for redstone, in normal and bundled versions:
  * <ul>
  * <li>{@link #internalOutput} is the redstone output which the computer has currently set. This is read on both
  * threads, and written on the computer thread.</li>
- * <li>{@link #externalOutput} is the redstone output currently propagated to the world. This is only read and written
- * on the main thread.</li>
- * <li>{@link #input} is the redstone input from external sources. This is read on both threads, and written on the main
- * thread.</li>
+ * <li>{@link #externalOutput} is the redstone output currently propagated to the world. This is written by
+ * {@link #updateOutput()} during the state tick, and read on the main thread.</li>
+ * <li>{@link #input} is the redstone input from external sources. This is written on the main thread, and read on the
+ * computer thread and during the state tick. Neither it nor {@link #inputChanged} are synchronised: the state tick
+ * relies on the fork-join handoff described above to see the main thread's writes, so they must only be written from
+ * the main thread, outside of the state tick.</li>
  * </ul>
+ * <p>
+ * Changes are edge-triggered: a {@code redstone} event is only queued if the input differs from when we last queued
+ * one, and {@link #updateOutput()} reports which sides' outputs changed, so only those neighbours need to be notified.
  *
  * <h1>Peripheral</h1>
  * We also keep track of peripherals. These are read on both threads, and only written on the main thread.
@@ -55,6 +67,8 @@ public final class Environment implements IAPIEnvironment
     private boolean inputChanged = false;
     private final int[] input = new int[ComputerSide.COUNT];
     private final int[] bundledInput = new int[ComputerSide.COUNT];
+    private final int[] reportedInput = new int[ComputerSide.COUNT];
+    private final int[] reportedBundledInput = new int[ComputerSide.COUNT];
 
     private final IPeripheral[] peripherals = new IPeripheral[ComputerSide.COUNT];
     private IPeripheralChangeListener peripheralListener = null;
@@ -149,6 +163,7 @@ public void setOutput( ComputerSide side, int output )
             {
                 internalOutput[index] = output;
                 internalOutputChanged = true;
+                computer.wake();
             }
         }
     }
@@ -172,6 +187,7 @@ public void setBundledOutput( ComputerSide side, int output )
             {
                 internalBundledOutput[index] = output;
                 internalOutputChanged = true;
+                computer.wake();
             }
         }
     }
@@ -202,6 +218,7 @@ public void setRedstoneInput( ComputerSide side, int level )
         {
             input[index] = level;
             inputChanged = true;
+            computer.wake();
         }
     }
 
@@ -212,6 +229,7 @@ public void setBundledRedstoneInput( ComputerSide side, int combination )
         {
             bundledInput[index] = combination;
             inputChanged = true;
+            computer.wake();
         }
     }
 
@@ -230,14 +248,38 @@ void reset()
     }
 
     /**
-     * Called on the main thread to update the internal state of the computer.
+     * Whether this computer has any running timers.
+     *
+     * @return Whether there are any active timers.
+     */
+    boolean hasTimers()
+    {
+        synchronized( timers )
+        {
+            return !timers.isEmpty();
+        }
+    }
+
+    /**
+     * Update the internal state of the computer, queuing redstone events and counting down timers.
+     * <p>
+     * This is called during the state tick (see {@link Computer#tickState()}), and so may run off the main thread. It
+     * must not access the world.
      */
     void tick()
     {
         if( inputChanged )
         {
             inputChanged = false;
-            queueEvent( "redstone" );
+
+            // The input may have changed and then changed back within a single tick (for instance, from a fast
+            // clock). Only queue an event if it actually differs from what we last reported.
+            if( !Arrays.equals( input, reportedInput ) || !Arrays.equals( bundledInput, reportedBundledInput ) )
+            {
+                System.arraycopy( input, 0, reportedInput, 0, ComputerSide.COUNT );
+                System.arraycopy( bundledInput, 0, reportedBundledInput, 0, ComputerSide.COUNT );
+                queueEvent( "redstone" );
+            }
         }
 
         synchronized( timers )
@@ -260,31 +302,34 @@ void tick()
     }
 
     /**
-     * Called on the main thread to propagate the internal outputs to the external ones.
+     * Propagate the internal outputs to the external ones.
+     * <p>
+     * Like {@link #tick()}, this is called during the state tick and so may run off the main thread. It only copies
+     * outputs - notifying neighbours of the returned sides must happen back on the main thread.
      *
-     * @return If the outputs have changed.
+     * @return A bitmask of the {@linkplain ComputerSide sides} whose output has changed.
      */
-    boolean updateOutput()
+    int updateOutput()
     {
         // Mark output as changed if the internal redstone has changed
         synchronized( internalOutput )
         {
-            if( !internalOutputChanged ) return false;
+            if( !internalOutputChanged ) return 0;
 
-            boolean changed = false;
+            int changed = 0;
 
             for( int i = 0; i < ComputerSide.COUNT; i++ )
             {
                 if( externalOutput[i] != internalOutput[i] )
                 {
                     externalOutput[i] = internalOutput[i];
-                    changed = true;
+                    changed |= 1 << i;
                 }
 
                 if( externalBundledOutput[i] != internalBundledOutput[i] )
                 {
                     externalBundledOutput[i] = internalBundledOutput[i];
-                    changed = true;
+                    changed |= 1 << i;
                 }
             }
 
@@ -302,6 +347,7 @@ void resetOutput()
             Arrays.fill( internalOutput, 0 );
             Arrays.fill( internalBundledOutput, 0 );
             internalOutputChanged = true;
+            computer.wake();
         }
     }
 
@@ -357,6 +403,7 @@ public int startTimer( long ticks )
         synchronized( timers )
         {
             timers.put( nextTimerToken, new Timer( ticks ) );
+            computer.wake();
             return nextTimerToken++;
         }
     }
@@ -376,12 +423,24 @@ public void observe( @Nonnull Metric.Event event, long change )
         metrics.observe( event, change );
     }
 
+    @Override
+    public void observe( @Nonnull Metric.Event event, @Nonnull String label, long change )
+    {
+        metrics.observe( event, label, change );
+    }
+
     @Override
     public void observe( @Nonnull Metric.Counter counter )
     {
         metrics.observe( counter );
     }
 
+    @Override
+    public boolean isMetricsEnabled()
+    {
+        return metrics.isEnabled();
+    }
+
     private static class Timer
     {
         long ticksLeft;
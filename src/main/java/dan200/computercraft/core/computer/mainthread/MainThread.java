@@ -10,6 +10,8 @@
 
 import java.util.HashSet;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Runs tasks on the main (server) thread, ticks {@link MainThreadExecutor}s, and limits how much time is used this
@@ -67,6 +69,13 @@ public final class MainThread implements MainThreadScheduler
 
     private long minimumTime = 0;
 
+    /**
+     * The total time spent and tasks run by each {@link MainThreadPriority}. This includes external tasks, as reported
+     * by {@link MainThreadExecutor#trackWork(long, TimeUnit)}.
+     */
+    private final AtomicLongArray classTime = new AtomicLongArray( MainThreadPriority.values().length );
+    private final AtomicLongArray classTasks = new AtomicLongArray( MainThreadPriority.values().length );
+
     public MainThread()
     {
     }
@@ -84,7 +93,7 @@ void queue( MainThreadExecutor executor )
             long newRuntime = minimumTime;
 
             // Slow down new computers a little bit.
-            if( executor.virtualTime == 0 ) newRuntime += ComputerCraft.maxMainComputerTime;
+            if( executor.virtualTime == 0 ) newRuntime += executor.priority.scale( ComputerCraft.maxMainComputerTime );
 
             executor.virtualTime = Math.max( newRuntime, executor.virtualTime );
 
@@ -102,6 +111,12 @@ void consumeTime( long time )
         budget -= time;
     }
 
+    void observe( MainThreadPriority priority, long time, boolean task )
+    {
+        classTime.addAndGet( priority.ordinal(), time );
+        if( task ) classTasks.incrementAndGet( priority.ordinal() );
+    }
+
     boolean canExecute()
     {
         return canExecute;
@@ -165,6 +180,64 @@ public void tick()
         consumeTime( System.nanoTime() - start );
     }
 
+    /**
+     * Get the number of computers waiting to run tasks. This is intended for monitoring.
+     *
+     * @return The number of queued computers.
+     */
+    public int getQueueSize()
+    {
+        synchronized( executors )
+        {
+            return executors.size();
+        }
+    }
+
+    /**
+     * Get the number of computers which have exceeded their time budget and are cooling down. This is intended for
+     * monitoring, and so may be slightly out-of-date.
+     *
+     * @return The number of cooling computers.
+     */
+    public int getCoolingSize()
+    {
+        return cooling.size();
+    }
+
+    /**
+     * Get the remaining budget for this tick, in nanoseconds. This is intended for monitoring, and so may be slightly
+     * out-of-date.
+     *
+     * @return The remaining budget. This may be negative if we went over budget.
+     * @see ComputerCraft#maxMainGlobalTime
+     */
+    public long getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Get the total time spent running work for computers of a given scheduling class.
+     *
+     * @param priority The scheduling class.
+     * @return The total time in nanoseconds, including external work such as turtle actions.
+     */
+    public long getTime( MainThreadPriority priority )
+    {
+        return classTime.get( priority.ordinal() );
+    }
+
+    /**
+     * Get the total number of main-thread tasks run for computers of a given scheduling class.
+     *
+     * @param priority The scheduling class.
+     * @return The number of tasks run.
+     */
+    public long getTasks( MainThreadPriority priority )
+    {
+        return classTasks.get( priority.ordinal() );
+    }
+
     @Override
     public Executor createExecutor( MetricsObserver metrics )
     {
@@ -106,8 +106,21 @@ final class MainThreadExecutor implements MainThreadScheduler.Executor
 
     private long pendingTime;
 
+    /**
+     * The time the currently running {@link #tasks task} started at, or 0 if no task is running. This is only accessed
+     * from the main thread.
+     *
+     * @see #shouldWork()
+     */
+    private long taskStart;
+
     long virtualTime;
 
+    /**
+     * The scheduling class of this executor, used to scale {@link #virtualTime}.
+     */
+    volatile MainThreadPriority priority = MainThreadPriority.NORMAL;
+
     private final MainThread scheduler;
 
     MainThreadExecutor( MetricsObserver metrics, MainThread scheduler )
@@ -143,7 +156,17 @@ void execute()
             task = tasks.poll();
         }
 
-        if( task != null ) task.run();
+        if( task == null ) return;
+
+        taskStart = System.nanoTime();
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            taskStart = 0;
+        }
     }
 
     /**
@@ -156,9 +179,12 @@ boolean afterExecute( long time )
     {
         consumeTime( time );
 
+        MainThreadPriority priority = this.priority;
+        scheduler.observe( priority, time, true );
+
         synchronized( queueLock )
         {
-            virtualTime += time;
+            virtualTime += priority.scale( time );
             updateTime();
             if( state != State.COOL || tasks.isEmpty() ) return onQueue = false;
             return true;
@@ -176,19 +202,35 @@ public boolean canWork()
         return state != State.COOLING && scheduler.canExecute();
     }
 
+    @Override
+    public void setPriority( MainThreadPriority priority )
+    {
+        this.priority = priority;
+    }
+
     @Override
     public boolean shouldWork()
     {
-        return state == State.COOL && scheduler.canExecute();
+        if( state != State.COOL || !scheduler.canExecute() ) return false;
+
+        // If called from within one of our tasks, also check the task hasn't used up the rest of this tick's budget.
+        // The task's time is only consumed once it finishes, so is not reflected in the budget yet.
+        long taskStart = this.taskStart;
+        if( taskStart == 0 ) return true;
+
+        long budget = currentTick == scheduler.currentTick() ? this.budget : ComputerCraft.maxMainComputerTime;
+        return System.nanoTime() - taskStart < budget;
     }
 
     @Override
     public void trackWork( long time, TimeUnit unit )
     {
         long nanoTime = unit.toNanos( time );
+        MainThreadPriority priority = this.priority;
+        scheduler.observe( priority, nanoTime, false );
         synchronized( queueLock )
         {
-            pendingTime += nanoTime;
+            pendingTime += priority.scale( nanoTime );
         }
 
         consumeTime( nanoTime );
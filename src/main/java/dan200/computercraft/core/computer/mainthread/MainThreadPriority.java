@@ -0,0 +1,66 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.computer.mainthread;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Locale;
+
+/**
+ * The scheduling class of a computer's main-thread tasks.
+ * <p>
+ * {@link MainThread} schedules computers using weighted fair queueing: every computer's virtual time advances by the
+ * time its tasks take, divided by the weight of its class. This means a {@link #HIGH} priority computer may use four
+ * times as much main-thread time as a {@link #NORMAL} one before it is scheduled behind it, and so is much less likely
+ * to be queued behind busy computers.
+ * <p>
+ * Priority does not change a computer's per-tick budget: a computer which uses more than
+ * {@link dan200.computercraft.ComputerCraft#maxMainComputerTime} will still be cooled down, whatever its class.
+ */
+public enum MainThreadPriority
+{
+    LOW( 1 ),
+    NORMAL( 4 ),
+    HIGH( 16 );
+
+    private static final MainThreadPriority[] VALUES = values();
+
+    private final int weight;
+    private final String name;
+
+    MainThreadPriority( int weight )
+    {
+        this.weight = weight;
+        name = name().toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * Scale the time taken by a task according to this class's weight.
+     *
+     * @param time The time the task took.
+     * @return The amount to advance the computer's virtual time by.
+     */
+    long scale( long time )
+    {
+        return time * NORMAL.weight / weight;
+    }
+
+    @Nonnull
+    public String getName()
+    {
+        return name;
+    }
+
+    @Nullable
+    public static MainThreadPriority fromName( @Nullable String name )
+    {
+        for( MainThreadPriority priority : VALUES )
+        {
+            if( priority.name.equals( name ) ) return priority;
+        }
+        return null;
+    }
+}
@@ -39,5 +39,14 @@ interface Executor extends IWorkMonitor
          * be scheduled.
          */
         boolean enqueue( Runnable task );
+
+        /**
+         * Set the scheduling class of this executor. This can be called from any thread.
+         *
+         * @param priority The new scheduling class.
+         */
+        default void setPriority( MainThreadPriority priority )
+        {
+        }
     }
 }
@@ -10,11 +10,15 @@
 import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.MethodResult;
 import dan200.computercraft.core.asm.LuaMethod;
+import dan200.computercraft.core.metrics.Metrics;
+import dan200.computercraft.core.metrics.MetricsObserver;
 import org.squiddev.cobalt.LuaError;
 import org.squiddev.cobalt.LuaState;
 import org.squiddev.cobalt.Varargs;
 import org.squiddev.cobalt.function.VarArgFunction;
 
+import javax.annotation.Nullable;
+
 /**
  * An "optimised" version of {@link ResultInterpreterFunction} which is guaranteed to never yield.
  * <p>
@@ -27,13 +31,16 @@ class BasicFunction extends VarArgFunction
     private final Object instance;
     private final ILuaContext context;
     private final String name;
+    private final @Nullable String prefix;
+    private String label;
 
-    BasicFunction( CobaltLuaMachine machine, LuaMethod method, Object instance, ILuaContext context, String name )
+    BasicFunction( CobaltLuaMachine machine, LuaMethod method, Object instance, ILuaContext context, @Nullable String prefix, String name )
     {
         this.machine = machine;
         this.method = method;
         this.instance = instance;
         this.context = context;
+        this.prefix = prefix;
         this.name = name;
     }
 
@@ -41,6 +48,10 @@ class BasicFunction extends VarArgFunction
     public Varargs invoke( LuaState luaState, Varargs args ) throws LuaError
     {
         VarargArguments arguments = VarargArguments.of( args );
+        MetricsObserver metrics = machine.metrics;
+        boolean timed = prefix != null && metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+
         MethodResult results;
         try
         {
@@ -61,6 +72,11 @@ public Varargs invoke( LuaState luaState, Varargs args ) throws LuaError
         finally
         {
             arguments.close();
+            if( timed )
+            {
+                if( label == null ) label = prefix + "." + name;
+                metrics.observe( Metrics.METHOD_TIME, label, System.nanoTime() - start );
+            }
         }
 
         if( results.getCallback() != null )
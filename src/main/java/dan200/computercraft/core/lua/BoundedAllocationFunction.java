@@ -0,0 +1,142 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import org.squiddev.cobalt.*;
+import org.squiddev.cobalt.function.VarArgFunction;
+
+/**
+ * A wrapper around a Lua library function which may build a large string in a single call (such as
+ * {@code string.rep}), which checks the size of the result against the machine's {@link MemoryTracker} before
+ * building it.
+ * <p>
+ * These are the easiest ways to allocate a huge amount of memory at once, which would otherwise happen long before our
+ * next sample noticed. Note that the {@code ..} operator is not covered, as it is implemented by the interpreter
+ * itself.
+ */
+final class BoundedAllocationFunction extends VarArgFunction
+{
+    /**
+     * Estimates the number of bytes a call will allocate, from its arguments.
+     */
+    @FunctionalInterface
+    interface Estimator
+    {
+        double estimate( Varargs args );
+    }
+
+    private final MemoryTracker memory;
+    private final LuaValue delegate;
+    private final Estimator estimator;
+
+    private BoundedAllocationFunction( MemoryTracker memory, LuaValue delegate, Estimator estimator )
+    {
+        this.memory = memory;
+        this.delegate = delegate;
+        this.estimator = estimator;
+    }
+
+    /**
+     * Wrap the functions in Lua's standard library which may allocate large strings.
+     *
+     * @param memory  The memory tracker to report allocations to.
+     * @param globals The globals to find the library functions in.
+     */
+    static void install( MemoryTracker memory, LuaTable globals )
+    {
+        LuaTable string = (LuaTable) globals.rawget( "string" );
+        wrap( memory, string, "rep", BoundedAllocationFunction::rep );
+        wrap( memory, string, "format", BoundedAllocationFunction::format );
+
+        LuaTable table = (LuaTable) globals.rawget( "table" );
+        wrap( memory, table, "concat", BoundedAllocationFunction::concat );
+    }
+
+    private static void wrap( MemoryTracker memory, LuaTable library, String name, Estimator estimator )
+    {
+        library.rawset( name, new BoundedAllocationFunction( memory, library.rawget( name ), estimator ) );
+    }
+
+    @Override
+    public Varargs invoke( LuaState state, Varargs args ) throws LuaError, UnwindThrowable
+    {
+        double size = estimator.estimate( args );
+        if( size > 0 ) memory.allocate( state, size >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) size );
+
+        return delegate.invoke( state, args );
+    }
+
+    /**
+     * {@code string.rep(s, n, sep)}: {@code n} copies of {@code s}, separated by {@code sep}.
+     *
+     * @param args The function's arguments.
+     * @return The estimated size of the result.
+     */
+    private static double rep( Varargs args )
+    {
+        LuaValue string = args.arg( 1 ), count = args.arg( 2 ), separator = args.arg( 3 );
+        if( !string.isString() || !count.isNumber() || !(separator.isNil() || separator.isString()) ) return 0;
+
+        double n = count.toDouble();
+        return n > 1 ? length( string ) * n + length( separator ) * (n - 1) : 0;
+    }
+
+    /**
+     * {@code string.format(fmt, ...)}: the format string, with each argument substituted in. Lua limits the width of
+     * each format specifier, so we only need to account for the arguments' contents.
+     *
+     * @param args The function's arguments.
+     * @return The estimated size of the result.
+     */
+    private static double format( Varargs args )
+    {
+        LuaValue format = args.arg( 1 );
+        if( !format.isString() ) return 0;
+
+        double size = length( format );
+        for( int i = 2, n = args.count(); i <= n; i++ )
+        {
+            LuaValue arg = args.arg( i );
+            size += arg instanceof LuaString ? ((LuaString) arg).length() : 32;
+        }
+        return size;
+    }
+
+    /**
+     * {@code table.concat(t, sep, i, j)}: the strings in {@code t[i..j]}, separated by {@code sep}. We stop at the
+     * first non-string value, as {@code table.concat} will error there anyway.
+     *
+     * @param args The function's arguments.
+     * @return The estimated size of the result.
+     */
+    private static double concat( Varargs args )
+    {
+        LuaValue value = args.arg( 1 ), separator = args.arg( 2 ), first = args.arg( 3 ), last = args.arg( 4 );
+        if( !(value instanceof LuaTable) || !(separator.isNil() || separator.isString()) ) return 0;
+        if( !(first.isNil() || first.isNumber()) || !(last.isNil() || last.isNumber()) ) return 0;
+
+        LuaTable table = (LuaTable) value;
+        int start = first.isNil() ? 1 : first.toInteger();
+        int end = last.isNil() ? table.length() : last.toInteger();
+
+        double size = 0;
+        long separatorLength = length( separator );
+        for( int i = start; i <= end; i++ )
+        {
+            LuaValue item = table.rawget( i );
+            if( !item.isString() ) break;
+            size += length( item );
+            if( i != start ) size += separatorLength;
+        }
+        return size;
+    }
+
+    private static long length( LuaValue value )
+    {
+        if( value instanceof LuaString ) return ((LuaString) value).length();
+        return value.isNil() ? 0 : value.toString().length();
+    }
+}
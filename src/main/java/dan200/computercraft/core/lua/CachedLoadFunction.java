@@ -0,0 +1,66 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import org.squiddev.cobalt.*;
+import org.squiddev.cobalt.compiler.CompileException;
+import org.squiddev.cobalt.function.LuaClosure;
+import org.squiddev.cobalt.function.VarArgFunction;
+
+/**
+ * A wrapper around Lua's {@code load} function, which uses the {@link ChunkCache} for read-only files.
+ * <p>
+ * The bios loads programs by reading the file and passing its contents to {@code load} with a chunk name of
+ * {@code "@/" .. path} and an explicit environment. We only intercept calls of that shape, leaving everything else to
+ * the original function. As the chunk name and contents are entirely under the caller's control, a chunk is only added
+ * to the cache if it matches the file on disk, and that file is on a read-only mount.
+ */
+class CachedLoadFunction extends VarArgFunction
+{
+    private final ChunkCache cache;
+    private final ChunkCache.ReadOnlyFiles files;
+    private final LuaValue load;
+
+    CachedLoadFunction( ChunkCache cache, ChunkCache.ReadOnlyFiles files, LuaValue load )
+    {
+        this.cache = cache;
+        this.files = files;
+        this.load = load;
+    }
+
+    @Override
+    public Varargs invoke( LuaState state, Varargs args ) throws LuaError, UnwindThrowable
+    {
+        LuaValue chunk = args.arg( 1 ), name = args.arg( 2 ), mode = args.arg( 3 ), env = args.arg( 4 );
+        if( chunk instanceof LuaString && name instanceof LuaString && mode.isNil() && env instanceof LuaTable
+            && name.toString().startsWith( "@/" ) )
+        {
+            LuaString contents = (LuaString) chunk, chunkName = (LuaString) name;
+            LuaClosure closure = cache.get( chunkName, contents, (LuaTable) env );
+            if( closure != null ) return closure;
+
+            if( isReadOnly( chunkName.toString().substring( 2 ), contents ) )
+            {
+                try
+                {
+                    return cache.compile( state, chunkName, contents, (LuaTable) env );
+                }
+                catch( CompileException e )
+                {
+                    // Let the original function produce the error message.
+                }
+            }
+        }
+
+        return load.invoke( state, args );
+    }
+
+    private boolean isReadOnly( String path, LuaString contents )
+    {
+        String file = files.read( path );
+        return file != null && LuaString.valueOf( file ).equals( contents );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.squiddev.cobalt.*;
+import org.squiddev.cobalt.compiler.CompileException;
+import org.squiddev.cobalt.compiler.LoadState;
+import org.squiddev.cobalt.function.LuaClosure;
+import org.squiddev.cobalt.function.LuaInterpretedFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * A cache of compiled Lua chunks, shared between every machine in a
+ * {@link dan200.computercraft.core.ComputerContext}.
+ * <p>
+ * Every computer compiles the same bios and ROM files when it boots. Compiled {@link Prototype}s are immutable, so
+ * we compile each file once and then create a new closure from the shared prototype for each machine.
+ * <p>
+ * Chunks are keyed by their name and full contents, so a cached prototype is only ever reused for identical code.
+ * Only the bios and chunks which match a file on a read-only mount (see {@link ReadOnlyFiles}) are added to the cache,
+ * so user code cannot fill it up.
+ */
+public final class ChunkCache
+{
+    private static final long MAX_SIZE = 16 * 1024 * 1024;
+
+    private final Cache<Key, Prototype> cache = CacheBuilder.newBuilder()
+        .maximumWeight( MAX_SIZE )
+        .<Key, Prototype>weigher( ( key, value ) -> key.contents.length() )
+        .build();
+
+    /**
+     * Looks up the contents of files on a computer's read-only mounts (such as the ROM), so we can check a chunk
+     * really was read from one before caching it.
+     */
+    @FunctionalInterface
+    public interface ReadOnlyFiles
+    {
+        /**
+         * Read a file, as it would be returned by {@code fs.open(path, "r").readAll()}.
+         *
+         * @param path The path to the file.
+         * @return The file's contents, or {@code null} if it does not exist or is not on a read-only mount.
+         */
+        @Nullable
+        String read( @Nonnull String path );
+    }
+
+    /**
+     * Get a chunk from the cache, if it has been compiled before.
+     *
+     * @param name     The name of the chunk.
+     * @param contents The chunk's source code.
+     * @param env      The environment of the resulting function.
+     * @return The loaded function, or {@code null} if this chunk is not in the cache.
+     * @throws LuaError If the chunk could not be loaded.
+     */
+    @Nullable
+    LuaClosure get( @Nonnull LuaString name, @Nonnull LuaString contents, @Nonnull LuaTable env ) throws LuaError
+    {
+        Prototype prototype = cache.getIfPresent( new Key( name, contents ) );
+        if( prototype == null ) return null;
+
+        LuaInterpretedFunction closure = new LuaInterpretedFunction( prototype, env );
+        closure.nilUpvalues();
+        return closure;
+    }
+
+    /**
+     * Compile a chunk and add it to the cache. The caller must have checked this chunk comes from a trusted source,
+     * such as the bios or a {@linkplain ReadOnlyFiles read-only file}.
+     *
+     * @param state    The Lua state to load the chunk in.
+     * @param name     The name of the chunk.
+     * @param contents The chunk's source code.
+     * @param env      The environment of the resulting function.
+     * @return The loaded function.
+     * @throws CompileException If the chunk could not be compiled.
+     * @throws LuaError         If the chunk could not be loaded.
+     */
+    @Nonnull
+    LuaClosure compile( @Nonnull LuaState state, @Nonnull LuaString name, @Nonnull LuaString contents, @Nonnull LuaTable env ) throws CompileException, LuaError
+    {
+        LuaClosure closure = LoadState.load( state, contents.toInputStream(), name, env );
+        cache.put( new Key( name, contents ), closure.getPrototype() );
+        return closure;
+    }
+
+    /**
+     * Load a trusted chunk, reusing a previously compiled prototype if available.
+     *
+     * @param state    The Lua state to load the chunk in.
+     * @param name     The name of the chunk.
+     * @param contents The chunk's source code.
+     * @param env      The environment of the resulting function.
+     * @return The loaded function.
+     * @throws CompileException If the chunk could not be compiled.
+     * @throws LuaError         If the chunk could not be loaded.
+     * @see #compile(LuaState, LuaString, LuaString, LuaTable)
+     */
+    @Nonnull
+    LuaClosure load( @Nonnull LuaState state, @Nonnull LuaString name, @Nonnull LuaString contents, @Nonnull LuaTable env ) throws CompileException, LuaError
+    {
+        LuaClosure closure = get( name, contents, env );
+        return closure != null ? closure : compile( state, name, contents, env );
+    }
+
+    private static final class Key
+    {
+        final LuaString name;
+        final LuaString contents;
+
+        Key( LuaString name, LuaString contents )
+        {
+            this.name = name;
+            this.contents = contents;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if( this == o ) return true;
+            if( !(o instanceof Key) ) return false;
+            Key other = (Key) o;
+            return name.equals( other.name ) && contents.equals( other.contents );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( name, contents );
+        }
+    }
+}
@@ -5,6 +5,7 @@
  */
 package dan200.computercraft.core.lua;
 
+import com.google.common.io.ByteStreams;
 import dan200.computercraft.ComputerCraft;
 import dan200.computercraft.api.lua.IDynamicLuaObject;
 import dan200.computercraft.api.lua.ILuaAPI;
@@ -18,7 +19,6 @@
 import dan200.computercraft.shared.util.ThreadUtils;
 import org.squiddev.cobalt.*;
 import org.squiddev.cobalt.compiler.CompileException;
-import org.squiddev.cobalt.compiler.LoadState;
 import org.squiddev.cobalt.debug.DebugFrame;
 import org.squiddev.cobalt.debug.DebugHandler;
 import org.squiddev.cobalt.debug.DebugState;
@@ -49,26 +49,32 @@ public class CobaltLuaMachine implements ILuaMachine
         ThreadUtils.factory( "Coroutine" )
     );
 
+    private static final LuaString BIOS_NAME = valueOf( "@bios.lua" );
+
     private static final LuaMethod FUNCTION_METHOD = ( target, context, args ) -> ((ILuaFunction) target).call( args );
 
     private final TimeoutState timeout;
     private final TimeoutDebugHandler debug;
     private final ILuaContext context;
+    private final ChunkCache chunkCache;
+    private final MemoryTracker memory;
+    final MetricsObserver metrics;
 
     private LuaState state;
     private LuaTable globals;
 
     private LuaThread mainRoutine = null;
-    private String eventFilter = null;
+    private volatile String eventFilter = null;
 
     public CobaltLuaMachine( MachineEnvironment environment )
     {
         timeout = environment.timeout;
         context = environment.context;
+        chunkCache = environment.chunkCache;
         debug = new TimeoutDebugHandler();
 
         // Create an environment to run in
-        MetricsObserver metrics = environment.metrics;
+        MetricsObserver metrics = this.metrics = environment.metrics;
         LuaState state = this.state = LuaState.builder()
             .resourceManipulator( new VoidResourceManipulator() )
             .debug( debug )
@@ -89,6 +95,7 @@ public CobaltLuaMachine( MachineEnvironment environment )
 
         globals = new LuaTable();
         state.setupThread( globals );
+        memory = new MemoryTracker( metrics, ComputerCraft.maxLuaMemory, globals );
 
         // Add basic libraries
         globals.load( state, new BaseLib() );
@@ -106,6 +113,12 @@ public CobaltLuaMachine( MachineEnvironment environment )
         globals.rawset( "loadfile", Constants.NIL );
         globals.rawset( "print", Constants.NIL );
 
+        // Reuse compiled ROM programs where possible.
+        globals.rawset( "load", new CachedLoadFunction( chunkCache, environment.readOnlyFiles, globals.rawget( "load" ) ) );
+
+        // Check large allocations against the memory limit before making them.
+        BoundedAllocationFunction.install( memory, globals );
+
         // Add version globals
         globals.rawset( "_VERSION", valueOf( "Lua 5.1" ) );
         globals.rawset( "_HOST", valueOf( environment.hostString ) );
@@ -120,14 +133,14 @@ public CobaltLuaMachine( MachineEnvironment environment )
     public void addAPI( @Nonnull ILuaAPI api )
     {
         // Add the methods of an API to the global table
-        LuaTable table = wrapLuaObject( api );
+        String[] names = api.getNames();
+        LuaTable table = wrapLuaObject( api, names.length > 0 ? names[0] : api.getClass().getSimpleName() );
         if( table == null )
         {
             ComputerCraft.log.warn( "API {} does not provide any methods", api );
             table = new LuaTable();
         }
 
-        String[] names = api.getNames();
         for( String name : names ) globals.rawset( name, table );
     }
 
@@ -139,7 +152,7 @@ public MachineResult loadBios( @Nonnull InputStream bios )
 
         try
         {
-            LuaFunction value = LoadState.load( state, bios, "@bios.lua", globals );
+            LuaFunction value = chunkCache.load( state, BIOS_NAME, valueOf( ByteStreams.toByteArray( bios ) ), globals );
             mainRoutine = new LuaThread( state, value, globals );
             return MachineResult.OK;
         }
@@ -212,6 +225,19 @@ public MachineResult handleEvent( String eventName, Object[] arguments )
         }
     }
 
+    @Nullable
+    @Override
+    public String getEventFilter()
+    {
+        return eventFilter;
+    }
+
+    @Override
+    public void setProfiler( @Nullable LuaProfiler profiler )
+    {
+        debug.profiler = profiler;
+    }
+
     @Override
     public void printExecutionState( StringBuilder out )
     {
@@ -238,8 +264,16 @@ public void close()
         globals = null;
     }
 
+    /**
+     * Wrap a Java object as a table of Lua functions.
+     *
+     * @param object The object to wrap.
+     * @param prefix The prefix to use when recording {@linkplain Metrics#METHOD_TIME timings} of this object's methods,
+     *               such as the name of the API.
+     * @return The wrapped object, or {@code null} if it has no methods.
+     */
     @Nullable
-    private LuaTable wrapLuaObject( Object object )
+    private LuaTable wrapLuaObject( Object object, String prefix )
     {
         String[] dynamicMethods = object instanceof IDynamicLuaObject
             ? Objects.requireNonNull( ((IDynamicLuaObject) object).getMethodNames(), "Methods cannot be null" )
@@ -249,13 +283,13 @@ private LuaTable wrapLuaObject( Object object )
         for( int i = 0; i < dynamicMethods.length; i++ )
         {
             String method = dynamicMethods[i];
-            table.rawset( method, new ResultInterpreterFunction( this, LuaMethod.DYNAMIC.get( i ), object, context, method ) );
+            table.rawset( method, new ResultInterpreterFunction( this, LuaMethod.DYNAMIC.get( i ), object, context, prefix, method ) );
         }
 
         ObjectSource.allMethods( LuaMethod.GENERATOR, object, ( instance, method ) ->
             table.rawset( method.getName(), method.nonYielding()
-                ? new BasicFunction( this, method.getMethod(), instance, context, method.getName() )
-                : new ResultInterpreterFunction( this, method.getMethod(), instance, context, method.getName() ) ) );
+                ? new BasicFunction( this, method.getMethod(), instance, context, prefix, method.getName() )
+                : new ResultInterpreterFunction( this, method.getMethod(), instance, context, prefix, method.getName() ) ) );
 
         try
         {
@@ -269,7 +303,7 @@ private LuaTable wrapLuaObject( Object object )
     }
 
     @Nonnull
-    private LuaValue toValue( @Nullable Object object, @Nullable Map<Object, LuaValue> values )
+    LuaValue toValue( @Nullable Object object, @Nullable Map<Object, LuaValue> values )
     {
         if( object == null ) return Constants.NIL;
         if( object instanceof Number ) return valueOf( ((Number) object).doubleValue() );
@@ -294,12 +328,12 @@ private LuaValue toValue( @Nullable Object object, @Nullable Map<Object, LuaValu
 
         if( object instanceof ILuaFunction )
         {
-            return new ResultInterpreterFunction( this, FUNCTION_METHOD, object, context, object.toString() );
+            return new ResultInterpreterFunction( this, FUNCTION_METHOD, object, context, null, object.toString() );
         }
 
         if( object instanceof IDynamicLuaObject )
         {
-            LuaValue wrapped = wrapLuaObject( object );
+            LuaValue wrapped = wrapLuaObject( object, object.getClass().getSimpleName() );
             if( wrapped == null ) wrapped = new LuaTable();
             values.put( object, wrapped );
             return wrapped;
@@ -338,7 +372,7 @@ private LuaValue toValue( @Nullable Object object, @Nullable Map<Object, LuaValu
             return table;
         }
 
-        LuaTable wrapped = wrapLuaObject( object );
+        LuaTable wrapped = wrapLuaObject( object, object.getClass().getSimpleName() );
         if( wrapped != null )
         {
             values.put( object, wrapped );
@@ -451,6 +485,8 @@ private class TimeoutDebugHandler extends DebugHandler
         private int oldFlags;
         private boolean oldInHook;
 
+        volatile @Nullable LuaProfiler profiler;
+
         TimeoutDebugHandler()
         {
             timeout = CobaltLuaMachine.this.timeout;
@@ -469,6 +505,11 @@ public void onInstruction( DebugState ds, DebugFrame di, int pc ) throws LuaErro
                 if( timeout.isHardAborted() || state == null ) throw HardAbortError.INSTANCE;
                 if( timeout.isPaused() ) handlePause( ds, di );
                 if( timeout.isSoftAborted() ) handleSoftAbort();
+
+                if( globals != null ) memory.sample( ds.getLuaState(), ds );
+
+                LuaProfiler profiler = this.profiler;
+                if( profiler != null ) profiler.tick( ds );
             }
 
             super.onInstruction( ds, di, pc );
@@ -59,6 +59,20 @@
      */
     MachineResult handleEvent( @Nullable String eventName, @Nullable Object[] arguments );
 
+    /**
+     * Get the event this machine is currently waiting for. Any other event (except {@code terminate}) will be ignored
+     * by {@link #handleEvent(String, Object[])}.
+     * <p>
+     * This may be called from any thread, but is only accurate while the machine is not running.
+     *
+     * @return The current event filter, or {@code null} if any event is accepted.
+     */
+    @Nullable
+    default String getEventFilter()
+    {
+        return null;
+    }
+
     /**
      * Print some information about the internal execution state.
      * <p>
@@ -68,6 +82,16 @@
      */
     void printExecutionState( StringBuilder out );
 
+    /**
+     * Set the profiler which should sample this machine's execution. This may be called from any thread, while the
+     * machine is running.
+     *
+     * @param profiler The profiler to use, or {@code null} to stop profiling.
+     */
+    default void setProfiler( @Nullable LuaProfiler profiler )
+    {
+    }
+
     /**
      * Close the Lua machine, aborting any running functions and deleting the internal state.
      */
@@ -0,0 +1,198 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import org.squiddev.cobalt.LuaString;
+import org.squiddev.cobalt.Prototype;
+import org.squiddev.cobalt.debug.DebugFrame;
+import org.squiddev.cobalt.debug.DebugState;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sampling profiler for Lua code, which periodically records the current Lua call stack of a computer.
+ * <p>
+ * Samples are taken from the machine's debug hook (see {@link CobaltLuaMachine}), roughly every
+ * {@link #INITIAL_INTERVAL} instructions. Stacks are stored in the "folded" format used by flame graph tools, where
+ * each line is a semicolon-separated list of frames followed by the number of times that stack was seen.
+ * <p>
+ * Profiling is bounded to keep its overhead low: only the innermost {@link #MAX_DEPTH} frames of a stack are recorded,
+ * at most {@link #MAX_STACKS} distinct stacks are kept, and if sampling takes more than 1% of the profiled time, we
+ * sample less frequently.
+ */
+public final class LuaProfiler
+{
+    /**
+     * The machine checks its timeout state every 128 instructions. We sample every few of those checks.
+     */
+    private static final int CHECK_INSTRUCTIONS = 128;
+
+    /**
+     * The initial number of instructions between samples.
+     */
+    public static final int INITIAL_INTERVAL = CHECK_INSTRUCTIONS * 8;
+
+    private static final int MAX_INTERVAL = CHECK_INSTRUCTIONS * 1024;
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_STACKS = 4096;
+    private static final String TRUNCATED = "[truncated]";
+
+    private final long started = System.nanoTime();
+    private final Object2LongMap<String> stacks = new Object2LongOpenHashMap<>();
+    private final List<DebugFrame> frames = new ArrayList<>();
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int interval = INITIAL_INTERVAL / CHECK_INSTRUCTIONS;
+    private int countdown = interval;
+    private long samples;
+    private long overhead;
+
+    /**
+     * Called by the machine every {@link #CHECK_INSTRUCTIONS} instructions, taking a sample if needed.
+     *
+     * @param state The debug state of the currently executing coroutine.
+     */
+    void tick( DebugState state )
+    {
+        if( --countdown > 0 ) return;
+
+        long start = System.nanoTime();
+        synchronized( this )
+        {
+            sample( state );
+
+            long end = System.nanoTime();
+            overhead += end - start;
+            if( overhead * 100 > end - started && interval < MAX_INTERVAL / CHECK_INSTRUCTIONS ) interval *= 2;
+            countdown = interval;
+        }
+    }
+
+    private void sample( DebugState state )
+    {
+        samples++;
+
+        List<DebugFrame> frames = this.frames;
+        for( int level = 0; level < MAX_DEPTH; level++ )
+        {
+            DebugFrame frame = state.getFrame( level );
+            if( frame == null ) break;
+            frames.add( frame );
+        }
+
+        StringBuilder stack = buffer;
+        if( frames.size() == MAX_DEPTH && state.getFrame( MAX_DEPTH ) != null ) stack.append( "..." );
+        for( int i = frames.size() - 1; i >= 0; i-- )
+        {
+            if( stack.length() > 0 ) stack.append( ';' );
+            appendFrame( stack, frames.get( i ) );
+        }
+        frames.clear();
+
+        String key = stack.toString();
+        stack.setLength( 0 );
+
+        if( stacks.size() >= MAX_STACKS && !stacks.containsKey( key ) ) key = TRUNCATED;
+        stacks.put( key, stacks.getLong( key ) + 1 );
+    }
+
+    private static void appendFrame( StringBuilder out, DebugFrame frame )
+    {
+        if( frame.closure != null )
+        {
+            Prototype proto = frame.closure.getPrototype();
+            appendSource( out, proto.source );
+            out.append( ':' );
+            if( proto.linedefined == 0 )
+            {
+                out.append( "main" );
+            }
+            else
+            {
+                out.append( proto.linedefined );
+            }
+        }
+        else if( frame.func != null )
+        {
+            appendName( out, frame.func.debugName() );
+        }
+        else
+        {
+            out.append( '?' );
+        }
+    }
+
+    private static void appendSource( StringBuilder out, LuaString luaSource )
+    {
+        String source = luaSource.toString();
+        if( !source.isEmpty() && (source.charAt( 0 ) == '@' || source.charAt( 0 ) == '=') )
+        {
+            appendName( out, source.substring( 1 ) );
+        }
+        else
+        {
+            out.append( "[string]" );
+        }
+    }
+
+    private static void appendName( StringBuilder out, String name )
+    {
+        // Semicolons separate frames, and spaces separate the stack from its count, so neither may appear in names.
+        for( int i = 0; i < name.length(); i++ )
+        {
+            char c = name.charAt( i );
+            out.append( c == ';' || c == ' ' || c == '\n' ? '_' : c );
+        }
+    }
+
+    /**
+     * Get the number of samples taken.
+     *
+     * @return The number of samples taken.
+     */
+    public synchronized long getSamples()
+    {
+        return samples;
+    }
+
+    /**
+     * Get the time spent taking samples, in nanoseconds.
+     *
+     * @return The profiler's overhead.
+     */
+    public synchronized long getOverhead()
+    {
+        return overhead;
+    }
+
+    /**
+     * Write all recorded stacks in the folded format.
+     *
+     * @param out The writer to write to.
+     * @throws IOException If the stacks could not be written.
+     */
+    public void writeFolded( Writer out ) throws IOException
+    {
+        Object2LongMap<String> stacks;
+        synchronized( this )
+        {
+            stacks = new Object2LongOpenHashMap<>( this.stacks );
+        }
+
+        for( Object2LongMap.Entry<String> stack : stacks.object2LongEntrySet() )
+        {
+            out.write( stack.getKey() );
+            out.write( ' ' );
+            out.write( Long.toString( stack.getLongValue() ) );
+            out.write( '\n' );
+        }
+    }
+}
@@ -39,11 +39,26 @@
      */
     public final String hostString;
 
-    public MachineEnvironment( ILuaContext context, MetricsObserver metrics, TimeoutState timeout, String hostString )
+    /**
+     * A cache of compiled chunks, shared between every machine in this computer's context.
+     */
+    public final ChunkCache chunkCache;
+
+    /**
+     * The computer's read-only files, used to check whether a chunk may be added to the {@link #chunkCache}.
+     */
+    public final ChunkCache.ReadOnlyFiles readOnlyFiles;
+
+    public MachineEnvironment(
+        ILuaContext context, MetricsObserver metrics, TimeoutState timeout, String hostString,
+        ChunkCache chunkCache, ChunkCache.ReadOnlyFiles readOnlyFiles
+    )
     {
         this.context = context;
         this.metrics = metrics;
         this.timeout = timeout;
         this.hostString = hostString;
+        this.chunkCache = chunkCache;
+        this.readOnlyFiles = readOnlyFiles;
     }
 }
@@ -0,0 +1,254 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import dan200.computercraft.core.metrics.Metrics;
+import dan200.computercraft.core.metrics.MetricsObserver;
+import org.squiddev.cobalt.*;
+import org.squiddev.cobalt.debug.DebugFrame;
+import org.squiddev.cobalt.debug.DebugState;
+import org.squiddev.cobalt.function.LuaInterpretedFunction;
+import org.squiddev.cobalt.function.Upvalue;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the approximate amount of memory used by a single {@link CobaltLuaMachine}.
+ * <p>
+ * Cobalt allocates Lua values as normal Java objects, and so offers no way to find how much memory a Lua state uses.
+ * Instead, we periodically {@linkplain #sample(LuaState, DebugState) walk} every string, table, function and coroutine
+ * reachable from the machine's globals and its current call stack, and estimate their size. Between samples, functions
+ * which may allocate large amounts of memory in one go (such as {@code string.rep}) {@linkplain #allocate(LuaState, long)
+ * report} their allocation up-front, so they may be rejected before the allocation happens. See
+ * {@link BoundedAllocationFunction} for which functions are covered.
+ * <p>
+ * If the estimated usage exceeds the limit, we throw a "not enough memory" error, as PUC Lua would.
+ */
+final class MemoryTracker
+{
+    private static final long SAMPLE_INTERVAL = TimeUnit.MILLISECONDS.toNanos( 100 );
+
+    /**
+     * How many times longer than the last sample took we should wait before sampling again.
+     */
+    private static final long SAMPLE_BACKOFF = 10;
+
+    /**
+     * The maximum number of values to visit in a single sample. This bounds the time and memory a sample takes on very
+     * large states, at the cost of under-estimating their size.
+     */
+    private static final int MAX_VISITED = 1 << 20;
+
+    // Rough sizes of Cobalt's objects on a 64-bit JVM with compressed pointers.
+    private static final long STRING_SIZE = 40;
+    private static final long TABLE_SIZE = 64;
+    private static final long TABLE_ENTRY_SIZE = 32;
+    private static final long FUNCTION_SIZE = 32;
+    private static final long UPVALUE_SIZE = 16;
+    private static final long THREAD_SIZE = 128;
+
+    private static final String OUT_OF_MEMORY = "not enough memory";
+
+    private final MetricsObserver metrics;
+    private final long limit;
+    private final LuaTable globals;
+
+    /**
+     * The earliest time (in {@link System#nanoTime()}) at which {@link #sample(LuaState, DebugState)} should measure
+     * the state again.
+     */
+    private long nextSample = System.nanoTime() + SAMPLE_INTERVAL;
+
+    /**
+     * The earliest time at which {@link #allocate(LuaState, long)} may measure the state again, rather than rejecting
+     * an allocation outright. This stops a large state being walked on every allocation once it nears its limit.
+     */
+    private long nextMeasure = System.nanoTime();
+
+    /**
+     * The estimated size of the state when it was last sampled.
+     */
+    private long usage;
+
+    /**
+     * The memory {@linkplain #allocate(LuaState, long) allocated} since the last sample. Much of this may already be
+     * garbage, so this is discarded when we next sample.
+     */
+    private long allocated;
+
+    MemoryTracker( MetricsObserver metrics, long limit, LuaTable globals )
+    {
+        this.metrics = metrics;
+        this.limit = limit;
+        this.globals = globals;
+    }
+
+    /**
+     * Note that a function is about to allocate a block of memory.
+     * <p>
+     * If this would take us over the limit, we re-sample the state first (unless we have only just done so), as earlier
+     * allocations may have since been freed.
+     *
+     * @param state The current Lua state.
+     * @param bytes The number of bytes which will be allocated.
+     * @throws LuaError If this would take the machine over its memory limit.
+     */
+    void allocate( LuaState state, long bytes ) throws LuaError
+    {
+        if( limit <= 0 ) return;
+
+        if( bytes > limit - usage - allocated )
+        {
+            if( System.nanoTime() - nextMeasure < 0 ) throw new LuaError( OUT_OF_MEMORY );
+
+            LuaThread thread = state.getCurrentThread();
+            measure( state, thread == null ? null : thread.getDebugState() );
+            if( bytes > limit - usage ) throw new LuaError( OUT_OF_MEMORY );
+        }
+
+        allocated += bytes;
+    }
+
+    /**
+     * Re-estimate the size of the Lua state if enough time has passed since the last sample.
+     *
+     * @param state The current Lua state.
+     * @param ds    The debug state of the currently running coroutine.
+     * @throws LuaError If the machine is using more memory than it is allowed.
+     */
+    void sample( LuaState state, @Nullable DebugState ds ) throws LuaError
+    {
+        if( System.nanoTime() - nextSample < 0 ) return;
+
+        measure( state, ds );
+        if( limit > 0 && usage > limit ) throw new LuaError( OUT_OF_MEMORY );
+    }
+
+    private void measure( LuaState state, @Nullable DebugState ds )
+    {
+        long start = System.nanoTime();
+        allocated = 0;
+        long usage = this.usage = estimate( state, globals, ds );
+        metrics.observe( Metrics.LUA_MEMORY, usage );
+
+        // Schedule the next sample from when this one finished. Walking a large state may take longer than the sample
+        // interval itself, so we also wait for several times as long as this walk took, to ensure we spend most of our
+        // time running the computer rather than measuring it.
+        long end = System.nanoTime();
+        nextMeasure = end + (end - start) * SAMPLE_BACKOFF;
+        nextSample = Math.max( nextMeasure, end + SAMPLE_INTERVAL );
+    }
+
+    private static long estimate( LuaState state, LuaTable globals, @Nullable DebugState ds )
+    {
+        Set<LuaValue> seen = Collections.newSetFromMap( new IdentityHashMap<>() );
+        ArrayDeque<LuaValue> queue = new ArrayDeque<>();
+
+        enqueue( seen, queue, globals );
+        enqueueStack( seen, queue, ds );
+
+        long size = 0;
+        LuaValue value;
+        while( (value = queue.poll()) != null )
+        {
+            switch( value.type() )
+            {
+                case Constants.TSTRING:
+                    size += STRING_SIZE + ((LuaString) value).length();
+                    break;
+                case Constants.TTABLE:
+                {
+                    LuaTable table = (LuaTable) value;
+                    size += TABLE_SIZE;
+                    enqueue( seen, queue, table.getMetatable( state ) );
+
+                    LuaValue key = Constants.NIL;
+                    while( true )
+                    {
+                        Varargs entry;
+                        try
+                        {
+                            entry = table.next( key );
+                        }
+                        catch( LuaError e )
+                        {
+                            break;
+                        }
+
+                        key = entry.first();
+                        if( key.isNil() ) break;
+
+                        size += TABLE_ENTRY_SIZE;
+                        enqueue( seen, queue, key );
+                        enqueue( seen, queue, entry.arg( 2 ) );
+                    }
+                    break;
+                }
+                case Constants.TFUNCTION:
+                    size += FUNCTION_SIZE;
+                    if( value instanceof LuaInterpretedFunction )
+                    {
+                        for( Upvalue upvalue : ((LuaInterpretedFunction) value).upvalues )
+                        {
+                            size += UPVALUE_SIZE;
+                            if( upvalue != null ) enqueue( seen, queue, upvalue.getValue() );
+                        }
+                    }
+                    break;
+                case Constants.TTHREAD:
+                {
+                    // Suspended coroutines keep their whole call stack alive.
+                    LuaThread thread = (LuaThread) value;
+                    size += THREAD_SIZE;
+                    enqueue( seen, queue, thread.getfenv() );
+                    enqueueStack( seen, queue, thread.getDebugState() );
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+
+        return size;
+    }
+
+    private static void enqueueStack( Set<LuaValue> seen, ArrayDeque<LuaValue> queue, @Nullable DebugState ds )
+    {
+        if( ds == null ) return;
+
+        DebugFrame frame;
+        for( int level = 0; (frame = ds.getFrame( level )) != null; level++ )
+        {
+            enqueue( seen, queue, frame.func );
+            if( frame.stack != null )
+            {
+                for( LuaValue value : frame.stack ) enqueue( seen, queue, value );
+            }
+        }
+    }
+
+    private static void enqueue( Set<LuaValue> seen, ArrayDeque<LuaValue> queue, @Nullable LuaValue value )
+    {
+        if( value == null || seen.size() >= MAX_VISITED ) return;
+
+        switch( value.type() )
+        {
+            case Constants.TSTRING:
+            case Constants.TTABLE:
+            case Constants.TFUNCTION:
+            case Constants.TTHREAD:
+                if( seen.add( value ) ) queue.add( value );
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import dan200.computercraft.api.lua.IArguments;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Arguments which provide direct access to the bytes backing their string arguments.
+ * <p>
+ * {@link IArguments#getBytes(int)} and {@link IArguments#getString(int)} must allocate a new {@link ByteBuffer} or
+ * {@link String} on every call. This is noticeable for very frequently called functions such as {@code term.blit}, so
+ * they may instead read the string's bytes in-place.
+ * <p>
+ * This is only implemented by arguments which come straight from a Lua machine. Callers should fall back to the normal
+ * {@link IArguments} methods when it is not available, or when {@link #getRawBytes(int)} returns {@code null}.
+ */
+public interface RawStringArguments extends IArguments
+{
+    /**
+     * Get the array backing a string argument. This array must not be modified.
+     *
+     * @param index The argument number.
+     * @return The backing array, or {@code null} if this argument is not a string.
+     * @see #getRawOffset(int)
+     * @see #getRawLength(int)
+     */
+    @Nullable
+    byte[] getRawBytes( int index );
+
+    /**
+     * Get the offset of a string argument within its {@linkplain #getRawBytes(int) backing array}.
+     *
+     * @param index The argument number. This must be a string.
+     * @return The offset of the first byte of this string.
+     */
+    int getRawOffset( int index );
+
+    /**
+     * Get the length of a string argument.
+     *
+     * @param index The argument number. This must be a string.
+     * @return The length of this string in bytes.
+     */
+    int getRawLength( int index );
+}
@@ -11,11 +11,14 @@
 import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.MethodResult;
 import dan200.computercraft.core.asm.LuaMethod;
+import dan200.computercraft.core.metrics.Metrics;
+import dan200.computercraft.core.metrics.MetricsObserver;
 import org.squiddev.cobalt.*;
 import org.squiddev.cobalt.debug.DebugFrame;
 import org.squiddev.cobalt.function.ResumableVarArgFunction;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Calls a {@link LuaMethod}, and interprets the resulting {@link MethodResult}, either returning the result or yielding
@@ -41,13 +44,16 @@ class ResultInterpreterFunction extends ResumableVarArgFunction<ResultInterprete
     private final Object instance;
     private final ILuaContext context;
     private final String name;
+    private final @Nullable String prefix;
+    private String label;
 
-    ResultInterpreterFunction( CobaltLuaMachine machine, LuaMethod method, Object instance, ILuaContext context, String name )
+    ResultInterpreterFunction( CobaltLuaMachine machine, LuaMethod method, Object instance, ILuaContext context, @Nullable String prefix, String name )
     {
         this.machine = machine;
         this.method = method;
         this.instance = instance;
         this.context = context;
+        this.prefix = prefix;
         this.name = name;
     }
 
@@ -55,6 +61,10 @@ class ResultInterpreterFunction extends ResumableVarArgFunction<ResultInterprete
     protected Varargs invoke( LuaState state, DebugFrame debugFrame, Varargs args ) throws LuaError, UnwindThrowable
     {
         VarargArguments arguments = VarargArguments.of( args );
+        MetricsObserver metrics = machine.metrics;
+        boolean timed = prefix != null && metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+
         MethodResult results;
         try
         {
@@ -75,6 +85,11 @@ protected Varargs invoke( LuaState state, DebugFrame debugFrame, Varargs args )
         finally
         {
             arguments.close();
+            if( timed )
+            {
+                if( label == null ) label = prefix + "." + name;
+                metrics.observe( Metrics.METHOD_TIME, label, System.nanoTime() - start );
+            }
         }
 
         ILuaCallback callback = results.getCallback();
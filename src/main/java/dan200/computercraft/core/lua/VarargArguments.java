@@ -15,7 +15,7 @@
 import java.nio.ByteBuffer;
 import java.util.Optional;
 
-final class VarargArguments implements IArguments
+final class VarargArguments implements RawStringArguments
 {
     private static final VarargArguments EMPTY = new VarargArguments( Constants.NONE );
 
@@ -83,6 +83,113 @@ public long getLong( int index ) throws LuaException
         return value instanceof LuaInteger ? value.toInteger() : (long) LuaValues.checkFinite( index, value.toDouble() );
     }
 
+    @Override
+    public double getFiniteDouble( int index ) throws LuaException
+    {
+        return LuaValues.checkFinite( index, getDouble( index ) );
+    }
+
+    @Override
+    public boolean getBoolean( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.type() != Constants.TBOOLEAN ) throw LuaValues.badArgument( index, "boolean", value.typeName() );
+        return value.toBoolean();
+    }
+
+    @Nonnull
+    @Override
+    public String getString( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.type() != Constants.TSTRING ) throw LuaValues.badArgument( index, "string", value.typeName() );
+        return value.toString();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Double> optDouble( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.isNil() ) return Optional.empty();
+        if( !(value instanceof LuaNumber) ) throw LuaValues.badArgument( index, "number", value.typeName() );
+        return Optional.of( value.toDouble() );
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Integer> optInt( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.isNil() ) return Optional.empty();
+        return Optional.of( (int) getLong( index ) );
+    }
+
+    @Override
+    public Optional<Long> optLong( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.isNil() ) return Optional.empty();
+        return Optional.of( getLong( index ) );
+    }
+
+    @Override
+    public Optional<Boolean> optBoolean( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.isNil() ) return Optional.empty();
+        return Optional.of( getBoolean( index ) );
+    }
+
+    @Override
+    public Optional<String> optString( int index ) throws LuaException
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        if( value.isNil() ) return Optional.empty();
+        return Optional.of( getString( index ) );
+    }
+
+    /*
+     * The default implementations of these go via the optional variants above. We override them to avoid allocating
+     * an Optional (and boxing the value) on the common case.
+     */
+
+    @Override
+    public double optDouble( int index, double def ) throws LuaException
+    {
+        return varargs.arg( index + 1 ).isNil() ? def : getDouble( index );
+    }
+
+    @Override
+    public int optInt( int index, int def ) throws LuaException
+    {
+        return varargs.arg( index + 1 ).isNil() ? def : (int) getLong( index );
+    }
+
+    @Override
+    public long optLong( int index, long def ) throws LuaException
+    {
+        return varargs.arg( index + 1 ).isNil() ? def : getLong( index );
+    }
+
+    @Override
+    public double optFiniteDouble( int index, double def ) throws LuaException
+    {
+        return varargs.arg( index + 1 ).isNil() ? def : getFiniteDouble( index );
+    }
+
+    @Override
+    public boolean optBoolean( int index, boolean def ) throws LuaException
+    {
+        return varargs.arg( index + 1 ).isNil() ? def : getBoolean( index );
+    }
+
+    @Override
+    public String optString( int index, String def ) throws LuaException
+    {
+        return varargs.arg( index + 1 ).isNil() ? def : getString( index );
+    }
+
     @Nonnull
     @Override
     public ByteBuffer getBytes( int index ) throws LuaException
@@ -105,6 +212,26 @@ public Optional<ByteBuffer> optBytes( int index ) throws LuaException
         return Optional.of( ByteBuffer.wrap( str.bytes, str.offset, str.length ).asReadOnlyBuffer() );
     }
 
+    @Nullable
+    @Override
+    public byte[] getRawBytes( int index )
+    {
+        LuaValue value = varargs.arg( index + 1 );
+        return value instanceof LuaBaseString ? ((LuaBaseString) value).strvalue().bytes : null;
+    }
+
+    @Override
+    public int getRawOffset( int index )
+    {
+        return ((LuaBaseString) varargs.arg( index + 1 )).strvalue().offset;
+    }
+
+    @Override
+    public int getRawLength( int index )
+    {
+        return ((LuaBaseString) varargs.arg( index + 1 )).strvalue().length;
+    }
+
     @Nonnull
     @Override
     public dan200.computercraft.api.lua.LuaTable<?, ?> getTableUnsafe( int index ) throws LuaException
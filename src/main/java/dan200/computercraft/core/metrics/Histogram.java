@@ -0,0 +1,194 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size histogram of the values of a {@link Metric.Event}, used to estimate percentiles.
+ * <p>
+ * Values are sorted into log-linear buckets, in the style of HdrHistogram: every power of two is split into
+ * {@link #SUB_BUCKETS} equally sized buckets, meaning any reported percentile is within 12.5% of the true value. Values
+ * larger than {@link #MAX_VALUE} (about 36 minutes when measuring nanoseconds) are clamped to the top bucket. This
+ * means a histogram always occupies the same amount of memory, no matter how many values are recorded.
+ * <p>
+ * Values may be recorded from multiple threads at once without any locking. Like {@link LongAdder}, the buckets start
+ * off as a single array, and are split into more "stripes" when several threads write to the same bucket at once, so
+ * that threads no longer contend on the same cache line. Reading from a histogram which is being written to is safe, but
+ * only weakly consistent: percentiles may not reflect values recorded during the read.
+ */
+public final class Histogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 41;
+
+    /**
+     * The largest value which can be distinguished by this histogram.
+     */
+    public static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+
+    private static final int BUCKETS = bucket( MAX_VALUE ) + 1;
+
+    /**
+     * The maximum number of stripes: the number of CPUs, rounded up to a power of two.
+     */
+    private static final int MAX_STRIPES = Integer.highestOneBit( Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 ) ) << 1;
+
+    private volatile AtomicIntegerArray[] stripes = new AtomicIntegerArray[] { new AtomicIntegerArray( BUCKETS ) };
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator( Math::max, 0 );
+
+    public Histogram()
+    {
+    }
+
+    public Histogram( Histogram other )
+    {
+        merge( other );
+    }
+
+    /**
+     * Record a single value.
+     *
+     * @param value The value to record. Negative values are treated as 0.
+     */
+    public void record( long value )
+    {
+        if( value < 0 ) value = 0;
+
+        increment( bucket( Math.min( value, MAX_VALUE ) ) );
+        count.increment();
+        total.add( value );
+        max.accumulate( value );
+    }
+
+    /**
+     * Add all values from another histogram to this one.
+     *
+     * @param other The histogram to merge into this one.
+     */
+    public void merge( Histogram other )
+    {
+        AtomicIntegerArray[] otherStripes = other.stripes;
+        AtomicIntegerArray buckets = stripes[0];
+        for( int i = 0; i < BUCKETS; i++ )
+        {
+            int value = sum( otherStripes, i );
+            if( value != 0 ) buckets.addAndGet( i, value );
+        }
+        count.add( other.count.sum() );
+        total.add( other.total.sum() );
+        max.accumulate( other.max.get() );
+    }
+
+    public long count()
+    {
+        return count.sum();
+    }
+
+    public long total()
+    {
+        return total.sum();
+    }
+
+    public long max()
+    {
+        return max.get();
+    }
+
+    /**
+     * Estimate the value at a given percentile.
+     *
+     * @param percentile The percentile to find, between 0 and 1.
+     * @return The largest value which could be in the bucket containing this percentile, or 0 if nothing has been
+     * recorded.
+     */
+    public long percentile( double percentile )
+    {
+        // Count from the buckets rather than using count, so we're consistent with ourselves when being written to.
+        AtomicIntegerArray[] stripes = this.stripes;
+        int[] buckets = new int[BUCKETS];
+        long count = 0;
+        for( int i = 0; i < BUCKETS; i++ ) count += buckets[i] = sum( stripes, i );
+        if( count == 0 ) return 0;
+
+        long max = this.max.get();
+        long target = Math.max( 1, (long) Math.ceil( percentile * count ) );
+        long seen = 0;
+        for( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += buckets[i];
+            if( seen >= target ) return Math.min( upperBound( i ), max );
+        }
+
+        return max;
+    }
+
+    private void increment( int bucket )
+    {
+        AtomicIntegerArray[] stripes = this.stripes;
+        AtomicIntegerArray stripe = stripes[probe() & (stripes.length - 1)];
+
+        int current = stripe.get( bucket );
+        if( stripe.compareAndSet( bucket, current, current + 1 ) ) return;
+
+        // Another thread is writing to this bucket at the same time. Spread threads over more stripes, and then just
+        // increment this one.
+        if( stripes.length < MAX_STRIPES ) grow( stripes );
+        stripe.incrementAndGet( bucket );
+    }
+
+    private synchronized void grow( AtomicIntegerArray[] expected )
+    {
+        if( stripes != expected ) return;
+
+        AtomicIntegerArray[] grown = Arrays.copyOf( expected, expected.length * 2 );
+        for( int i = expected.length; i < grown.length; i++ ) grown[i] = new AtomicIntegerArray( BUCKETS );
+        stripes = grown;
+    }
+
+    private static int sum( AtomicIntegerArray[] stripes, int bucket )
+    {
+        int total = 0;
+        for( AtomicIntegerArray stripe : stripes ) total += stripe.get( bucket );
+        return total;
+    }
+
+    /**
+     * Pick a stripe for the current thread. Thread ids are roughly sequential, so we mix the bits to spread threads
+     * evenly.
+     *
+     * @return A hash of the current thread.
+     */
+    private static int probe()
+    {
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    static int bucket( long value )
+    {
+        if( value < SUB_BUCKETS ) return (int) value;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros( value );
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound( int bucket )
+    {
+        if( bucket < SUB_BUCKETS ) return bucket;
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
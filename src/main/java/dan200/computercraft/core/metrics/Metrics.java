@@ -16,8 +16,11 @@ private Metrics()
 
     public static final Metric.Event COMPUTER_TASKS = new Metric.Event( "computer_tasks", "ms", Metric::formatTime );
     public static final Metric.Event SERVER_TASKS = new Metric.Event( "server_tasks", "ms", Metric::formatTime );
+    public static final Metric.Event COMPUTER_BOOT = new Metric.Event( "computer_boot", "ms", Metric::formatTime );
 
     public static final Metric.Counter PERIPHERAL_OPS = new Metric.Counter( "peripheral" );
+    public static final Metric.Event PERIPHERAL_TIME = new Metric.Event( "peripheral_time", "ms", Metric::formatTime );
+    public static final Metric.Event METHOD_TIME = new Metric.Event( "method_time", "ms", Metric::formatTime );
     public static final Metric.Counter FS_OPS = new Metric.Counter( "fs" );
 
     public static final Metric.Counter HTTP_REQUESTS = new Metric.Counter( "http_requests" );
@@ -27,6 +30,10 @@ private Metrics()
     public static final Metric.Event WEBSOCKET_INCOMING = new Metric.Event( "websocket_incoming", "bytes", Metric::formatBytes );
     public static final Metric.Event WEBSOCKET_OUTGOING = new Metric.Event( "websocket_outgoing", "bytes", Metric::formatBytes );
 
+    public static final Metric.Counter EVENTS_FILTERED = new Metric.Counter( "events_filtered" );
+
+    public static final Metric.Event LUA_MEMORY = new Metric.Event( "lua_memory", "bytes", Metric::formatBytes );
+
     public static final Metric.Counter COROUTINES_CREATED = new Metric.Counter( "coroutines_created" );
     public static final Metric.Counter COROUTINES_DISPOSED = new Metric.Counter( "coroutines_dead" );
 
@@ -33,4 +33,33 @@
      * @param value The value corresponding to this event.
      */
     void observe( Metric.Event event, long value );
+
+    /**
+     * Observe a single instance of an event, attributing it to some label (such as the name of the method which
+     * produced it).
+     * <p>
+     * This should be treated as equivalent to {@link #observe(Metric.Event, long)}, but allows observers to also keep
+     * track of which labels are responsible for an event.
+     *
+     * @param event The event to observe.
+     * @param label The label this event should be attributed to.
+     * @param value The value corresponding to this event.
+     */
+    default void observe( Metric.Event event, String label, long value )
+    {
+        observe( event, value );
+    }
+
+    /**
+     * Determine whether this observer is currently consuming metrics.
+     * <p>
+     * Observing a metric is always safe, but callers may use this to skip work whose only purpose is to produce a
+     * metric, such as timing a method call.
+     *
+     * @return Whether this observer is enabled.
+     */
+    default boolean isEnabled()
+    {
+        return true;
+    }
 }
@@ -13,11 +13,24 @@
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
-
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The contents of a computer, monitor or pocket computer's screen.
+ * <p>
+ * The screen is stored as two flat arrays of {@code width * height} bytes: one holding each cell's character, and one
+ * holding its colours, packed as {@code background << 4 | foreground}. Rows are stored as a ring buffer starting at
+ * {@link #firstRow}, so scrolling only needs to clear the newly exposed rows.
+ */
 public class Terminal
 {
     private static final String BASE_16 = "0123456789abcdef";
 
+    private static final int TEXT = 0;
+    private static final int TEXT_COLOUR = 1;
+    private static final int BACKGROUND_COLOUR = 2;
+
     private int width;
     private int height;
     private final boolean colour;
@@ -28,9 +41,9 @@
     private int cursorColour = 0;
     private int cursorBackgroundColour = 15;
 
-    private TextBuffer[] text;
-    private TextBuffer[] textColour;
-    private TextBuffer[] backgroundColour;
+    private byte[] text;
+    private byte[] colours;
+    private int firstRow = 0;
 
     private final Palette palette;
 
@@ -49,15 +62,10 @@ public Terminal( int width, int height, boolean colour, Runnable changedCallback
         palette = new Palette( colour );
         onChanged = changedCallback;
 
-        text = new TextBuffer[height];
-        textColour = new TextBuffer[height];
-        backgroundColour = new TextBuffer[height];
-        for( int i = 0; i < this.height; i++ )
-        {
-            text[i] = new TextBuffer( ' ', this.width );
-            textColour[i] = new TextBuffer( BASE_16.charAt( cursorColour ), this.width );
-            backgroundColour[i] = new TextBuffer( BASE_16.charAt( cursorBackgroundColour ), this.width );
-        }
+        text = new byte[width * height];
+        colours = new byte[width * height];
+        Arrays.fill( text, (byte) ' ' );
+        Arrays.fill( colours, cursorColours() );
     }
 
     public synchronized void reset()
@@ -94,42 +102,24 @@ public synchronized void resize( int width, int height )
             return;
         }
 
-        int oldHeight = this.height;
-        int oldWidth = this.width;
-        TextBuffer[] oldText = text;
-        TextBuffer[] oldTextColour = textColour;
-        TextBuffer[] oldBackgroundColour = backgroundColour;
-
-        this.width = width;
-        this.height = height;
+        byte[] newText = new byte[width * height];
+        byte[] newColours = new byte[width * height];
+        Arrays.fill( newText, (byte) ' ' );
+        Arrays.fill( newColours, cursorColours() );
 
-        text = new TextBuffer[height];
-        textColour = new TextBuffer[height];
-        backgroundColour = new TextBuffer[height];
-        for( int i = 0; i < this.height; i++ )
+        int copyWidth = Math.min( width, this.width ), copyHeight = Math.min( height, this.height );
+        for( int y = 0; y < copyHeight; y++ )
         {
-            if( i >= oldHeight )
-            {
-                text[i] = new TextBuffer( ' ', this.width );
-                textColour[i] = new TextBuffer( BASE_16.charAt( cursorColour ), this.width );
-                backgroundColour[i] = new TextBuffer( BASE_16.charAt( cursorBackgroundColour ), this.width );
-            }
-            else if( this.width == oldWidth )
-            {
-                text[i] = oldText[i];
-                textColour[i] = oldTextColour[i];
-                backgroundColour[i] = oldBackgroundColour[i];
-            }
-            else
-            {
-                text[i] = new TextBuffer( ' ', this.width );
-                textColour[i] = new TextBuffer( BASE_16.charAt( cursorColour ), this.width );
-                backgroundColour[i] = new TextBuffer( BASE_16.charAt( cursorBackgroundColour ), this.width );
-                text[i].write( oldText[i] );
-                textColour[i].write( oldTextColour[i] );
-                backgroundColour[i].write( oldBackgroundColour[i] );
-            }
+            int offset = rowOffset( y );
+            System.arraycopy( text, offset, newText, y * width, copyWidth );
+            System.arraycopy( colours, offset, newColours, y * width, copyWidth );
         }
+
+        this.width = width;
+        this.height = height;
+        text = newText;
+        colours = newColours;
+        firstRow = 0;
         setChanged();
     }
 
@@ -207,9 +197,65 @@ public synchronized void blit( ByteBuffer text, ByteBuffer textColour, ByteBuffe
         int y = cursorY;
         if( y >= 0 && y < height )
         {
-            this.text[y].write( text, x );
-            this.textColour[y].write( textColour, x );
-            this.backgroundColour[y].write( backgroundColour, x );
+            int offset = rowOffset( y );
+
+            int textPos = text.position();
+            for( int i = Math.max( x, 0 ), end = Math.min( x + text.remaining(), width ); i < end; i++ )
+            {
+                this.text[offset + i] = text.get( textPos + i - x );
+            }
+
+            int colourPos = textColour.position();
+            for( int i = Math.max( x, 0 ), end = Math.min( x + textColour.remaining(), width ); i < end; i++ )
+            {
+                int colour = getColour( (char) (textColour.get( colourPos + i - x ) & 0xFF), Colour.WHITE );
+                colours[offset + i] = (byte) ((colours[offset + i] & 0xF0) | colour);
+            }
+
+            int backgroundPos = backgroundColour.position();
+            for( int i = Math.max( x, 0 ), end = Math.min( x + backgroundColour.remaining(), width ); i < end; i++ )
+            {
+                int colour = getColour( (char) (backgroundColour.get( backgroundPos + i - x ) & 0xFF), Colour.BLACK );
+                colours[offset + i] = (byte) ((colours[offset + i] & 0x0F) | colour << 4);
+            }
+
+            setChanged();
+        }
+    }
+
+    /**
+     * Write text with specific colours at the current cursor position, reading directly from the given arrays.
+     *
+     * @param text                  The array containing the characters to write.
+     * @param textStart             The offset of the first character in {@code text}.
+     * @param textColour            The array containing the text colours, as hexadecimal characters.
+     * @param textColourStart       The offset of the first colour in {@code textColour}.
+     * @param backgroundColour      The array containing the background colours, as hexadecimal characters.
+     * @param backgroundColourStart The offset of the first colour in {@code backgroundColour}.
+     * @param length                The number of characters to write.
+     * @see #blit(ByteBuffer, ByteBuffer, ByteBuffer)
+     */
+    public synchronized void blit(
+        byte[] text, int textStart, byte[] textColour, int textColourStart, byte[] backgroundColour, int backgroundColourStart,
+        int length
+    )
+    {
+        int x = cursorX;
+        int y = cursorY;
+        if( y >= 0 && y < height )
+        {
+            int offset = rowOffset( y );
+            int start = Math.max( x, 0 ), end = Math.min( x + length, width );
+            if( start < end )
+            {
+                System.arraycopy( text, textStart + start - x, this.text, offset + start, end - start );
+                for( int i = start; i < end; i++ )
+                {
+                    int foreground = getColour( (char) (textColour[textColourStart + i - x] & 0xFF), Colour.WHITE );
+                    int background = getColour( (char) (backgroundColour[backgroundColourStart + i - x] & 0xFF), Colour.BLACK );
+                    colours[offset + i] = (byte) (background << 4 | foreground);
+                }
+            }
             setChanged();
         }
     }
@@ -220,9 +266,35 @@ public synchronized void write( String text )
         int y = cursorY;
         if( y >= 0 && y < height )
         {
-            this.text[y].write( text, x );
-            textColour[y].fill( BASE_16.charAt( cursorColour ), x, x + text.length() );
-            backgroundColour[y].fill( BASE_16.charAt( cursorBackgroundColour ), x, x + text.length() );
+            int offset = rowOffset( y );
+            int start = Math.max( x, 0 ), end = Math.min( x + text.length(), width );
+            for( int i = start; i < end; i++ ) this.text[offset + i] = (byte) text.charAt( i - x );
+            if( start < end ) Arrays.fill( colours, offset + start, offset + end, cursorColours() );
+            setChanged();
+        }
+    }
+
+    /**
+     * Write text at the current cursor position using the current colours, reading directly from the given array.
+     *
+     * @param text   The array containing the characters to write.
+     * @param start  The offset of the first character in {@code text}.
+     * @param length The number of characters to write.
+     * @see #write(String)
+     */
+    public synchronized void write( byte[] text, int start, int length )
+    {
+        int x = cursorX;
+        int y = cursorY;
+        if( y >= 0 && y < height )
+        {
+            int offset = rowOffset( y );
+            int from = Math.max( x, 0 ), to = Math.min( x + length, width );
+            if( from < to )
+            {
+                System.arraycopy( text, start + from - x, this.text, offset + from, to - from );
+                Arrays.fill( colours, offset + from, offset + to, cursorColours() );
+            }
             setChanged();
         }
     }
@@ -231,40 +303,30 @@ public synchronized void scroll( int yDiff )
     {
         if( yDiff != 0 )
         {
-            TextBuffer[] newText = new TextBuffer[height];
-            TextBuffer[] newTextColour = new TextBuffer[height];
-            TextBuffer[] newBackgroundColour = new TextBuffer[height];
-            for( int y = 0; y < height; y++ )
+            if( yDiff >= height || yDiff <= -height )
             {
-                int oldY = y + yDiff;
-                if( oldY >= 0 && oldY < height )
+                fillRows( 0, height );
+            }
+            else
+            {
+                firstRow = Math.floorMod( firstRow + yDiff, height );
+                if( yDiff > 0 )
                 {
-                    newText[y] = text[oldY];
-                    newTextColour[y] = textColour[oldY];
-                    newBackgroundColour[y] = backgroundColour[oldY];
+                    fillRows( height - yDiff, height );
                 }
                 else
                 {
-                    newText[y] = new TextBuffer( ' ', width );
-                    newTextColour[y] = new TextBuffer( BASE_16.charAt( cursorColour ), width );
-                    newBackgroundColour[y] = new TextBuffer( BASE_16.charAt( cursorBackgroundColour ), width );
+                    fillRows( 0, -yDiff );
                 }
             }
-            text = newText;
-            textColour = newTextColour;
-            backgroundColour = newBackgroundColour;
             setChanged();
         }
     }
 
     public synchronized void clear()
     {
-        for( int y = 0; y < height; y++ )
-        {
-            text[y].fill( ' ' );
-            textColour[y].fill( BASE_16.charAt( cursorColour ) );
-            backgroundColour[y].fill( BASE_16.charAt( cursorBackgroundColour ) );
-        }
+        firstRow = 0;
+        fillRows( 0, height );
         setChanged();
     }
 
@@ -273,9 +335,7 @@ public synchronized void clearLine()
         int y = cursorY;
         if( y >= 0 && y < height )
         {
-            text[y].fill( ' ' );
-            textColour[y].fill( BASE_16.charAt( cursorColour ) );
-            backgroundColour[y].fill( BASE_16.charAt( cursorBackgroundColour ) );
+            fillRows( y, y + 1 );
             setChanged();
         }
     }
@@ -284,16 +344,15 @@ public synchronized TextBuffer getLine( int y )
     {
         if( y >= 0 && y < height )
         {
-            return text[y];
+            return new LineView( y, TEXT );
         }
         return null;
     }
 
     public synchronized void setLine( int y, String text, String textColour, String backgroundColour )
     {
-        this.text[y].write( text );
-        this.textColour[y].write( textColour );
-        this.backgroundColour[y].write( backgroundColour );
+        if( y < 0 || y >= height ) throw new ArrayIndexOutOfBoundsException( y );
+        writeLine( y, text, textColour, backgroundColour );
         setChanged();
     }
 
@@ -301,7 +360,7 @@ public synchronized TextBuffer getTextColourLine( int y )
     {
         if( y >= 0 && y < height )
         {
-            return textColour[y];
+            return new LineView( y, TEXT_COLOUR );
         }
         return null;
     }
@@ -310,11 +369,49 @@ public synchronized TextBuffer getBackgroundColourLine( int y )
     {
         if( y >= 0 && y < height )
         {
-            return backgroundColour[y];
+            return new LineView( y, BACKGROUND_COLOUR );
         }
         return null;
     }
 
+    /**
+     * Get the character at a specific position on the screen.
+     *
+     * @param x The x position, between 0 and {@link #getWidth()}.
+     * @param y The y position, between 0 and {@link #getHeight()}.
+     * @return The character at this position.
+     */
+    public char getCharAt( int x, int y )
+    {
+        return (char) (text[rowOffset( y ) + x] & 0xFF);
+    }
+
+    /**
+     * Get the text colour at a specific position on the screen.
+     *
+     * @param x The x position, between 0 and {@link #getWidth()}.
+     * @param y The y position, between 0 and {@link #getHeight()}.
+     * @return The text colour at this position, between 0 and 15.
+     * @see #getColour(char, Colour)
+     */
+    public int getTextColourAt( int x, int y )
+    {
+        return colours[rowOffset( y ) + x] & 0xF;
+    }
+
+    /**
+     * Get the background colour at a specific position on the screen.
+     *
+     * @param x The x position, between 0 and {@link #getWidth()}.
+     * @param y The y position, between 0 and {@link #getHeight()}.
+     * @return The background colour at this position, between 0 and 15.
+     * @see #getColour(char, Colour)
+     */
+    public int getBackgroundColourAt( int x, int y )
+    {
+        return (colours[rowOffset( y ) + x] >> 4) & 0xF;
+    }
+
     public final void setChanged()
     {
         if( onChanged != null ) onChanged.run();
@@ -329,18 +426,9 @@ public synchronized void write( PacketBuffer buffer )
 
         for( int y = 0; y < height; y++ )
         {
-            TextBuffer text = this.text[y];
-            TextBuffer textColour = this.textColour[y];
-            TextBuffer backColour = backgroundColour[y];
-
-            for( int x = 0; x < width; x++ ) buffer.writeByte( text.charAt( x ) & 0xFF );
-            for( int x = 0; x < width; x++ )
-            {
-                buffer.writeByte( getColour(
-                    backColour.charAt( x ), Colour.BLACK ) << 4 |
-                    getColour( textColour.charAt( x ), Colour.WHITE )
-                );
-            }
+            int offset = rowOffset( y );
+            buffer.writeBytes( text, offset, width );
+            buffer.writeBytes( colours, offset, width );
         }
 
         palette.write( buffer );
@@ -356,19 +444,11 @@ public synchronized void read( PacketBuffer buffer )
         cursorBackgroundColour = (cursorColour >> 4) & 0xF;
         this.cursorColour = cursorColour & 0xF;
 
+        firstRow = 0;
         for( int y = 0; y < height; y++ )
         {
-            TextBuffer text = this.text[y];
-            TextBuffer textColour = this.textColour[y];
-            TextBuffer backColour = backgroundColour[y];
-
-            for( int x = 0; x < width; x++ ) text.setChar( x, (char) (buffer.readByte() & 0xFF) );
-            for( int x = 0; x < width; x++ )
-            {
-                byte colour = buffer.readByte();
-                backColour.setChar( x, BASE_16.charAt( (colour >> 4) & 0xF ) );
-                textColour.setChar( x, BASE_16.charAt( colour & 0xF ) );
-            }
+            buffer.readBytes( text, y * width, width );
+            buffer.readBytes( colours, y * width, width );
         }
 
         palette.read( buffer );
@@ -382,11 +462,20 @@ public synchronized CompoundNBT writeToNBT( CompoundNBT nbt )
         nbt.putBoolean( "term_cursorBlink", cursorBlink );
         nbt.putInt( "term_textColour", cursorColour );
         nbt.putInt( "term_bgColour", cursorBackgroundColour );
+
+        char[] textColour = new char[width], backgroundColour = new char[width];
         for( int n = 0; n < height; n++ )
         {
-            nbt.putString( "term_text_" + n, text[n].toString() );
-            nbt.putString( "term_textColour_" + n, textColour[n].toString() );
-            nbt.putString( "term_textBgColour_" + n, backgroundColour[n].toString() );
+            int offset = rowOffset( n );
+            for( int x = 0; x < width; x++ )
+            {
+                textColour[x] = BASE_16.charAt( colours[offset + x] & 0xF );
+                backgroundColour[x] = BASE_16.charAt( (colours[offset + x] >> 4) & 0xF );
+            }
+
+            nbt.putString( "term_text_" + n, new String( text, offset, width, StandardCharsets.ISO_8859_1 ) );
+            nbt.putString( "term_textColour_" + n, new String( textColour ) );
+            nbt.putString( "term_textBgColour_" + n, new String( backgroundColour ) );
         }
 
         palette.writeToNBT( nbt );
@@ -401,23 +490,16 @@ public synchronized void readFromNBT( CompoundNBT nbt )
         cursorColour = nbt.getInt( "term_textColour" );
         cursorBackgroundColour = nbt.getInt( "term_bgColour" );
 
+        firstRow = 0;
+        Arrays.fill( text, (byte) ' ' );
+        Arrays.fill( colours, cursorColours() );
         for( int n = 0; n < height; n++ )
         {
-            text[n].fill( ' ' );
-            if( nbt.contains( "term_text_" + n ) )
-            {
-                text[n].write( nbt.getString( "term_text_" + n ) );
-            }
-            textColour[n].fill( BASE_16.charAt( cursorColour ) );
-            if( nbt.contains( "term_textColour_" + n ) )
-            {
-                textColour[n].write( nbt.getString( "term_textColour_" + n ) );
-            }
-            backgroundColour[n].fill( BASE_16.charAt( cursorBackgroundColour ) );
-            if( nbt.contains( "term_textBgColour_" + n ) )
-            {
-                backgroundColour[n].write( nbt.getString( "term_textBgColour_" + n ) );
-            }
+            writeLine( n,
+                nbt.getString( "term_text_" + n ),
+                nbt.getString( "term_textColour_" + n ),
+                nbt.getString( "term_textBgColour_" + n )
+            );
         }
 
         palette.readFromNBT( nbt );
@@ -431,4 +513,101 @@ public static int getColour( char c, Colour def )
         if( c >= 'A' && c <= 'F' ) return c - 'A' + 10;
         return 15 - def.ordinal();
     }
+
+    private int rowOffset( int y )
+    {
+        int row = firstRow + y;
+        if( row >= height ) row -= height;
+        return row * width;
+    }
+
+    private void writeLine( int y, String text, String textColour, String backgroundColour )
+    {
+        int offset = rowOffset( y );
+        for( int i = 0, end = Math.min( text.length(), width ); i < end; i++ )
+        {
+            this.text[offset + i] = (byte) text.charAt( i );
+        }
+        for( int i = 0, end = Math.min( textColour.length(), width ); i < end; i++ )
+        {
+            colours[offset + i] = (byte) ((colours[offset + i] & 0xF0) | getColour( textColour.charAt( i ), Colour.WHITE ));
+        }
+        for( int i = 0, end = Math.min( backgroundColour.length(), width ); i < end; i++ )
+        {
+            colours[offset + i] = (byte) ((colours[offset + i] & 0x0F) | getColour( backgroundColour.charAt( i ), Colour.BLACK ) << 4);
+        }
+    }
+
+    private byte cursorColours()
+    {
+        return (byte) ((cursorBackgroundColour & 0xF) << 4 | (cursorColour & 0xF));
+    }
+
+    private void fillRows( int start, int end )
+    {
+        byte colours = cursorColours();
+        for( int y = start; y < end; y++ )
+        {
+            int offset = rowOffset( y );
+            Arrays.fill( text, offset, offset + width, (byte) ' ' );
+            Arrays.fill( this.colours, offset, offset + width, colours );
+        }
+    }
+
+    /**
+     * A live view of one row of this terminal's text or colours, as returned by {@link #getLine(int)} and friends.
+     * Colours are presented as hexadecimal characters, as they were before the terminal used packed storage.
+     */
+    private final class LineView extends TextBuffer
+    {
+        private final int y;
+        private final int kind;
+
+        LineView( int y, int kind )
+        {
+            this.y = y;
+            this.kind = kind;
+        }
+
+        @Override
+        public int length()
+        {
+            return width;
+        }
+
+        @Override
+        public char charAt( int i )
+        {
+            if( i < 0 || i >= width ) throw new ArrayIndexOutOfBoundsException( i );
+            switch( kind )
+            {
+                case TEXT:
+                    return getCharAt( i, y );
+                case TEXT_COLOUR:
+                    return BASE_16.charAt( getTextColourAt( i, y ) );
+                default:
+                    return BASE_16.charAt( getBackgroundColourAt( i, y ) );
+            }
+        }
+
+        @Override
+        public void setChar( int i, char c )
+        {
+            if( i < 0 || i >= width ) return;
+
+            int index = rowOffset( y ) + i;
+            switch( kind )
+            {
+                case TEXT:
+                    text[index] = (byte) c;
+                    break;
+                case TEXT_COLOUR:
+                    colours[index] = (byte) ((colours[index] & 0xF0) | getColour( c, Colour.WHITE ));
+                    break;
+                default:
+                    colours[index] = (byte) ((colours[index] & 0x0F) | getColour( c, Colour.BLACK ) << 4);
+                    break;
+            }
+        }
+    }
 }
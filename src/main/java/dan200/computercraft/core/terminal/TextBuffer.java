@@ -7,8 +7,16 @@
 
 import java.nio.ByteBuffer;
 
+/**
+ * A fixed-length line of text.
+ * <p>
+ * Every method is implemented in terms of {@link #length()}, {@link #charAt(int)} and {@link #setChar(int, char)}, so
+ * {@link Terminal} may provide views of its own storage by overriding just those three.
+ */
 public class TextBuffer
 {
+    private static final char[] EMPTY = new char[0];
+
     private final char[] text;
 
     public TextBuffer( char c, int length )
@@ -22,6 +30,14 @@ public TextBuffer( String text )
         this.text = text.toCharArray();
     }
 
+    /**
+     * Create a buffer with no storage of its own, for use by subclasses which override the three accessor methods.
+     */
+    TextBuffer()
+    {
+        text = EMPTY;
+    }
+
     public int length()
     {
         return text.length;
@@ -37,10 +53,10 @@ public void write( String text, int start )
         int pos = start;
         start = Math.max( start, 0 );
         int end = Math.min( start + text.length(), pos + text.length() );
-        end = Math.min( end, this.text.length );
+        end = Math.min( end, length() );
         for( int i = start; i < end; i++ )
         {
-            this.text[i] = text.charAt( i - pos );
+            setChar( i, text.charAt( i - pos ) );
         }
     }
 
@@ -52,34 +68,34 @@ public void write( ByteBuffer text, int start )
         start = Math.max( start, 0 );
         int length = text.remaining();
         int end = Math.min( start + length, pos + length );
-        end = Math.min( end, this.text.length );
+        end = Math.min( end, length() );
         for( int i = start; i < end; i++ )
         {
-            this.text[i] = (char) (text.get( bufferPos + i - pos ) & 0xFF);
+            setChar( i, (char) (text.get( bufferPos + i - pos ) & 0xFF) );
         }
     }
 
     public void write( TextBuffer text )
     {
-        int end = Math.min( text.length(), this.text.length );
+        int end = Math.min( text.length(), length() );
         for( int i = 0; i < end; i++ )
         {
-            this.text[i] = text.charAt( i );
+            setChar( i, text.charAt( i ) );
         }
     }
 
     public void fill( char c )
     {
-        fill( c, 0, text.length );
+        fill( c, 0, length() );
     }
 
     public void fill( char c, int start, int end )
     {
         start = Math.max( start, 0 );
-        end = Math.min( end, text.length );
+        end = Math.min( end, length() );
         for( int i = start; i < end; i++ )
         {
-            text[i] = c;
+            setChar( i, c );
         }
     }
 
@@ -99,6 +115,9 @@ public void setChar( int i, char c )
     @Override
     public String toString()
     {
-        return new String( text );
+        int length = length();
+        char[] chars = new char[length];
+        for( int i = 0; i < length; i++ ) chars[i] = charAt( i );
+        return new String( chars );
     }
 }
@@ -11,6 +11,8 @@
 import dan200.computercraft.shared.command.CommandComputerCraft;
 import dan200.computercraft.shared.computer.core.ServerContext;
 import dan200.computercraft.shared.computer.metrics.ComputerMBean;
+import dan200.computercraft.shared.computer.metrics.prometheus.PrometheusExporter;
+import dan200.computercraft.shared.peripheral.generic.PeripheralSnapshots;
 import dan200.computercraft.shared.peripheral.modem.wireless.WirelessNetwork;
 import net.minecraft.entity.EntityType;
 import net.minecraft.loot.ConstantRange;
@@ -50,7 +52,9 @@ public static void onServerTick( TickEvent.ServerTickEvent event )
     {
         if( event.phase == TickEvent.Phase.START )
         {
+            PeripheralSnapshots.onTickStart();
             ServerContext.get( ServerLifecycleHooks.getCurrentServer() ).tick();
+            PeripheralSnapshots.publish();
         }
     }
 
@@ -72,6 +76,7 @@ public static void onServerStarting( FMLServerStartingEvent event )
         resetState();
         ServerContext.create( server );
         ComputerMBean.start( server );
+        PrometheusExporter.start( server );
     }
 
     @SubscribeEvent
@@ -82,7 +87,9 @@ public static void onServerStopped( FMLServerStoppedEvent event )
 
     private static void resetState()
     {
+        PrometheusExporter.stop();
         ServerContext.close();
+        PeripheralSnapshots.reset();
         WirelessNetwork.resetNetworks();
         NetworkUtils.reset();
     }
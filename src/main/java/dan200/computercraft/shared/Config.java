@@ -46,9 +46,16 @@
     private static final ConfigValue<Boolean> commandRequireCreative;
 
     private static final ConfigValue<Integer> computerThreads;
+    private static final ConfigValue<Integer> maxConcurrentBoots;
+    private static final ConfigValue<Integer> maxLuaMemory;
     private static final ConfigValue<Integer> maxMainGlobalTime;
     private static final ConfigValue<Integer> maxMainComputerTime;
 
+    private static final ConfigValue<Boolean> prometheusEnabled;
+    private static final ConfigValue<String> prometheusAddress;
+    private static final ConfigValue<Integer> prometheusPort;
+    private static final ConfigValue<Integer> prometheusMaxComputers;
+
     private static final ConfigValue<Boolean> httpEnabled;
     private static final ConfigValue<Boolean> httpWebsocketEnabled;
     private static final ConfigValue<List<? extends UnmodifiableConfig>> httpRules;
@@ -137,6 +144,14 @@ private Config() {}
                 .worldRestart()
                 .defineInRange( "computer_threads", ComputerCraft.computerThreads, 1, Integer.MAX_VALUE );
 
+            maxConcurrentBoots = builder
+                .comment( "The maximum number of computers which may be starting up at once. When a world is loaded,\ncomputers are started a few at a time, rather than all at once." )
+                .defineInRange( "max_concurrent_boots", ComputerCraft.maxConcurrentBoots, 1, Integer.MAX_VALUE );
+
+            maxLuaMemory = builder
+                .comment( "The approximate maximum amount of memory a single computer's Lua code may use, in\nmegabytes. Computers which go over this limit will receive a \"not enough memory\"\nerror. Set to 0 to disable the limit." )
+                .defineInRange( "max_lua_memory", (int) (ComputerCraft.maxLuaMemory / (1024 * 1024)), 0, Integer.MAX_VALUE / 1024 );
+
             maxMainGlobalTime = builder
                 .comment( "The maximum time that can be spent executing tasks in a single tick, in\nmilliseconds.\nNote, we will quite possibly go over this limit, as there's no way to tell how\nlong a will take - this aims to be the upper bound of the average time." )
                 .defineInRange( "max_main_global_time", (int) TimeUnit.NANOSECONDS.toMillis( ComputerCraft.maxMainGlobalTime ), 1, Integer.MAX_VALUE );
@@ -148,6 +163,32 @@ private Config() {}
             builder.pop();
         }
 
+        { // Metrics
+            builder.comment( "Export metrics about computers to external monitoring tools." );
+            builder.push( "metrics" );
+
+            prometheusEnabled = builder
+                .comment( "Expose metrics about computers and the computer scheduler over HTTP, at /metrics.\nThis uses Prometheus's text format." )
+                .worldRestart()
+                .define( "prometheus_enabled", ComputerCraft.prometheusEnabled );
+
+            prometheusAddress = builder
+                .comment( "The address the metrics endpoint listens on. By default this only accepts\nconnections from the local machine." )
+                .worldRestart()
+                .define( "prometheus_address", ComputerCraft.prometheusAddress );
+
+            prometheusPort = builder
+                .comment( "The port the metrics endpoint listens on." )
+                .worldRestart()
+                .defineInRange( "prometheus_port", ComputerCraft.prometheusPort, 1, 65535 );
+
+            prometheusMaxComputers = builder
+                .comment( "The maximum number of computers to export individual metrics for. Any additional\ncomputers are only included in the server-wide totals. Set to 0 to only export\ntotals." )
+                .defineInRange( "prometheus_max_computers", ComputerCraft.prometheusMaxComputers, 0, Integer.MAX_VALUE );
+
+            builder.pop();
+        }
+
         { // HTTP
             builder.comment( "Controls the HTTP API" );
             builder.push( "http" );
@@ -316,9 +357,17 @@ public static void sync()
 
         // Execution
         ComputerCraft.computerThreads = computerThreads.get();
+        ComputerCraft.maxConcurrentBoots = maxConcurrentBoots.get();
+        ComputerCraft.maxLuaMemory = maxLuaMemory.get() * 1024L * 1024L;
         ComputerCraft.maxMainGlobalTime = TimeUnit.MILLISECONDS.toNanos( maxMainGlobalTime.get() );
         ComputerCraft.maxMainComputerTime = TimeUnit.MILLISECONDS.toNanos( maxMainComputerTime.get() );
 
+        // Metrics
+        ComputerCraft.prometheusEnabled = prometheusEnabled.get();
+        ComputerCraft.prometheusAddress = prometheusAddress.get();
+        ComputerCraft.prometheusPort = prometheusPort.get();
+        ComputerCraft.prometheusMaxComputers = prometheusMaxComputers.get();
+
         // HTTP
         ComputerCraft.httpEnabled = httpEnabled.get();
         ComputerCraft.httpWebsocketEnabled = httpWebsocketEnabled.get();
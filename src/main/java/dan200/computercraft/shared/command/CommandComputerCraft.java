@@ -8,8 +8,13 @@
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import dan200.computercraft.ComputerCraft;
 import dan200.computercraft.api.peripheral.IPeripheral;
 import dan200.computercraft.core.computer.ComputerSide;
+import dan200.computercraft.core.computer.mainthread.MainThreadPriority;
+import dan200.computercraft.core.lua.LuaProfiler;
+import dan200.computercraft.core.metrics.Histogram;
+import dan200.computercraft.core.metrics.Metric;
 import dan200.computercraft.core.metrics.Metrics;
 import dan200.computercraft.shared.command.text.TableBuilder;
 import dan200.computercraft.shared.computer.core.ComputerFamily;
@@ -40,6 +45,13 @@
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import static dan200.computercraft.shared.command.CommandUtils.isPlayer;
@@ -47,6 +59,7 @@
 import static dan200.computercraft.shared.command.arguments.ComputerArgumentType.getComputerArgument;
 import static dan200.computercraft.shared.command.arguments.ComputerArgumentType.oneComputer;
 import static dan200.computercraft.shared.command.arguments.ComputersArgumentType.*;
+import static dan200.computercraft.shared.command.arguments.PriorityArgumentType.priority;
 import static dan200.computercraft.shared.command.arguments.TrackingFieldArgumentType.metric;
 import static dan200.computercraft.shared.command.builder.CommandBuilder.args;
 import static dan200.computercraft.shared.command.builder.CommandBuilder.command;
@@ -61,6 +74,9 @@
     private static final int DUMP_LIST_ID = 5373952;
     private static final int DUMP_SINGLE_ID = 1844510720;
     private static final int TRACK_ID = 373882880;
+    private static final int TRACK_METHODS_ID = 373882881;
+
+    private static final DateTimeFormatter PROFILE_TIME_FORMAT = DateTimeFormatter.ofPattern( "yyyy-MM-dd_HH.mm.ss" );
 
     private CommandComputerCraft()
     {
@@ -282,6 +298,53 @@ public Container createMenu( int id, @Nonnull PlayerInventory player, @Nonnull P
                         }
 
                         return displayTimings( context.getSource(), sort, fields );
+                    } ) )
+
+                .then( command( "methods" )
+                    .requires( UserLevel.OWNER_OP )
+                    .executes( context -> displayMethodTimings( context.getSource() ) ) ) )
+
+            .then( choice( "profile" )
+                .then( command( "start" )
+                    .requires( UserLevel.OWNER_OP )
+                    .argManyValue( "computers", manyComputers(), s -> ServerContext.get( s.getServer() ).registry().getComputers() )
+                    .executes( ( context, computerSelectors ) -> {
+                        Set<ServerComputer> computers = unwrap( context.getSource(), computerSelectors );
+                        for( ServerComputer computer : computers ) computer.getComputer().setProfiler( new LuaProfiler() );
+
+                        String stopCommand = "/computercraft profile stop";
+                        context.getSource().sendSuccess( translate( "commands.computercraft.profile.start.done", computers.size(),
+                            link( text( stopCommand ), stopCommand, translate( "commands.computercraft.profile.stop.action" ) ) ), false );
+                        return computers.size();
+                    } ) )
+
+                .then( command( "stop" )
+                    .requires( UserLevel.OWNER_OP )
+                    .argManyValue( "computers", manyComputers(), s -> ServerContext.get( s.getServer() ).registry().getComputers() )
+                    .executes( ( context, computerSelectors ) -> saveProfiles( context.getSource(), unwrap( context.getSource(), computerSelectors ) ) ) ) )
+
+            .then( choice( "priority" )
+                .then( command( "get" )
+                    .requires( UserLevel.OWNER_OP )
+                    .arg( "computer", oneComputer() )
+                    .executes( context -> {
+                        ServerComputer computer = getComputerArgument( context, "computer" );
+                        MainThreadPriority priority = computer.getComputer().getMainThreadPriority();
+                        context.getSource().sendSuccess( translate( "commands.computercraft.priority.get.done",
+                            linkComputer( context.getSource(), computer, computer.getID() ), priority.getName() ), false );
+                        return priority.ordinal();
+                    } ) )
+                .then( command( "set" )
+                    .requires( UserLevel.OWNER_OP )
+                    .arg( "computer", oneComputer() )
+                    .arg( "priority", priority() )
+                    .executes( context -> {
+                        ServerComputer computer = getComputerArgument( context, "computer" );
+                        MainThreadPriority priority = context.getArgument( "priority", MainThreadPriority.class );
+                        computer.getComputer().setMainThreadPriority( priority );
+                        context.getSource().sendSuccess( translate( "commands.computercraft.priority.set.done",
+                            linkComputer( context.getSource(), computer, computer.getID() ), priority.getName() ), false );
+                        return 1;
                     } ) ) )
         );
     }
@@ -410,4 +473,85 @@ private static int displayTimings( CommandSource source, List<ComputerMetrics> t
         table.display( source );
         return timings.size();
     }
+
+    private static int saveProfiles( CommandSource source, Collection<ServerComputer> computers ) throws CommandSyntaxException
+    {
+        Path directory = ServerContext.get( source.getServer() ).storageDir().resolve( "profiles" );
+        String time = LocalDateTime.now().format( PROFILE_TIME_FORMAT );
+
+        int stopped = 0;
+        for( ServerComputer computer : computers )
+        {
+            LuaProfiler profiler = computer.getComputer().getProfiler();
+            if( profiler == null ) continue;
+
+            computer.getComputer().setProfiler( null );
+            stopped++;
+
+            ITextComponent computerComponent = linkComputer( source, computer, computer.getID() );
+            Path file = directory.resolve( "computer_" + computer.getID() + "_" + time + ".folded" );
+            try
+            {
+                Files.createDirectories( directory );
+                try( Writer writer = Files.newBufferedWriter( file, StandardCharsets.UTF_8 ) )
+                {
+                    profiler.writeFolded( writer );
+                }
+            }
+            catch( IOException e )
+            {
+                ComputerCraft.log.error( "Failed to write profile to {}", file, e );
+                source.sendFailure( translate( "commands.computercraft.profile.stop.failed", computerComponent ) );
+                continue;
+            }
+
+            source.sendSuccess( translate( "commands.computercraft.profile.stop.done",
+                profiler.getSamples(), computerComponent, copy( file.toString() ) ), false );
+        }
+
+        if( stopped == 0 ) throw NOT_PROFILING_EXCEPTION.create();
+        return stopped;
+    }
+
+    private static int displayMethodTimings( CommandSource source ) throws CommandSyntaxException
+    {
+        Map<String, Histogram> methods = new HashMap<>();
+        for( ComputerMetrics timings : getMetricsInstance( source ).getSnapshot() )
+        {
+            for( Map.Entry<String, Histogram> method : timings.labels().entrySet() )
+            {
+                methods.computeIfAbsent( method.getKey(), x -> new Histogram() ).merge( method.getValue() );
+            }
+        }
+
+        if( methods.isEmpty() ) throw NO_TIMINGS_EXCEPTION.create();
+
+        List<Map.Entry<String, Histogram>> sorted = new ArrayList<>( methods.entrySet() );
+        sorted.sort( Comparator.<Map.Entry<String, Histogram>, Long>comparing( x -> x.getValue().total() ).reversed() );
+
+        TableBuilder table = new TableBuilder( TRACK_METHODS_ID,
+            translate( "commands.computercraft.track.methods.method" ),
+            new AggregatedMetric( Metrics.METHOD_TIME, Aggregate.COUNT ).displayName(),
+            new AggregatedMetric( Metrics.METHOD_TIME, Aggregate.P50 ).displayName(),
+            new AggregatedMetric( Metrics.METHOD_TIME, Aggregate.P99 ).displayName(),
+            new AggregatedMetric( Metrics.METHOD_TIME, Aggregate.P999 ).displayName(),
+            new AggregatedMetric( Metrics.METHOD_TIME, Aggregate.MAX ).displayName()
+        );
+
+        for( Map.Entry<String, Histogram> entry : sorted )
+        {
+            Histogram histogram = entry.getValue();
+            table.row(
+                text( entry.getKey() ),
+                text( Metric.formatDefault( histogram.count() ) ),
+                text( Metric.formatTime( histogram.percentile( 0.5 ) ) ),
+                text( Metric.formatTime( histogram.percentile( 0.99 ) ) ),
+                text( Metric.formatTime( histogram.percentile( 0.999 ) ) ),
+                text( Metric.formatTime( histogram.max() ) )
+            );
+        }
+
+        table.display( source );
+        return sorted.size();
+    }
 }
@@ -17,9 +17,13 @@
 
     public static final DynamicCommandExceptionType TRACKING_FIELD_ARG_NONE = translated1( "argument.computercraft.tracking_field.no_field" );
 
+    public static final DynamicCommandExceptionType PRIORITY_ARG_NONE = translated1( "argument.computercraft.priority.no_priority" );
+
     static final SimpleCommandExceptionType NOT_TRACKING_EXCEPTION = translated( "commands.computercraft.track.stop.not_enabled" );
     static final SimpleCommandExceptionType NO_TIMINGS_EXCEPTION = translated( "commands.computercraft.track.dump.no_timings" );
 
+    static final SimpleCommandExceptionType NOT_PROFILING_EXCEPTION = translated( "commands.computercraft.profile.stop.not_enabled" );
+
     static final SimpleCommandExceptionType TP_NOT_THERE = translated( "commands.computercraft.tp.not_there" );
     static final SimpleCommandExceptionType TP_NOT_PLAYER = translated( "commands.computercraft.tp.not_player" );
 
@@ -0,0 +1,31 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.command.arguments;
+
+import dan200.computercraft.core.computer.mainthread.MainThreadPriority;
+import dan200.computercraft.shared.command.Exceptions;
+import net.minecraft.util.text.TranslationTextComponent;
+
+import java.util.Arrays;
+
+public final class PriorityArgumentType extends ChoiceArgumentType<MainThreadPriority>
+{
+    private static final PriorityArgumentType INSTANCE = new PriorityArgumentType();
+
+    private PriorityArgumentType()
+    {
+        super(
+            Arrays.asList( MainThreadPriority.values() ),
+            MainThreadPriority::getName, x -> new TranslationTextComponent( "commands.computercraft.priority." + x.getName() ),
+            Exceptions.PRIORITY_ARG_NONE
+        );
+    }
+
+    public static PriorityArgumentType priority()
+    {
+        return INSTANCE;
+    }
+}
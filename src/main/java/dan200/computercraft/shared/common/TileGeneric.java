@@ -14,6 +14,7 @@
 import net.minecraft.tileentity.TileEntityType;
 import net.minecraft.util.ActionResultType;
 import net.minecraft.util.Hand;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.BlockRayTraceResult;
 import net.minecraftforge.common.util.Constants;
@@ -22,6 +23,8 @@
 
 public abstract class TileGeneric extends TileEntity
 {
+    private boolean fullUpdate = true;
+
     public TileGeneric( TileEntityType<? extends TileGeneric> type )
     {
         super( type );
@@ -34,11 +37,57 @@ public void destroy()
     public final void updateBlock()
     {
         setChanged();
+        fullUpdate = true;
+        BlockPos pos = getBlockPos();
+        BlockState state = getBlockState();
+        getLevel().sendBlockUpdated( pos, state, state, Constants.BlockFlags.DEFAULT );
+    }
+
+    /**
+     * Send a partial update to clients. Unlike {@link #updateBlock()}, this does not mark the tile as needing to be
+     * saved, and the next update packet may only contain the data which changes frequently (such as animations).
+     *
+     * @see #consumeFullUpdate()
+     */
+    public final void updateBlockPartially()
+    {
         BlockPos pos = getBlockPos();
         BlockState state = getBlockState();
         getLevel().sendBlockUpdated( pos, state, state, Constants.BlockFlags.DEFAULT );
     }
 
+    /**
+     * Determine whether the next update packet should contain the full client state, and reset this flag.
+     *
+     * @return Whether {@link #updateBlock()} has been called since the last update packet was sent.
+     */
+    protected final boolean consumeFullUpdate()
+    {
+        boolean fullUpdate = this.fullUpdate;
+        this.fullUpdate = false;
+        return fullUpdate;
+    }
+
+    /**
+     * Create an empty tag for {@link #getUpdateTag()}.
+     * <p>
+     * The default implementation of {@link #getUpdateTag()} writes the whole tile entity, which is unnecessary (and can
+     * be expensive) when only a handful of fields are needed on the client. This only includes the id and position of
+     * the tile entity, which the client needs in order to locate it.
+     *
+     * @return The new update tag.
+     */
+    protected final CompoundNBT createUpdateTag()
+    {
+        CompoundNBT nbt = new CompoundNBT();
+        ResourceLocation id = TileEntityType.getKey( getType() );
+        if( id != null ) nbt.putString( "id", id.toString() );
+        nbt.putInt( "x", worldPosition.getX() );
+        nbt.putInt( "y", worldPosition.getY() );
+        nbt.putInt( "z", worldPosition.getZ() );
+        return nbt;
+    }
+
     @Nonnull
     public ActionResultType onActivate( PlayerEntity player, Hand hand, BlockRayTraceResult hit )
     {
@@ -8,6 +8,7 @@
 import dan200.computercraft.api.ComputerCraftAPI;
 import dan200.computercraft.api.peripheral.IPeripheral;
 import dan200.computercraft.core.computer.ComputerSide;
+import dan200.computercraft.core.computer.mainthread.MainThreadPriority;
 import dan200.computercraft.shared.BundledRedstone;
 import dan200.computercraft.shared.Peripherals;
 import dan200.computercraft.shared.common.TileGeneric;
@@ -18,6 +19,7 @@
 import dan200.computercraft.shared.network.container.ComputerContainerData;
 import dan200.computercraft.shared.util.DirectionUtil;
 import dan200.computercraft.shared.util.IDAssigner;
+import dan200.computercraft.shared.util.NeighbourTracker;
 import dan200.computercraft.shared.util.RedstoneUtil;
 import joptsimple.internal.Strings;
 import net.minecraft.block.BlockState;
@@ -51,16 +53,19 @@ public abstract class TileComputerBase extends TileGeneric implements IComputerT
     private static final String NBT_ID = "ComputerId";
     private static final String NBT_LABEL = "Label";
     private static final String NBT_ON = "On";
+    private static final String NBT_PRIORITY = "MainThreadPriority";
 
     private int instanceID = -1;
     private int computerID = -1;
     protected String label = null;
     private boolean on = false;
+    private MainThreadPriority priority = MainThreadPriority.NORMAL;
     boolean startOn = false;
     private boolean fresh = false;
 
     private int invalidSides = 0;
     private final NonNullConsumer<Object>[] invalidate;
+    private final NeighbourTracker[] neighbours = new NeighbourTracker[6];
 
     private LockCode lockCode = LockCode.NO_LOCK;
 
@@ -77,7 +82,11 @@ public TileComputerBase( TileEntityType<? extends TileGeneric> type, ComputerFam
         for( Direction direction : Direction.values() )
         {
             int mask = 1 << direction.ordinal();
-            invalidate[direction.ordinal()] = o -> invalidSides |= mask;
+            NeighbourTracker neighbour = neighbours[direction.ordinal()] = new NeighbourTracker();
+            invalidate[direction.ordinal()] = o -> {
+                invalidSides |= mask;
+                neighbour.invalidate();
+            };
         }
     }
 
@@ -181,7 +190,7 @@ public void tick()
         {
             for( Direction direction : DirectionUtil.FACINGS )
             {
-                if( (invalidSides & (1 << direction.ordinal())) != 0 ) refreshPeripheral( computer, direction );
+                if( (invalidSides & (1 << direction.ordinal())) != 0 ) refreshPeripheral( computer, direction, false );
             }
         }
 
@@ -199,13 +208,22 @@ public void tick()
         label = computer.getLabel();
         on = computer.isOn();
 
+        MainThreadPriority priority = computer.getComputer().getMainThreadPriority();
+        if( priority != this.priority )
+        {
+            this.priority = priority;
+            setChanged();
+        }
+
         // Update the block state if needed. We don't fire a block update intentionally,
         // as this only really is needed on the client side.
         updateBlockState( computer.getState() );
 
-        // TODO: This should ideally be split up into label/id/on (which should save NBT and sync to client) and
-        //  redstone (which should update outputs)
-        if( computer.hasOutputChanged() ) updateOutput();
+        // Label/id/on changes need to be saved and synced to the client. Redstone changes only need to notify the
+        // neighbours on the sides which actually changed.
+        if( computer.hasOutputChanged() ) updateBlock();
+        int redstoneChanged = computer.getRedstoneChanged();
+        if( redstoneChanged != 0 ) propagateRedstoneOutput( redstoneChanged );
     }
 
     protected abstract void updateBlockState( ComputerState newState );
@@ -218,6 +236,7 @@ public CompoundNBT save( @Nonnull CompoundNBT nbt )
         if( computerID >= 0 ) nbt.putInt( NBT_ID, computerID );
         if( label != null ) nbt.putString( NBT_LABEL, label );
         nbt.putBoolean( NBT_ON, on );
+        if( priority != MainThreadPriority.NORMAL ) nbt.putString( NBT_PRIORITY, priority.getName() );
 
         lockCode.addToTag( nbt );
 
@@ -233,6 +252,8 @@ public void load( @Nonnull BlockState state, @Nonnull CompoundNBT nbt )
         computerID = nbt.contains( NBT_ID ) ? nbt.getInt( NBT_ID ) : -1;
         label = nbt.contains( NBT_LABEL ) ? nbt.getString( NBT_LABEL ) : null;
         on = startOn = nbt.getBoolean( NBT_ON );
+        MainThreadPriority priority = MainThreadPriority.fromName( nbt.getString( NBT_PRIORITY ) );
+        this.priority = priority == null ? MainThreadPriority.NORMAL : priority;
 
         lockCode = LockCode.fromTag( nbt );
     }
@@ -263,15 +284,22 @@ private void updateRedstoneInput( @Nonnull ServerComputer computer, Direction di
         computer.setBundledRedstoneInput( localDir, BundledRedstone.getOutput( getLevel(), targetPos, offsetSide ) );
     }
 
-    private void refreshPeripheral( @Nonnull ServerComputer computer, Direction dir )
+    private void refreshPeripheral( @Nonnull ServerComputer computer, Direction dir, boolean force )
     {
         invalidSides &= ~(1 << dir.ordinal());
 
         ComputerSide localDir = remapToLocalSide( dir );
         if( isPeripheralBlockedOnSide( localDir ) ) return;
 
+        // Skip the lookup if the neighbouring block is the same as last time. This avoids repeatedly recreating
+        // peripherals when unrelated neighbour updates are fired.
+        BlockPos neighbour = getBlockPos().relative( dir );
+        NeighbourTracker tracker = neighbours[dir.ordinal()];
+        if( !tracker.update( getLevel(), neighbour ) && !force ) return;
+
         Direction offsetSide = dir.getOpposite();
-        IPeripheral peripheral = Peripherals.getPeripheral( getLevel(), getBlockPos().relative( dir ), offsetSide, invalidate[dir.ordinal()] );
+        IPeripheral peripheral = Peripherals.getPeripheral( getLevel(), neighbour, offsetSide, invalidate[dir.ordinal()] );
+        tracker.setPeripheral( peripheral );
         computer.setPeripheral( localDir, peripheral );
     }
 
@@ -296,7 +324,7 @@ private void updateInputsImmediately( @Nonnull ServerComputer computer )
         for( Direction dir : DirectionUtil.FACINGS )
         {
             updateRedstoneInput( computer, dir, pos.relative( dir ) );
-            refreshPeripheral( computer, dir );
+            refreshPeripheral( computer, dir, true );
         }
     }
 
@@ -329,8 +357,14 @@ private void updateInputAt( @Nonnull BlockPos neighbour )
     public void updateOutput()
     {
         updateBlock();
+        propagateRedstoneOutput( (1 << ComputerSide.COUNT) - 1 );
+    }
+
+    private void propagateRedstoneOutput( int localSides )
+    {
         for( Direction dir : DirectionUtil.FACINGS )
         {
+            if( (localSides & (1 << remapToLocalSide( dir ).ordinal())) == 0 ) continue;
             RedstoneUtil.propagateRedstoneOutput( getLevel(), getBlockPos(), dir );
         }
     }
@@ -392,6 +426,7 @@ public final ServerComputer createServerComputer()
             }
 
             computer = createComputer( computerID );
+            computer.getComputer().setMainThreadPriority( priority );
             instanceID = computer.register();
             fresh = true;
             changed = true;
@@ -413,7 +448,18 @@ public ServerComputer getServerComputer()
     @Override
     public final SUpdateTileEntityPacket getUpdatePacket()
     {
-        return new SUpdateTileEntityPacket( worldPosition, 0, getUpdateTag() );
+        return new SUpdateTileEntityPacket( worldPosition, 0, consumeFullUpdate() ? getUpdateTag() : getPartialUpdateTag() );
+    }
+
+    /**
+     * Get the tag to send to clients after a {@linkplain #updateBlockPartially() partial update}.
+     *
+     * @return The partial update tag. This must be accepted by {@link #handleUpdateTag(CompoundNBT)}.
+     */
+    @Nonnull
+    protected CompoundNBT getPartialUpdateTag()
+    {
+        return getUpdateTag();
     }
 
     @Nonnull
@@ -421,7 +467,7 @@ public final SUpdateTileEntityPacket getUpdatePacket()
     public CompoundNBT getUpdateTag()
     {
         // We need this for pick block on the client side.
-        CompoundNBT nbt = super.getUpdateTag();
+        CompoundNBT nbt = createUpdateTag();
         if( label != null ) nbt.putString( NBT_LABEL, label );
         if( computerID >= 0 ) nbt.putInt( NBT_ID, computerID );
         return nbt;
@@ -32,6 +32,8 @@
 
 public class ServerComputer implements InputHandler, ComputerEnvironment
 {
+    private static final double NEARBY_DISTANCE_SQ = 64 * 64;
+
     private final int instanceID;
 
     private ServerWorld world;
@@ -43,10 +45,17 @@ public class ServerComputer implements InputHandler, ComputerEnvironment
 
     private final Terminal terminal;
     private final AtomicBoolean terminalChanged = new AtomicBoolean( false );
+    private TerminalState pendingTerminal;
 
     private boolean changedLastFrame;
+    private int redstoneChangedLastFrame;
     private int ticksSincePing;
 
+    /**
+     * This computer's position in {@link ServerComputerRegistry}'s list of computers to tick, or {@code -1}.
+     */
+    int tickIndex = -1;
+
     public ServerComputer( ServerWorld world, int computerID, String label, ComputerFamily family, int terminalWidth, int terminalHeight )
     {
         this.world = world;
@@ -101,20 +110,55 @@ protected void markTerminalChanged()
         terminalChanged.set( true );
     }
 
-
-    public void tickServer()
+    /**
+     * The first phase of a computer's tick, run on the main thread. This advances the computer's APIs.
+     */
+    void startTick()
     {
         ticksSincePing++;
+        computer.tickMain();
+    }
+
+    /**
+     * The second phase of a computer's tick. This updates the computer's internal state and encodes its terminal, but
+     * does not interact with the world, and so may be run in parallel with other computers.
+     */
+    void updateState()
+    {
+        // The terminal may be marked as changed without the computer doing anything (for instance, when a pocket
+        // computer is picked up by another player), so check it even if the computer is parked.
+        if( terminalChanged.getAndSet( false ) ) pendingTerminal = getTerminalState();
 
-        computer.tick();
+        if( computer.isParked() )
+        {
+            // Parked computers have done nothing since the last tick, so there's nothing else to propagate.
+            changedLastFrame = false;
+            redstoneChangedLastFrame = 0;
+            return;
+        }
+
+        computer.tickState();
 
         changedLastFrame = computer.pollAndResetChanged();
-        if( terminalChanged.getAndSet( false ) ) onTerminalChanged();
+        redstoneChangedLastFrame = computer.pollAndResetRedstoneChanged();
+    }
+
+    /**
+     * The final phase of a computer's tick, run on the main thread. This sends any changes to players.
+     */
+    protected void finishTick()
+    {
+        TerminalState terminal = pendingTerminal;
+        if( terminal != null )
+        {
+            pendingTerminal = null;
+            onTerminalChanged( terminal );
+        }
     }
 
-    protected void onTerminalChanged()
+    protected void onTerminalChanged( TerminalState terminal )
     {
-        sendToAllInteracting( c -> new ComputerTerminalClientMessage( c, getTerminalState() ) );
+        sendToAllInteracting( c -> new ComputerTerminalClientMessage( c, terminal ) );
     }
 
     public TerminalState getTerminalState()
@@ -137,6 +181,16 @@ public boolean hasOutputChanged()
         return changedLastFrame;
     }
 
+    /**
+     * Get which sides' redstone output changed in the last tick.
+     *
+     * @return A bitmask of changed {@linkplain ComputerSide sides}.
+     */
+    public int getRedstoneChanged()
+    {
+        return redstoneChangedLastFrame;
+    }
+
     public int register()
     {
         ServerContext.get( world.getServer() ).registry().add( instanceID, this );
@@ -288,4 +342,20 @@ public IWritableMount createRootMount()
     {
         return ComputerCraftAPI.createSaveDirMount( world, "computer/" + computer.getID(), ComputerCraft.computerSpaceLimit );
     }
+
+    @Override
+    public int getBootPriority()
+    {
+        // Command computers are often responsible for running the world, so start them first. Otherwise prefer
+        // computers near a player, as those are the ones people will notice.
+        if( family == ComputerFamily.COMMAND ) return 2;
+
+        BlockPos pos = position;
+        if( pos == null ) return 0;
+        for( ServerPlayerEntity player : world.players() )
+        {
+            if( player.distanceToSqr( pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5 ) <= NEARBY_DISTANCE_SQ ) return 1;
+        }
+        return 0;
+    }
 }
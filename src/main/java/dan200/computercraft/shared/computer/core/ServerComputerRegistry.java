@@ -5,21 +5,57 @@
  */
 package dan200.computercraft.shared.computer.core;
 
+import dan200.computercraft.ComputerCraft;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Tracks every {@link ServerComputer} on the server, and ticks them.
+ * <p>
+ * Computers are ticked in three phases. The first and last phases ({@link ServerComputer#startTick()} and
+ * {@link ServerComputer#finishTick()}) interact with the world, and so are run serially on the main thread. The middle
+ * phase ({@link ServerComputer#updateState()}) only touches the computer's own state, and so with enough computers, is
+ * split across a {@link ForkJoinPool}.
+ * <p>
+ * Computers are also kept in a dense array, rather than iterating over {@link #computers} every tick.
+ */
 public class ServerComputerRegistry
 {
     private static final Random RANDOM = new Random();
 
+    /**
+     * The minimum number of computers before we tick them in parallel. Below this, the cost of handing work to other
+     * threads outweighs any gain.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * The number of computers each task in the parallel phase should update.
+     */
+    private static final int BATCH_SIZE = 64;
+
     private final int sessionId = RANDOM.nextInt();
     private final Int2ObjectMap<ServerComputer> computers = new Int2ObjectOpenHashMap<>();
     private int nextInstanceId;
+    private volatile int parked;
+    private volatile List<ServerComputer> loaded = Collections.emptyList();
+    private boolean loadedChanged;
+
+    private ServerComputer[] ticking = new ServerComputer[16];
+    private int tickingSize;
+
+    private @Nullable ForkJoinPool pool;
 
     public int getSessionID()
     {
@@ -45,21 +81,73 @@ public ServerComputer get( int sessionId, int instanceId )
 
     void update()
     {
-        Iterator<ServerComputer> it = getComputers().iterator();
-        while( it.hasNext() )
+        ServerComputer[] ticking = this.ticking;
+
+        // Remove any computers which have timed out, and advance the rest. We go backwards, so that removed computers
+        // are replaced with ones we've already processed.
+        for( int i = tickingSize - 1; i >= 0; i-- )
         {
-            ServerComputer computer = it.next();
+            ServerComputer computer = ticking[i];
             if( computer.hasTimedOut() )
             {
                 computer.unload();
                 computer.onRemoved();
-                it.remove();
+                computers.remove( computer.getInstanceID() );
+                removeTicking( computer );
             }
             else
             {
-                computer.tickServer();
+                computer.startTick();
             }
         }
+
+        int size = tickingSize;
+        if( size >= PARALLEL_THRESHOLD )
+        {
+            getPool().invoke( new UpdateTask( ticking, 0, size ) );
+        }
+        else
+        {
+            for( int i = 0; i < size; i++ ) ticking[i].updateState();
+        }
+
+        int parked = 0;
+        for( int i = 0; i < size; i++ )
+        {
+            ServerComputer computer = ticking[i];
+            computer.finishTick();
+            if( computer.getComputer().isParked() ) parked++;
+        }
+
+        this.parked = parked;
+
+        if( loadedChanged )
+        {
+            loadedChanged = false;
+            loaded = Collections.unmodifiableList( Arrays.asList( Arrays.copyOf( ticking, size ) ) );
+        }
+    }
+
+    /**
+     * Get the number of computers which were {@linkplain dan200.computercraft.core.computer.Computer#isParked() parked}
+     * during the last tick. This may be called from any thread.
+     *
+     * @return The number of parked computers.
+     */
+    public int getParkedCount()
+    {
+        return parked;
+    }
+
+    /**
+     * Get a snapshot of every computer currently loaded. Unlike {@link #getComputers()}, this may be called from any
+     * thread, though it is only updated at the end of each tick.
+     *
+     * @return The currently loaded computers.
+     */
+    public List<ServerComputer> getLoadedComputers()
+    {
+        return loaded;
     }
 
     void add( int instanceID, ServerComputer computer )
@@ -67,6 +155,11 @@ void add( int instanceID, ServerComputer computer )
         remove( instanceID );
         computers.put( instanceID, computer );
         nextInstanceId = Math.max( nextInstanceId, instanceID + 1 );
+
+        if( tickingSize == ticking.length ) ticking = Arrays.copyOf( ticking, tickingSize * 2 );
+        computer.tickIndex = tickingSize;
+        ticking[tickingSize++] = computer;
+        loadedChanged = true;
     }
 
     void remove( int instanceID )
@@ -76,19 +169,91 @@ void remove( int instanceID )
         {
             computer.unload();
             computer.onRemoved();
+            removeTicking( computer );
         }
 
         computers.remove( instanceID );
     }
 
+    private void removeTicking( ServerComputer computer )
+    {
+        int index = computer.tickIndex;
+        if( index < 0 ) return;
+
+        // Move the last computer into the removed computer's slot.
+        ServerComputer last = ticking[--tickingSize];
+        ticking[index] = last;
+        last.tickIndex = index;
+        ticking[tickingSize] = null;
+        computer.tickIndex = -1;
+        loadedChanged = true;
+    }
+
     void close()
     {
         for( ServerComputer computer : getComputers() ) computer.unload();
         computers.clear();
+
+        Arrays.fill( ticking, 0, tickingSize, null );
+        tickingSize = 0;
+        loaded = Collections.emptyList();
+
+        if( pool != null )
+        {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private ForkJoinPool getPool()
+    {
+        if( pool != null ) return pool;
+
+        AtomicInteger counter = new AtomicInteger();
+        return pool = new ForkJoinPool(
+            Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 ),
+            p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread( p );
+                thread.setName( "ComputerCraft-ServerTick-" + counter.getAndIncrement() );
+                thread.setDaemon( true );
+                return thread;
+            },
+            ( t, e ) -> ComputerCraft.log.error( "Exception in thread " + t.getName(), e ),
+            false
+        );
     }
 
     public Collection<ServerComputer> getComputers()
     {
         return computers.values();
     }
+
+    private static final class UpdateTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = -2616153283036296227L;
+
+        private final ServerComputer[] computers;
+        private final int start;
+        private final int end;
+
+        UpdateTask( ServerComputer[] computers, int start, int end )
+        {
+            this.computers = computers;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if( end - start <= BATCH_SIZE )
+            {
+                for( int i = start; i < end; i++ ) computers[i].updateState();
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll( new UpdateTask( computers, start, middle ), new UpdateTask( computers, middle, end ) );
+        }
+    }
 }
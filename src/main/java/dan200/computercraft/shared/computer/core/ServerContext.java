@@ -10,6 +10,8 @@
 import dan200.computercraft.api.ComputerCraftAPI;
 import dan200.computercraft.api.filesystem.IMount;
 import dan200.computercraft.core.ComputerContext;
+import dan200.computercraft.core.computer.BootQueue;
+import dan200.computercraft.core.computer.ComputerThread;
 import dan200.computercraft.core.computer.GlobalEnvironment;
 import dan200.computercraft.core.computer.mainthread.MainThread;
 import dan200.computercraft.shared.CommonHooks;
@@ -128,6 +130,36 @@ ComputerContext computerContext()
         return context;
     }
 
+    /**
+     * Get the {@link ComputerThread} computers are run on. This is intended for monitoring.
+     *
+     * @return The current computer thread.
+     */
+    public ComputerThread computerThread()
+    {
+        return context.computerScheduler();
+    }
+
+    /**
+     * Get the {@link MainThread} which main-thread tasks are run on. This is intended for monitoring.
+     *
+     * @return The current main thread scheduler.
+     */
+    public MainThread mainThread()
+    {
+        return mainThread;
+    }
+
+    /**
+     * Get the {@link BootQueue} which limits how many computers may start at once. This is intended for monitoring.
+     *
+     * @return The current boot queue.
+     */
+    public BootQueue bootQueue()
+    {
+        return context.bootQueue();
+    }
+
     /**
      * Tick all components of this server context. This should <em>NOT</em> be called outside of {@link CommonHooks}.
      */
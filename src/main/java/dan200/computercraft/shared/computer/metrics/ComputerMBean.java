@@ -7,6 +7,7 @@
 
 import com.google.common.base.CaseFormat;
 import dan200.computercraft.ComputerCraft;
+import dan200.computercraft.core.metrics.Histogram;
 import dan200.computercraft.core.metrics.Metric;
 import dan200.computercraft.core.metrics.Metrics;
 import dan200.computercraft.shared.computer.core.ServerComputer;
@@ -24,7 +25,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.LongSupplier;
 
 /**
@@ -120,8 +121,9 @@ public MBeanInfo getMBeanInfo()
     private void observe( Metric field, long change )
     {
         Counter counter = values.get( field.id() );
-        counter.value.addAndGet( change );
-        counter.count.incrementAndGet();
+        counter.value.add( change );
+        counter.count.increment();
+        if( counter.histogram != null ) counter.histogram.record( change );
     }
 
     @Override
@@ -144,7 +146,7 @@ private MBeanAttributeInfo addAttribute( String name, String description, LongSu
 
     private void add( String name, Metric field, List<MBeanAttributeInfo> attributes )
     {
-        Counter counter = new Counter();
+        Counter counter = new Counter( field instanceof Metric.Event );
         values.put( field.id(), counter );
 
         String prettyName = new AggregatedMetric( field, Aggregate.NONE ).displayName().getString();
@@ -153,12 +155,29 @@ private void add( String name, Metric field, List<MBeanAttributeInfo> attributes
         {
             String countName = new AggregatedMetric( field, Aggregate.COUNT ).displayName().getString();
             attributes.add( addAttribute( name + "Count", countName, counter.count::longValue ) );
+
+            addPercentile( name, field, counter, Aggregate.P50, 0.5, attributes );
+            addPercentile( name, field, counter, Aggregate.P99, 0.99, attributes );
+            addPercentile( name, field, counter, Aggregate.P999, 0.999, attributes );
         }
     }
 
+    private void addPercentile( String name, Metric field, Counter counter, Aggregate aggregate, double percentile, List<MBeanAttributeInfo> attributes )
+    {
+        Histogram histogram = counter.histogram;
+        String prettyName = new AggregatedMetric( field, aggregate ).displayName().getString();
+        attributes.add( addAttribute( name + aggregate.name(), prettyName, () -> histogram.percentile( percentile ) ) );
+    }
+
     private static class Counter
     {
-        final AtomicLong value = new AtomicLong();
-        final AtomicLong count = new AtomicLong();
+        final LongAdder value = new LongAdder();
+        final LongAdder count = new LongAdder();
+        final @Nullable Histogram histogram;
+
+        Counter( boolean histogram )
+        {
+            this.histogram = histogram ? new Histogram() : null;
+        }
     }
 }
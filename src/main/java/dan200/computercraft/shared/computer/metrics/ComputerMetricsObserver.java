@@ -32,4 +32,18 @@
      * @see MetricsObserver#observe(Metric.Event, long)
      */
     void observe( ServerComputer computer, Metric.Event event, long value );
+
+    /**
+     * Observe a single instance of an event, attributed to some label.
+     *
+     * @param computer The computer which incremented its counter.
+     * @param event    The event to observe.
+     * @param label    The label this event should be attributed to.
+     * @param value    The value corresponding to this event.
+     * @see MetricsObserver#observe(Metric.Event, String, long)
+     */
+    default void observe( ServerComputer computer, Metric.Event event, String label, long value )
+    {
+        observe( computer, event, value );
+    }
 }
@@ -12,6 +12,7 @@
 import dan200.computercraft.shared.computer.metrics.basic.BasicComputerMetricsObserver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
@@ -23,9 +24,15 @@
  */
 public final class GlobalMetrics
 {
-    volatile boolean enabled = false;
+    private static final ComputerMetricsObserver[] NO_TRACKERS = new ComputerMetricsObserver[0];
+
     final Object lock = new Object();
-    final List<ComputerMetricsObserver> trackers = new ArrayList<>();
+
+    /**
+     * The current list of observers. This is replaced (rather than mutated) when observers are added or removed, so
+     * it can be read without holding {@link #lock}.
+     */
+    volatile ComputerMetricsObserver[] trackers = NO_TRACKERS;
 
     private final HashMap<UUID, BasicComputerMetricsObserver> instances = new HashMap<>();
 
@@ -55,9 +62,10 @@ public void addObserver( ComputerMetricsObserver tracker )
     {
         synchronized( lock )
         {
+            List<ComputerMetricsObserver> trackers = new ArrayList<>( Arrays.asList( this.trackers ) );
             if( trackers.contains( tracker ) ) return;
             trackers.add( tracker );
-            enabled = true;
+            this.trackers = trackers.toArray( NO_TRACKERS );
         }
     }
 
@@ -70,8 +78,9 @@ public void removeObserver( ComputerMetricsObserver tracker )
     {
         synchronized( lock )
         {
+            List<ComputerMetricsObserver> trackers = new ArrayList<>( Arrays.asList( this.trackers ) );
             trackers.remove( tracker );
-            enabled = !trackers.isEmpty();
+            this.trackers = trackers.toArray( NO_TRACKERS );
         }
     }
 
@@ -98,24 +107,25 @@ private DispatchObserver( ServerComputer computer )
         @Override
         public void observe( Metric.Counter counter )
         {
-            if( !enabled ) return;
-            synchronized( lock )
-            {
-                // TODO: The lock here is nasty and aggressive. However, in my benchmarks I've found it has about
-                //  equivalent performance to a CoW list and atomics. Would be good to drill into this, as locks do not
-                //  scale well.
-                for( ComputerMetricsObserver observer : trackers ) observer.observe( computer, counter );
-            }
+            for( ComputerMetricsObserver observer : trackers ) observer.observe( computer, counter );
         }
 
         @Override
         public void observe( Metric.Event event, long value )
         {
-            if( !enabled ) return;
-            synchronized( lock )
-            {
-                for( ComputerMetricsObserver observer : trackers ) observer.observe( computer, event, value );
-            }
+            for( ComputerMetricsObserver observer : trackers ) observer.observe( computer, event, value );
+        }
+
+        @Override
+        public void observe( Metric.Event event, String label, long value )
+        {
+            for( ComputerMetricsObserver observer : trackers ) observer.observe( computer, event, label, value );
+        }
+
+        @Override
+        public boolean isEnabled()
+        {
+            return trackers.length != 0;
         }
     }
 }
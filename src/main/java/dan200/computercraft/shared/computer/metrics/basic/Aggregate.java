@@ -17,7 +17,10 @@
     NONE( "none" ),
     COUNT( "count" ),
     AVG( "avg" ),
-    MAX( "max" );
+    MAX( "max" ),
+    P50( "p50" ),
+    P99( "p99" ),
+    P999( "p999" );
 
     private final String id;
 
@@ -13,12 +13,15 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Tracks timing information about computers, including how long they ran for and the number of events they handled.
  * <p>
  * Note that this will retain timings for computers which have been deleted.
+ * <p>
+ * Observing a metric does not acquire any locks (beyond the first time a computer is seen), as metrics are reported
+ * from many threads at once. Start/stop and snapshot operations are synchronised on this instance.
  */
 public class BasicComputerMetricsObserver implements ComputerMetricsObserver
 {
@@ -26,7 +29,7 @@ public class BasicComputerMetricsObserver implements ComputerMetricsObserver
     private boolean tracking = false;
 
     private final List<ComputerMetrics> timings = new ArrayList<>();
-    private final Map<ServerComputer, ComputerMetrics> timingLookup = new MapMaker().weakKeys().makeMap();
+    private final ConcurrentMap<ServerComputer, ComputerMetrics> timingLookup = new MapMaker().weakKeys().makeMap();
 
     public BasicComputerMetricsObserver( GlobalMetrics owner )
     {
@@ -69,21 +72,33 @@ private ComputerMetrics getMetrics( ServerComputer computer )
         ComputerMetrics existing = timingLookup.get( computer );
         if( existing != null ) return existing;
 
-        ComputerMetrics metrics = new ComputerMetrics( computer );
-        timingLookup.put( computer, metrics );
-        timings.add( metrics );
-        return metrics;
+        synchronized( this )
+        {
+            existing = timingLookup.get( computer );
+            if( existing != null ) return existing;
+
+            ComputerMetrics metrics = new ComputerMetrics( computer );
+            timingLookup.put( computer, metrics );
+            timings.add( metrics );
+            return metrics;
+        }
     }
 
     @Override
-    public synchronized void observe( ServerComputer computer, Metric.Counter counter )
+    public void observe( ServerComputer computer, Metric.Counter counter )
     {
         getMetrics( computer ).observe( counter );
     }
 
     @Override
-    public synchronized void observe( ServerComputer computer, Metric.Event event, long value )
+    public void observe( ServerComputer computer, Metric.Event event, long value )
     {
         getMetrics( computer ).observe( event, value );
     }
+
+    @Override
+    public void observe( ServerComputer computer, Metric.Event event, String label, long value )
+    {
+        getMetrics( computer ).observe( event, label, value );
+    }
 }
@@ -5,42 +5,85 @@
  */
 package dan200.computercraft.shared.computer.metrics.basic;
 
+import dan200.computercraft.core.metrics.Histogram;
 import dan200.computercraft.core.metrics.Metric;
+import dan200.computercraft.core.metrics.Metrics;
 import dan200.computercraft.shared.computer.core.ServerComputer;
 
 import javax.annotation.Nullable;
 import java.lang.ref.WeakReference;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Metrics for an individual computer.
+ * <p>
+ * Metrics are observed from whichever thread the computer is running on (computer threads, the server thread, the
+ * HTTP event loop, etc...), so this class is written to be safe to update concurrently without any locks. Counters
+ * are stored in {@link LongAdder}s and events in {@link Histogram}s, both of which spread writes over more cells when
+ * several threads update them at once. These are allocated lazily when a metric is first observed.
+ * <p>
+ * The arrays holding these are sized to the metrics registered when this computer's metrics were created, and grown
+ * (copy-on-write) if a later metric is observed. Slots are only filled and arrays only replaced while holding this
+ * object's lock, so a thread reading an old array still sees the same {@link LongAdder}s and {@link Histogram}s as the
+ * new one.
  */
 public final class ComputerMetrics
 {
-    private static final int DEFAULT_LEN = 16;
+    static
+    {
+        Metrics.init();
+    }
 
     private final WeakReference<ServerComputer> computer;
     private final int computerId;
-    private long[] counts;
-    private long[] totals;
-    private long[] max;
+    private volatile AtomicReferenceArray<LongAdder> counters;
+    private volatile AtomicReferenceArray<Histogram> events;
+    private final Map<String, Histogram> labels;
 
     ComputerMetrics( ServerComputer computer )
     {
         this.computer = new WeakReference<>( computer );
         computerId = computer.getID();
-        counts = new long[DEFAULT_LEN];
-        totals = new long[DEFAULT_LEN];
-        max = new long[DEFAULT_LEN];
+        int size = Metric.metrics().size();
+        counters = new AtomicReferenceArray<>( size );
+        events = new AtomicReferenceArray<>( size );
+        labels = new ConcurrentHashMap<>();
     }
 
     ComputerMetrics( ComputerMetrics other )
     {
         computer = other.computer;
         computerId = other.computerId;
-        counts = Arrays.copyOf( other.counts, other.counts.length );
-        totals = Arrays.copyOf( other.totals, other.totals.length );
-        max = Arrays.copyOf( other.max, other.max.length );
+
+        AtomicReferenceArray<LongAdder> otherCounters = other.counters;
+        counters = new AtomicReferenceArray<>( otherCounters.length() );
+        for( int i = 0; i < otherCounters.length(); i++ )
+        {
+            LongAdder counter = otherCounters.get( i );
+            if( counter == null ) continue;
+
+            LongAdder copy = new LongAdder();
+            copy.add( counter.sum() );
+            counters.set( i, copy );
+        }
+
+        AtomicReferenceArray<Histogram> otherEvents = other.events;
+        events = new AtomicReferenceArray<>( otherEvents.length() );
+        for( int i = 0; i < otherEvents.length(); i++ )
+        {
+            Histogram event = otherEvents.get( i );
+            if( event != null ) events.set( i, new Histogram( event ) );
+        }
+
+        labels = new ConcurrentHashMap<>();
+        for( Map.Entry<String, Histogram> label : other.labels.entrySet() )
+        {
+            labels.put( label.getKey(), new Histogram( label.getValue() ) );
+        }
     }
 
     @Nullable
@@ -54,11 +97,6 @@ public int computerId()
         return computerId;
     }
 
-    private static long get( long[] values, Metric metric )
-    {
-        return metric.id() >= values.length ? 0 : values[metric.id()];
-    }
-
     private long avg( long total, long count )
     {
         return count == 0 ? 0 : total / count;
@@ -66,19 +104,33 @@ private long avg( long total, long count )
 
     public long get( Metric metric, Aggregate aggregate )
     {
-        if( metric instanceof Metric.Counter ) return get( counts, metric );
+        if( metric instanceof Metric.Counter )
+        {
+            LongAdder counter = get( counters, metric.id() );
+            return counter == null ? 0 : counter.sum();
+        }
+
         if( metric instanceof Metric.Event )
         {
+            Histogram event = get( events, metric.id() );
+            if( event == null ) return 0;
+
             switch( aggregate )
             {
                 case NONE:
-                    return get( totals, metric );
+                    return event.total();
                 case COUNT:
-                    return get( counts, metric );
+                    return event.count();
                 case AVG:
-                    return avg( get( totals, metric ), get( counts, metric ) );
+                    return avg( event.total(), event.count() );
                 case MAX:
-                    return get( max, metric );
+                    return event.max();
+                case P50:
+                    return event.percentile( 0.5 );
+                case P99:
+                    return event.percentile( 0.99 );
+                case P999:
+                    return event.percentile( 0.999 );
                 default:
                     throw new IllegalArgumentException();
             }
@@ -96,6 +148,9 @@ public String getFormatted( Metric field, Aggregate aggregate )
                 return Metric.formatDefault( value );
             case AVG:
             case MAX:
+            case P50:
+            case P99:
+            case P999:
             case NONE:
                 return field.format( value );
             default:
@@ -103,27 +158,70 @@ public String getFormatted( Metric field, Aggregate aggregate )
         }
     }
 
-    private void ensureCapacity( Metric metric )
+    /**
+     * Get the distribution of each labelled event, such as the time spent in each peripheral method.
+     *
+     * @return The histogram for each label which has been observed.
+     * @see #observe(Metric.Event, String, long)
+     */
+    public Map<String, Histogram> labels()
+    {
+        return Collections.unmodifiableMap( labels );
+    }
+
+    @Nullable
+    private static <T> T get( AtomicReferenceArray<T> values, int id )
+    {
+        return id < values.length() ? values.get( id ) : null;
+    }
+
+    private static <T> AtomicReferenceArray<T> grow( AtomicReferenceArray<T> values, int id )
+    {
+        if( id < values.length() ) return values;
+
+        AtomicReferenceArray<T> grown = new AtomicReferenceArray<>( Math.max( id + 1, values.length() * 2 ) );
+        for( int i = 0; i < values.length(); i++ ) grown.set( i, values.get( i ) );
+        return grown;
+    }
+
+    private synchronized LongAdder createCounter( int id )
     {
-        if( metric.id() < counts.length ) return;
+        AtomicReferenceArray<LongAdder> counters = this.counters = grow( this.counters, id );
+        LongAdder adder = counters.get( id );
+        if( adder == null ) counters.set( id, adder = new LongAdder() );
+        return adder;
+    }
 
-        int newCapacity = Math.max( metric.id(), counts.length * 2 );
-        counts = Arrays.copyOf( counts, newCapacity );
-        totals = Arrays.copyOf( totals, newCapacity );
-        max = Arrays.copyOf( max, newCapacity );
+    private synchronized Histogram createEvent( int id )
+    {
+        AtomicReferenceArray<Histogram> events = this.events = grow( this.events, id );
+        Histogram histogram = events.get( id );
+        if( histogram == null ) events.set( id, histogram = new Histogram() );
+        return histogram;
     }
 
     void observe( Metric.Counter counter )
     {
-        ensureCapacity( counter );
-        counts[counter.id()]++;
+        int id = counter.id();
+        LongAdder adder = get( counters, id );
+        if( adder == null ) adder = createCounter( id );
+        adder.increment();
     }
 
     void observe( Metric.Event event, long value )
     {
-        ensureCapacity( event );
-        counts[event.id()]++;
-        totals[event.id()] += value;
-        if( value > max[event.id()] ) max[event.id()] = value;
+        int id = event.id();
+        Histogram histogram = get( events, id );
+        if( histogram == null ) histogram = createEvent( id );
+        histogram.record( value );
+    }
+
+    void observe( Metric.Event event, String label, long value )
+    {
+        observe( event, value );
+
+        Histogram histogram = labels.get( label );
+        if( histogram == null ) histogram = labels.computeIfAbsent( label, x -> new Histogram() );
+        histogram.record( value );
     }
 }
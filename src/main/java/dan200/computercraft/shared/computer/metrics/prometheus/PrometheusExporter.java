@@ -0,0 +1,355 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.computer.metrics.prometheus;
+
+import com.google.common.collect.MapMaker;
+import dan200.computercraft.ComputerCraft;
+import dan200.computercraft.core.apis.http.NetworkUtils;
+import dan200.computercraft.core.computer.BootQueue;
+import dan200.computercraft.core.computer.ComputerThread;
+import dan200.computercraft.core.computer.mainthread.MainThread;
+import dan200.computercraft.core.computer.mainthread.MainThreadPriority;
+import dan200.computercraft.core.metrics.Histogram;
+import dan200.computercraft.core.metrics.Metric;
+import dan200.computercraft.core.metrics.Metrics;
+import dan200.computercraft.shared.computer.core.ServerComputer;
+import dan200.computercraft.shared.computer.core.ServerComputerRegistry;
+import dan200.computercraft.shared.computer.core.ServerContext;
+import dan200.computercraft.shared.computer.metrics.ComputerMetricsObserver;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
+import net.minecraft.server.MinecraftServer;
+
+import javax.annotation.Nullable;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exposes metrics about all computers on the server over HTTP, in a format which may be scraped by Prometheus.
+ * <p>
+ * This exports the same server-wide metrics as {@link dan200.computercraft.shared.computer.metrics.ComputerMBean},
+ * along with the state of the computer and main-thread schedulers. Per-computer metrics are also exported, though only
+ * for the first {@link ComputerCraft#prometheusMaxComputers} computers which do any work, to avoid creating an
+ * unbounded number of time series. Computers are labelled by their ID: several loaded computers may share an ID (for
+ * instance, copied computers), in which case their metrics are summed together.
+ * <p>
+ * Metrics are recorded without locking, and only formatted when scraped, so this adds little overhead to computers.
+ */
+public final class PrometheusExporter implements ComputerMetricsObserver
+{
+    private static final int METRIC_COUNT;
+
+    static
+    {
+        Metrics.init();
+        METRIC_COUNT = Metric.metrics().size();
+    }
+
+    private static @Nullable PrometheusExporter instance;
+
+    private final ComputerThread computerThread;
+    private final MainThread mainThread;
+    private final BootQueue bootQueue;
+    private final ServerComputerRegistry registry;
+    private final int maxComputers;
+
+    private final LongAdder[] counters = new LongAdder[METRIC_COUNT];
+    private final Histogram[] events = new Histogram[METRIC_COUNT];
+    private final AtomicReferenceArray<ConcurrentMap<String, Histogram>> labels = new AtomicReferenceArray<>( METRIC_COUNT );
+    private final ConcurrentMap<ServerComputer, ComputerCounters> computers = new MapMaker().weakKeys().concurrencyLevel( 1 ).makeMap();
+
+    private @Nullable Channel channel;
+
+    private PrometheusExporter( ComputerThread computerThread, MainThread mainThread, BootQueue bootQueue, ServerComputerRegistry registry, int maxComputers )
+    {
+        this.computerThread = computerThread;
+        this.mainThread = mainThread;
+        this.bootQueue = bootQueue;
+        this.registry = registry;
+        this.maxComputers = maxComputers;
+
+        for( Metric metric : Metric.metrics().values() )
+        {
+            if( metric instanceof Metric.Event )
+            {
+                events[metric.id()] = new Histogram();
+            }
+            else
+            {
+                counters[metric.id()] = new LongAdder();
+            }
+        }
+    }
+
+    public static void start( MinecraftServer server )
+    {
+        if( !ComputerCraft.prometheusEnabled || instance != null ) return;
+
+        ServerContext context = ServerContext.get( server );
+        PrometheusExporter exporter = new PrometheusExporter( context.computerThread(), context.mainThread(), context.bootQueue(), context.registry(), ComputerCraft.prometheusMaxComputers );
+
+        try
+        {
+            exporter.channel = new ServerBootstrap()
+                .group( NetworkUtils.LOOP_GROUP )
+                .channel( NioServerSocketChannel.class )
+                .childHandler( new ChannelInitializer<SocketChannel>()
+                {
+                    @Override
+                    protected void initChannel( SocketChannel ch )
+                    {
+                        ch.pipeline().addLast(
+                            new HttpServerCodec(),
+                            new HttpObjectAggregator( 8192 ),
+                            new PrometheusHandler( exporter )
+                        );
+                    }
+                } )
+                .bind( new InetSocketAddress( ComputerCraft.prometheusAddress, ComputerCraft.prometheusPort ) )
+                .syncUninterruptibly()
+                .channel();
+        }
+        catch( Exception e )
+        {
+            ComputerCraft.log.error( "Failed to start metrics exporter on {}:{}", ComputerCraft.prometheusAddress, ComputerCraft.prometheusPort, e );
+            return;
+        }
+
+        instance = exporter;
+        context.metrics().addObserver( exporter );
+        ComputerCraft.log.info( "Exporting metrics on {}", exporter.channel.localAddress() );
+    }
+
+    public static void stop()
+    {
+        PrometheusExporter exporter = instance;
+        if( exporter == null ) return;
+        instance = null;
+
+        // The ServerContext (and so our observer) is torn down separately, we just need to stop listening.
+        if( exporter.channel != null ) exporter.channel.close().syncUninterruptibly();
+    }
+
+    @Override
+    public void observe( ServerComputer computer, Metric.Counter counter )
+    {
+        // Metrics registered after we were loaded are ignored, rather than failing on the computer's thread.
+        if( counter.id() >= METRIC_COUNT ) return;
+
+        counters[counter.id()].increment();
+
+        ComputerCounters perComputer = getComputer( computer );
+        if( perComputer != null ) perComputer.count[counter.id()].increment();
+    }
+
+    @Override
+    public void observe( ServerComputer computer, Metric.Event event, long value )
+    {
+        if( event.id() >= METRIC_COUNT ) return;
+
+        events[event.id()].record( value );
+
+        ComputerCounters perComputer = getComputer( computer );
+        if( perComputer != null )
+        {
+            perComputer.count[event.id()].increment();
+            perComputer.total[event.id()].add( value );
+        }
+    }
+
+    @Override
+    public void observe( ServerComputer computer, Metric.Event event, String label, long value )
+    {
+        if( event.id() >= METRIC_COUNT ) return;
+
+        observe( computer, event, value );
+
+        ConcurrentMap<String, Histogram> labels = this.labels.get( event.id() );
+        if( labels == null )
+        {
+            this.labels.compareAndSet( event.id(), null, new ConcurrentHashMap<>() );
+            labels = this.labels.get( event.id() );
+        }
+        labels.computeIfAbsent( label, x -> new Histogram() ).record( value );
+    }
+
+    @Nullable
+    private ComputerCounters getComputer( ServerComputer computer )
+    {
+        ComputerCounters counters = computers.get( computer );
+        if( counters != null || computers.size() >= maxComputers ) return counters;
+
+        // We may slightly overshoot the limit if several computers are added at once. This is fine.
+        return computers.computeIfAbsent( computer, c -> new ComputerCounters() );
+    }
+
+    /**
+     * Write all metrics in Prometheus's text format.
+     *
+     * @param output The builder to write to.
+     */
+    void write( StringBuilder output )
+    {
+        PrometheusWriter out = new PrometheusWriter( output );
+        List<Metric> metrics = new ArrayList<>( Metric.metrics().values() );
+        metrics.removeIf( x -> x.id() >= METRIC_COUNT );
+
+        // Server-wide metrics
+        for( Metric metric : metrics )
+        {
+            int id = metric.id();
+            if( metric instanceof Metric.Counter )
+            {
+                String name = PrometheusWriter.name( "", metric );
+                out.header( name, "counter", "Total " + metric.name() + " across all computers." );
+                out.sample( name + "_total", null, null, counters[id].sum() );
+            }
+            else
+            {
+                String name = PrometheusWriter.name( "", metric );
+                out.header( name, "summary", "Distribution of " + metric.name() + " across all computers." );
+                out.summary( name, metric, null, null, events[id] );
+
+                Map<String, Histogram> labels = this.labels.get( id );
+                if( labels != null )
+                {
+                    String labelName = PrometheusWriter.name( "labelled_", metric );
+                    out.header( labelName, "summary", "Distribution of " + metric.name() + ", grouped by label." );
+                    for( Map.Entry<String, Histogram> label : labels.entrySet() )
+                    {
+                        out.summary( labelName, metric, "label", label.getKey(), label.getValue() );
+                    }
+                }
+            }
+        }
+
+        // Per-computer metrics. We only include computers which are still loaded (rather than any which the weak map
+        // has not dropped yet), and sum computers sharing an ID, so each series appears at most once.
+        Int2ObjectSortedMap<ComputerTotals> byId = new Int2ObjectRBTreeMap<>();
+        for( ServerComputer computer : registry.getLoadedComputers() )
+        {
+            ComputerCounters counters = computers.get( computer );
+            if( counters == null ) continue;
+
+            ComputerTotals totals = byId.get( computer.getID() );
+            if( totals == null ) byId.put( computer.getID(), totals = new ComputerTotals( computer.getID() ) );
+            totals.add( counters );
+        }
+
+        for( Metric metric : metrics )
+        {
+            int id = metric.id();
+            if( metric instanceof Metric.Counter )
+            {
+                String name = PrometheusWriter.name( "computer_", metric );
+                out.header( name, "counter", "Total " + metric.name() + " for each computer." );
+                for( ComputerTotals computer : byId.values() )
+                {
+                    out.sample( name + "_total", "computer", computer.label, computer.count[id] );
+                }
+            }
+            else
+            {
+                String name = PrometheusWriter.name( "computer_", metric );
+                out.header( name, "summary", "Distribution of " + metric.name() + " for each computer." );
+                for( ComputerTotals computer : byId.values() )
+                {
+                    out.sample( name + "_sum", "computer", computer.label, PrometheusWriter.scale( metric, computer.total[id] ) );
+                    out.sample( name + "_count", "computer", computer.label, computer.count[id] );
+                }
+            }
+        }
+
+        // Scheduler state. These are read without synchronisation, and so may be slightly inconsistent.
+        gauge( out, "computer_thread_queued", "Number of computers waiting to run.", computerThread.getQueueSize() );
+        gauge( out, "computer_thread_idle_workers", "Number of computer threads waiting for work.", computerThread.getIdleWorkers() );
+        gauge( out, "computer_thread_workers", "Maximum number of computer threads.", computerThread.getWorkerLimit() );
+        gauge( out, "main_thread_queued", "Number of computers waiting to run main-thread tasks.", mainThread.getQueueSize() );
+        gauge( out, "main_thread_cooling", "Number of computers which exceeded their main-thread budget and are cooling down.", mainThread.getCoolingSize() );
+        gauge( out, "main_thread_budget_seconds", "Remaining main-thread budget for the current tick.", mainThread.getBudget() / 1e9 );
+        gauge( out, "computer_boot_queued", "Number of computers waiting to start.", bootQueue.getPending() );
+        gauge( out, "computer_boot_running", "Number of computers which are currently starting.", bootQueue.getRunning() );
+        gauge( out, "computers_parked", "Number of idle computers which were parked during the last tick.", registry.getParkedCount() );
+        gauge( out, "exporter_tracked_computers", "Number of computers with per-computer metrics.", computers.size() );
+
+        String booted = PrometheusWriter.PREFIX + "computer_boot_completed";
+        out.header( booted, "counter", "Total number of computers which have finished starting." );
+        out.sample( booted + "_total", null, null, bootQueue.getBooted() );
+
+        String classTime = PrometheusWriter.PREFIX + "main_thread_class_time_seconds";
+        out.header( classTime, "counter", "Total main-thread time used by computers of each priority." );
+        for( MainThreadPriority priority : MainThreadPriority.values() )
+        {
+            out.sample( classTime + "_total", "priority", priority.getName(), mainThread.getTime( priority ) / 1e9 );
+        }
+
+        String classTasks = PrometheusWriter.PREFIX + "main_thread_class_tasks";
+        out.header( classTasks, "counter", "Total main-thread tasks run by computers of each priority." );
+        for( MainThreadPriority priority : MainThreadPriority.values() )
+        {
+            out.sample( classTasks + "_total", "priority", priority.getName(), mainThread.getTasks( priority ) );
+        }
+    }
+
+    private static void gauge( PrometheusWriter out, String name, String help, double value )
+    {
+        name = PrometheusWriter.PREFIX + name;
+        out.header( name, "gauge", help );
+        out.sample( name, null, null, value );
+    }
+
+    private static final class ComputerCounters
+    {
+        final LongAdder[] count = new LongAdder[METRIC_COUNT];
+        final LongAdder[] total = new LongAdder[METRIC_COUNT];
+
+        ComputerCounters()
+        {
+            for( int i = 0; i < METRIC_COUNT; i++ )
+            {
+                count[i] = new LongAdder();
+                total[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * The metrics for every loaded computer with a given ID, summed together when scraped.
+     */
+    private static final class ComputerTotals
+    {
+        final String label;
+        final long[] count = new long[METRIC_COUNT];
+        final long[] total = new long[METRIC_COUNT];
+
+        ComputerTotals( int id )
+        {
+            label = Integer.toString( id );
+        }
+
+        void add( ComputerCounters counters )
+        {
+            for( int i = 0; i < METRIC_COUNT; i++ )
+            {
+                count[i] += counters.count[i].sum();
+                total[i] += counters.total[i].sum();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.computer.metrics.prometheus;
+
+import dan200.computercraft.ComputerCraft;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the {@link PrometheusExporter}'s metrics on {@code GET /metrics}. Every response closes the connection, as
+ * scrapes are infrequent.
+ */
+final class PrometheusHandler extends SimpleChannelInboundHandler<FullHttpRequest>
+{
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusExporter exporter;
+
+    PrometheusHandler( PrometheusExporter exporter )
+    {
+        this.exporter = exporter;
+    }
+
+    @Override
+    protected void channelRead0( ChannelHandlerContext ctx, FullHttpRequest request )
+    {
+        String path = new QueryStringDecoder( request.uri() ).path();
+
+        FullHttpResponse response;
+        if( !path.equals( "/metrics" ) )
+        {
+            response = response( HttpResponseStatus.NOT_FOUND, "Not found" );
+        }
+        else if( request.method() != HttpMethod.GET && request.method() != HttpMethod.HEAD )
+        {
+            response = response( HttpResponseStatus.METHOD_NOT_ALLOWED, "Method not allowed" );
+            response.headers().set( HttpHeaderNames.ALLOW, "GET, HEAD" );
+        }
+        else
+        {
+            StringBuilder body = new StringBuilder();
+            exporter.write( body );
+            response = response( HttpResponseStatus.OK, body );
+            response.headers().set( HttpHeaderNames.CONTENT_TYPE, CONTENT_TYPE );
+            if( request.method() == HttpMethod.HEAD ) response.content().clear();
+        }
+
+        ctx.writeAndFlush( response ).addListener( ChannelFutureListener.CLOSE );
+    }
+
+    @Override
+    public void exceptionCaught( ChannelHandlerContext ctx, Throwable cause )
+    {
+        ComputerCraft.log.error( "Error handling metrics request", cause );
+        ctx.close();
+    }
+
+    private static FullHttpResponse response( HttpResponseStatus status, CharSequence body )
+    {
+        ByteBuf content = Unpooled.copiedBuffer( body, StandardCharsets.UTF_8 );
+        FullHttpResponse response = new DefaultFullHttpResponse( HttpVersion.HTTP_1_1, status, content );
+        response.headers().set( HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=utf-8" );
+        response.headers().set( HttpHeaderNames.CONTENT_LENGTH, content.readableBytes() );
+        response.headers().set( HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE );
+        return response;
+    }
+}
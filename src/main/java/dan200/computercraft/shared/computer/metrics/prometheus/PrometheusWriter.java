@@ -0,0 +1,174 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.computer.metrics.prometheus;
+
+import dan200.computercraft.core.metrics.Histogram;
+import dan200.computercraft.core.metrics.Metric;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes metrics in Prometheus's
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">text exposition format</a>.
+ * <p>
+ * Times are recorded in nanoseconds, but are exported in seconds, as Prometheus expects base units.
+ */
+final class PrometheusWriter
+{
+    static final String PREFIX = "computercraft_";
+    static final double[] QUANTILES = new double[] { 0.5, 0.99, 0.999 };
+
+    private final StringBuilder out;
+
+    PrometheusWriter( StringBuilder out )
+    {
+        this.out = out;
+    }
+
+    /**
+     * Get the name of the metric family for a given metric, including its unit suffix.
+     *
+     * @param infix  An additional string to add after the common prefix, such as {@code "computer_"}.
+     * @param metric The metric to get the name of.
+     * @return The family name.
+     */
+    static String name( String infix, Metric metric )
+    {
+        String name = PREFIX + infix + metric.name();
+        switch( metric.unit() )
+        {
+            case "ms":
+                return name + "_seconds";
+            case "bytes":
+                return name + "_bytes";
+            default:
+                return name;
+        }
+    }
+
+    /**
+     * Convert a value to the metric's base unit.
+     *
+     * @param metric The metric this value belongs to.
+     * @param value  The raw value.
+     * @return The value to export.
+     */
+    static double scale( Metric metric, long value )
+    {
+        return metric.unit().equals( "ms" ) ? value / 1e9 : value;
+    }
+
+    void header( String name, String type, String help )
+    {
+        out.append( "# HELP " ).append( name ).append( ' ' );
+        for( int i = 0; i < help.length(); i++ )
+        {
+            char c = help.charAt( i );
+            switch( c )
+            {
+                case '\\':
+                    out.append( "\\\\" );
+                    break;
+                case '\n':
+                    out.append( "\\n" );
+                    break;
+                default:
+                    out.append( c );
+                    break;
+            }
+        }
+        out.append( '\n' );
+        out.append( "# TYPE " ).append( name ).append( ' ' ).append( type ).append( '\n' );
+    }
+
+    void sample( String name, @Nullable String labelName, @Nullable String labelValue, double value )
+    {
+        sample( name, labelName, labelValue, null, null, value );
+    }
+
+    void sample( String name, @Nullable String labelName, @Nullable String labelValue, @Nullable String extraName, @Nullable String extraValue, double value )
+    {
+        out.append( name );
+        if( labelName != null || extraName != null )
+        {
+            out.append( '{' );
+            if( labelName != null ) label( labelName, labelValue );
+            if( labelName != null && extraName != null ) out.append( ',' );
+            if( extraName != null ) label( extraName, extraValue );
+            out.append( '}' );
+        }
+        out.append( ' ' );
+        number( value );
+        out.append( '\n' );
+    }
+
+    /**
+     * Write the samples for a summary, with the quantiles listed in {@link #QUANTILES}.
+     *
+     * @param name       The name of the metric family.
+     * @param metric     The metric this summary belongs to, used to scale values.
+     * @param labelName  The name of an additional label to attach to every sample, or {@code null}.
+     * @param labelValue The value of the additional label.
+     * @param histogram  The values to summarise.
+     */
+    void summary( String name, Metric metric, @Nullable String labelName, @Nullable String labelValue, Histogram histogram )
+    {
+        for( double quantile : QUANTILES )
+        {
+            sample( name, labelName, labelValue, "quantile", Double.toString( quantile ), scale( metric, histogram.percentile( quantile ) ) );
+        }
+        sample( name + "_sum", labelName, labelValue, scale( metric, histogram.total() ) );
+        sample( name + "_count", labelName, labelValue, histogram.count() );
+    }
+
+    private void label( String name, @Nullable String value )
+    {
+        out.append( name ).append( "=\"" );
+        if( value != null )
+        {
+            for( int i = 0; i < value.length(); i++ )
+            {
+                char c = value.charAt( i );
+                switch( c )
+                {
+                    case '\\':
+                        out.append( "\\\\" );
+                        break;
+                    case '"':
+                        out.append( "\\\"" );
+                        break;
+                    case '\n':
+                        out.append( "\\n" );
+                        break;
+                    default:
+                        out.append( c );
+                        break;
+                }
+            }
+        }
+        out.append( '"' );
+    }
+
+    private void number( double value )
+    {
+        if( value == (long) value )
+        {
+            out.append( (long) value );
+        }
+        else if( Double.isNaN( value ) )
+        {
+            out.append( "NaN" );
+        }
+        else if( Double.isInfinite( value ) )
+        {
+            out.append( value > 0 ? "+Inf" : "-Inf" );
+        }
+        else
+        {
+            out.append( value );
+        }
+    }
+}
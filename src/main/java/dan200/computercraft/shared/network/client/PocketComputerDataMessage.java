@@ -25,11 +25,16 @@ public class PocketComputerDataMessage implements NetworkMessage
     private final TerminalState terminal;
 
     public PocketComputerDataMessage( PocketServerComputer computer, boolean sendTerminal )
+    {
+        this( computer, sendTerminal ? computer.getTerminalState() : new TerminalState( (Terminal) null ) );
+    }
+
+    public PocketComputerDataMessage( PocketServerComputer computer, TerminalState terminal )
     {
         instanceId = computer.getInstanceID();
         state = computer.getState();
         lightState = computer.getLight();
-        terminal = sendTerminal ? computer.getTerminalState() : new TerminalState( (Terminal) null );
+        this.terminal = terminal;
     }
 
     public PocketComputerDataMessage( PacketBuffer buf )
@@ -27,6 +27,8 @@
  * This is somewhat memory inefficient (we build a buffer, only to write it elsewhere), however it means we get a
  * complete and accurate description of a terminal, which avoids a lot of complexities with resizing terminals, dirty
  * states, etc...
+ * <p>
+ * A single state may be shared between several messages (and so written or applied several times).
  */
 public class TerminalState
 {
@@ -119,18 +121,18 @@ public void apply( Terminal terminal )
     {
         if( buffer == null ) throw new NullPointerException( "buffer" );
         terminal.resize( width, height );
-        terminal.read( new PacketBuffer( buffer ) );
+        terminal.read( new PacketBuffer( buffer.duplicate() ) );
     }
 
     public Terminal create()
     {
         if( buffer == null ) throw new NullPointerException( "Terminal does not exist" );
         Terminal terminal = new Terminal( width, height, colour );
-        terminal.read( new PacketBuffer( buffer ) );
+        terminal.read( new PacketBuffer( buffer.duplicate() ) );
         return terminal;
     }
 
-    private ByteBuf getCompressed()
+    private synchronized ByteBuf getCompressed()
     {
         if( buffer == null ) throw new NullPointerException( "buffer" );
         if( !compress ) return buffer;
@@ -12,44 +12,110 @@
 import dan200.computercraft.api.peripheral.IComputerAccess;
 import dan200.computercraft.api.peripheral.IDynamicPeripheral;
 import dan200.computercraft.api.peripheral.IPeripheral;
+import dan200.computercraft.shared.peripheral.generic.methods.SnapshotMethods;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.List;
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class GenericPeripheral implements IDynamicPeripheral
 {
     private final String type;
-    private final Set<String> additionalTypes;
     private final TileEntity tile;
-    private final List<SaturatedMethod> methods;
+    private final GenericPeripheralLayout layout;
+    private final Object[] targets;
 
-    GenericPeripheral( TileEntity tile, String name, Set<String> additionalTypes, List<SaturatedMethod> methods )
+    private final AtomicInteger attached = new AtomicInteger();
+    private volatile @Nullable Snapshot snapshot;
+    private volatile long lastRead = -PeripheralSnapshots.IDLE_TICKS - 1;
+
+    GenericPeripheral( TileEntity tile, GenericPeripheralLayout layout, Object[] targets )
     {
         ResourceLocation type = tile.getType().getRegistryName();
         this.tile = tile;
-        this.type = name != null ? name : (type != null ? type.toString() : "unknown");
-        this.additionalTypes = additionalTypes;
-        this.methods = methods;
+        this.type = layout.type != null ? layout.type : (type != null ? type.toString() : "unknown");
+        this.layout = layout;
+        this.targets = targets;
     }
 
     @Nonnull
     @Override
     public String[] getMethodNames()
     {
-        String[] names = new String[methods.size()];
-        for( int i = 0; i < methods.size(); i++ ) names[i] = methods.get( i ).getName();
-        return names;
+        // This array is shared with other peripherals, which allows PeripheralAPI to reuse the same method map.
+        return layout.names;
     }
 
     @Nonnull
     @Override
     public MethodResult callMethod( @Nonnull IComputerAccess computer, @Nonnull ILuaContext context, int method, @Nonnull IArguments arguments ) throws LuaException
     {
-        return methods.get( method ).apply( context, computer, arguments );
+        MethodHandle[] snapshotted = layout.snapshotted;
+        if( snapshotted != null && snapshotted[method] != null && arguments.count() == 0 )
+        {
+            long tick = PeripheralSnapshots.currentTick();
+            lastRead = tick;
+
+            Snapshot snapshot = this.snapshot;
+            if( snapshot != null && snapshot.tick == tick ) return MethodResult.of( snapshot.values[method] );
+        }
+
+        return layout.methods[method].apply( targets[layout.targets[method]], context, computer, arguments );
+    }
+
+    @Override
+    public void attach( @Nonnull IComputerAccess computer )
+    {
+        if( layout.snapshotted != null && attached.getAndIncrement() == 0 ) PeripheralSnapshots.add( this );
+    }
+
+    @Override
+    public void detach( @Nonnull IComputerAccess computer )
+    {
+        if( layout.snapshotted != null && attached.decrementAndGet() == 0 )
+        {
+            PeripheralSnapshots.remove( this );
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Compute a new snapshot of this peripheral. This is called on the server thread.
+     *
+     * @param tick The current tick.
+     * @see PeripheralSnapshots#publish()
+     */
+    void publishSnapshot( long tick )
+    {
+        MethodHandle[] snapshotted = layout.snapshotted;
+        if( snapshotted == null || tile.isRemoved() || tick - lastRead > PeripheralSnapshots.IDLE_TICKS )
+        {
+            snapshot = null;
+            return;
+        }
+
+        Object[] values = new Object[snapshotted.length];
+        try
+        {
+            for( int i = 0; i < values.length; i++ )
+            {
+                if( snapshotted[i] == null ) continue;
+                values[i] = SnapshotMethods.get( snapshotted[i], targets[layout.targets[i]] );
+            }
+        }
+        catch( RuntimeException e )
+        {
+            // Fall back to the main thread, which will report the error to the computer.
+            snapshot = null;
+            return;
+        }
+
+        snapshot = new Snapshot( tick, values );
     }
 
     @Nonnull
@@ -63,7 +129,7 @@ public String getType()
     @Override
     public Set<String> getAdditionalTypes()
     {
-        return additionalTypes;
+        return layout.additionalTypes;
     }
 
     @Nullable
@@ -80,6 +146,18 @@ public boolean equals( @Nullable IPeripheral other )
         if( !(other instanceof GenericPeripheral) ) return false;
 
         GenericPeripheral generic = (GenericPeripheral) other;
-        return tile == generic.tile && methods.equals( generic.methods );
+        return tile == generic.tile && layout == generic.layout && Arrays.equals( targets, generic.targets );
+    }
+
+    private static final class Snapshot
+    {
+        final long tick;
+        final Object[] values;
+
+        Snapshot( long tick, Object[] values )
+        {
+            this.tick = tick;
+            this.values = values;
+        }
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.peripheral.generic;
+
+import dan200.computercraft.api.peripheral.PeripheralType;
+import dan200.computercraft.core.asm.NamedMethod;
+import dan200.computercraft.core.asm.PeripheralMethod;
+import dan200.computercraft.shared.peripheral.generic.methods.SnapshotMethods;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The methods and types of a {@link GenericPeripheral}.
+ * <p>
+ * A generic peripheral is made up of a tile entity and any of its capabilities which provide methods. The peripheral's
+ * methods and type only depend on the classes of these objects, and so are computed once for each combination of
+ * classes and shared between every peripheral with that combination.
+ */
+final class GenericPeripheralLayout
+{
+    private static final Map<List<Class<?>>, GenericPeripheralLayout> layouts = new ConcurrentHashMap<>();
+
+    @Nullable
+    final String type;
+    final Set<String> additionalTypes;
+
+    /**
+     * The names of each method. This is shared between peripherals, and so must not be modified.
+     */
+    final String[] names;
+    final PeripheralMethod[] methods;
+
+    /**
+     * The index of the target object each method should be invoked on.
+     */
+    final int[] targets;
+
+    /**
+     * The handles used to compute each method's snapshot, or {@code null} if none of our methods can be snapshotted.
+     * Individual entries are {@code null} when that method must run on the server thread.
+     *
+     * @see PeripheralSnapshots
+     * @see SnapshotMethods
+     */
+    @Nullable
+    final MethodHandle[] snapshotted;
+
+    private GenericPeripheralLayout( List<Class<?>> classes )
+    {
+        String type = null;
+        Set<String> additionalTypes = new HashSet<>( 0 );
+        List<String> names = new ArrayList<>();
+        List<PeripheralMethod> methods = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        List<MethodHandle> snapshots = new ArrayList<>();
+        boolean anySnapshotted = false;
+
+        for( int i = 0; i < classes.size(); i++ )
+        {
+            for( NamedMethod<PeripheralMethod> method : PeripheralMethod.GENERATOR.getMethods( classes.get( i ) ) )
+            {
+                names.add( method.getName() );
+                methods.add( method.getMethod() );
+                targets.add( i );
+
+                MethodHandle snapshot = SnapshotMethods.getHandle( method.getSource() );
+                snapshots.add( snapshot );
+                if( snapshot != null ) anySnapshotted = true;
+
+                // If we have a peripheral type, use it. Always pick the smallest one, so it's consistent (assuming mods
+                // don't change).
+                PeripheralType genericType = method.getGenericType();
+                if( genericType != null && genericType.getPrimaryType() != null )
+                {
+                    String name = genericType.getPrimaryType();
+                    if( type == null || type.compareTo( name ) > 0 ) type = name;
+                }
+                if( genericType != null ) additionalTypes.addAll( genericType.getAdditionalTypes() );
+            }
+        }
+
+        this.type = type;
+        this.additionalTypes = Collections.unmodifiableSet( additionalTypes );
+        this.names = names.toArray( new String[0] );
+        this.methods = methods.toArray( new PeripheralMethod[0] );
+        this.targets = new int[targets.size()];
+        for( int i = 0; i < this.targets.length; i++ ) this.targets[i] = targets.get( i );
+        this.snapshotted = anySnapshotted ? snapshots.toArray( new MethodHandle[0] ) : null;
+    }
+
+    /**
+     * Get the layout for a peripheral made up of objects of the given classes.
+     *
+     * @param classes The classes of each target object, in the order they will be passed to {@link GenericPeripheral}.
+     * @return The peripheral layout.
+     */
+    static GenericPeripheralLayout get( List<Class<?>> classes )
+    {
+        GenericPeripheralLayout layout = layouts.get( classes );
+        return layout != null ? layout : layouts.computeIfAbsent( classes, GenericPeripheralLayout::new );
+    }
+}
@@ -6,8 +6,6 @@
 package dan200.computercraft.shared.peripheral.generic;
 
 import dan200.computercraft.api.peripheral.IPeripheral;
-import dan200.computercraft.api.peripheral.PeripheralType;
-import dan200.computercraft.core.asm.NamedMethod;
 import dan200.computercraft.core.asm.PeripheralMethod;
 import dan200.computercraft.shared.util.CapabilityUtil;
 import net.minecraft.tileentity.TileEntity;
@@ -38,58 +36,30 @@ public static IPeripheral getPeripheral( @Nonnull World world, @Nonnull BlockPos
         TileEntity tile = world.getBlockEntity( pos );
         if( tile == null ) return null;
 
-        GenericPeripheralBuilder saturated = new GenericPeripheralBuilder();
-
-        List<NamedMethod<PeripheralMethod>> tileMethods = PeripheralMethod.GENERATOR.getMethods( tile.getClass() );
-        if( !tileMethods.isEmpty() ) saturated.addMethods( tile, tileMethods );
+        List<Object> targets = new ArrayList<>( 0 );
+        if( hasMethods( tile ) ) targets.add( tile );
 
         for( Capability<?> capability : capabilities )
         {
             LazyOptional<?> wrapper = CapabilityUtil.getCapability( tile, capability, side );
             wrapper.ifPresent( contents -> {
-                List<NamedMethod<PeripheralMethod>> capabilityMethods = PeripheralMethod.GENERATOR.getMethods( contents.getClass() );
-                if( capabilityMethods.isEmpty() ) return;
+                if( !hasMethods( contents ) ) return;
 
-                saturated.addMethods( contents, capabilityMethods );
+                targets.add( contents );
                 CapabilityUtil.addListener( wrapper, invalidate );
             } );
         }
 
-        return saturated.toPeripheral( tile );
-    }
-
-    private static class GenericPeripheralBuilder
-    {
-        private String name;
-        private final Set<String> additionalTypes = new HashSet<>( 0 );
-        private final ArrayList<SaturatedMethod> methods = new ArrayList<>( 0 );
+        if( targets.isEmpty() ) return null;
 
-        IPeripheral toPeripheral( TileEntity tile )
-        {
-            if( methods.isEmpty() ) return null;
+        Class<?>[] classes = new Class<?>[targets.size()];
+        for( int i = 0; i < classes.length; i++ ) classes[i] = targets.get( i ).getClass();
 
-            methods.trimToSize();
-            return new GenericPeripheral( tile, name, additionalTypes, methods );
-        }
-
-        void addMethods( Object target, List<NamedMethod<PeripheralMethod>> methods )
-        {
-            ArrayList<SaturatedMethod> saturatedMethods = this.methods;
-            saturatedMethods.ensureCapacity( saturatedMethods.size() + methods.size() );
-            for( NamedMethod<PeripheralMethod> method : methods )
-            {
-                saturatedMethods.add( new SaturatedMethod( target, method ) );
+        return new GenericPeripheral( tile, GenericPeripheralLayout.get( Arrays.asList( classes ) ), targets.toArray() );
+    }
 
-                // If we have a peripheral type, use it. Always pick the smallest one, so it's consistent (assuming mods
-                // don't change).
-                PeripheralType type = method.getGenericType();
-                if( type != null && type.getPrimaryType() != null )
-                {
-                    String name = type.getPrimaryType();
-                    if( this.name == null || this.name.compareTo( name ) > 0 ) this.name = name;
-                }
-                if( type != null ) additionalTypes.addAll( type.getAdditionalTypes() );
-            }
-        }
+    private static boolean hasMethods( Object target )
+    {
+        return !PeripheralMethod.GENERATOR.getMethods( target.getClass() ).isEmpty();
     }
 }
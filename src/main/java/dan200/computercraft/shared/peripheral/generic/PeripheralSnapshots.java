@@ -0,0 +1,82 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.peripheral.generic;
+
+import dan200.computercraft.shared.peripheral.generic.methods.SnapshotMethods;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes snapshots of read-only peripheral state, allowing methods such as {@code list()} to be answered on the
+ * computer thread rather than waiting for the next server tick.
+ * <p>
+ * Every generic peripheral with {@linkplain SnapshotMethods snapshottable methods} is registered here while attached
+ * to a computer. Each tick we:
+ * <ol>
+ * <li>{@linkplain #onTickStart() Invalidate} all existing snapshots.</li>
+ * <li>Run any pending main-thread tasks, which may modify peripherals.</li>
+ * <li>{@linkplain #publish() Publish} new snapshots.</li>
+ * </ol>
+ * <p>
+ * Peripherals only read from snapshots taken in the current tick, falling back to a main-thread task otherwise. As
+ * main-thread tasks are run before snapshots are published, a computer will always observe the effects of its own
+ * main-thread tasks (such as {@code pushItems}).
+ * <p>
+ * To avoid computing snapshots no one uses, peripherals which have not been read from in the last second are skipped.
+ * The next read will go via the main thread, and re-enable snapshots for that peripheral.
+ */
+public final class PeripheralSnapshots
+{
+    static final int IDLE_TICKS = 20;
+
+    private static final Set<GenericPeripheral> peripherals = ConcurrentHashMap.newKeySet();
+    private static volatile long tick = 0;
+
+    private PeripheralSnapshots()
+    {
+    }
+
+    static void add( GenericPeripheral peripheral )
+    {
+        peripherals.add( peripheral );
+    }
+
+    static void remove( GenericPeripheral peripheral )
+    {
+        peripherals.remove( peripheral );
+    }
+
+    static long currentTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Start a new tick, invalidating all existing snapshots. This should be called at the start of the server tick,
+     * before any main-thread tasks are run.
+     */
+    public static void onTickStart()
+    {
+        // Only written to from the server thread, so this is safe.
+        tick++;
+    }
+
+    /**
+     * Compute and publish new snapshots for all attached peripherals. This should be called after main-thread tasks
+     * have been run.
+     */
+    public static void publish()
+    {
+        long tick = PeripheralSnapshots.tick;
+        for( GenericPeripheral peripheral : peripherals ) peripheral.publishSnapshot( tick );
+    }
+
+    public static void reset()
+    {
+        peripherals.clear();
+    }
+}
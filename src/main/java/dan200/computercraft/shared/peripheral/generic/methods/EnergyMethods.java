@@ -50,6 +50,7 @@ public ResourceLocation id()
      * @return The energy stored in this block, in FE.
      */
     @LuaFunction( mainThread = true )
+    @SnapshotMethods.Snapshot
     public static int getEnergy( IEnergyStorage energy )
     {
         return energy.getEnergyStored();
@@ -62,6 +63,7 @@ public static int getEnergy( IEnergyStorage energy )
      * @return The energy capacity of this block.
      */
     @LuaFunction( mainThread = true )
+    @SnapshotMethods.Snapshot
     public static int getEnergyCapacity( IEnergyStorage energy )
     {
         return energy.getMaxEnergyStored();
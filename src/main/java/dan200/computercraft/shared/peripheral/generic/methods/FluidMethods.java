@@ -67,6 +67,7 @@ public ResourceLocation id()
      * @cc.treturn { (table|nil)... } All tanks in this fluid storage.
      */
     @LuaFunction( mainThread = true )
+    @SnapshotMethods.Snapshot
     public static Map<Integer, Map<String, ?>> tanks( IFluidHandler fluids )
     {
         Map<Integer, Map<String, ?>> result = new HashMap<>();
@@ -9,9 +9,11 @@
 import dan200.computercraft.api.detail.DetailRegistries;
 import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.api.lua.LuaValues;
 import dan200.computercraft.api.peripheral.GenericPeripheral;
 import dan200.computercraft.api.peripheral.IComputerAccess;
 import dan200.computercraft.api.peripheral.IPeripheral;
+import dan200.computercraft.api.peripheral.IWorkMonitor;
 import dan200.computercraft.api.peripheral.PeripheralType;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
@@ -26,10 +28,9 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
+import static dan200.computercraft.core.apis.TableHelper.*;
 import static dan200.computercraft.shared.peripheral.generic.methods.ArgumentHelpers.assertBetween;
 
 /**
@@ -40,6 +41,11 @@
  */
 public class InventoryMethods implements GenericPeripheral
 {
+    /**
+     * The maximum number of moves {@link #transferItems} accepts in a single call.
+     */
+    private static final int MAX_MOVES = 128;
+
     @Nonnull
     @Override
     public PeripheralType getType()
@@ -61,6 +67,7 @@ public ResourceLocation id()
      * @return The number of slots in this inventory.
      */
     @LuaFunction( mainThread = true )
+    @SnapshotMethods.Snapshot
     public static int size( IItemHandler inventory )
     {
         return inventory.getSlots();
@@ -90,17 +97,51 @@ public static int size( IItemHandler inventory )
      * }</pre>
      */
     @LuaFunction( mainThread = true )
+    @SnapshotMethods.Snapshot
     public static Map<Integer, Map<String, ?>> list( IItemHandler inventory )
     {
-        Map<Integer, Map<String, ?>> result = new HashMap<>();
-        int size = inventory.getSlots();
-        for( int i = 0; i < size; i++ )
-        {
-            ItemStack stack = inventory.getStackInSlot( i );
-            if( !stack.isEmpty() ) result.put( i + 1, DetailRegistries.ITEM_STACK.getBasicDetails( stack ) );
-        }
+        return InventorySnapshot.get( inventory ).list();
+    }
 
-        return result;
+    /**
+     * List all slots which have changed since a previous call to this function.
+     * <p>
+     * This returns a table of changed slots, in the same format as {@link #list}, along with a version number. Slots
+     * which have been emptied are set to `false`. Passing the returned version to the next call will return only the
+     * slots which have changed since then.
+     * <p>
+     * If no version is given (or the version is no longer recognised, for instance if the inventory changed size), every
+     * slot is returned. This means it is always safe to replace your copy of a slot with the returned one.
+     * <p>
+     * This is much cheaper than calling {@link #list} repeatedly, and so should be preferred when polling inventories.
+     *
+     * @param inventory The current inventory.
+     * @param since     The version returned by a previous call to this function.
+     * @return The changed slots and the current version.
+     * @cc.treturn { [number] = table|false } The slots which have changed.
+     * @cc.treturn number The current version of this inventory.
+     * @cc.usage Keep track of the items in a chest, printing whenever they change.
+     *
+     * <pre>{@code
+     * local chest = peripheral.find("minecraft:chest")
+     * local items, version = {}, nil
+     * while true do
+     *   local changes
+     *   changes, version = chest.listChanges(version)
+     *   for slot, item in pairs(changes) do
+     *     items[slot] = item or nil
+     *     print(("Slot %d is now %s"):format(slot, item and item.name or "empty"))
+     *   end
+     *   sleep(1)
+     * end
+     * }</pre>
+     * @cc.since 1.102.0
+     */
+    @LuaFunction( mainThread = true )
+    public static Object[] listChanges( IItemHandler inventory, Optional<Long> since )
+    {
+        InventorySnapshot snapshot = InventorySnapshot.get( inventory );
+        return new Object[] { snapshot.changesSince( since.orElse( 0L ) ), snapshot.version() };
     }
 
     /**
@@ -272,6 +313,130 @@ public static int pullItems(
         return moveItem( from, fromSlot - 1, to, toSlot.orElse( 0 ) - 1, actualLimit );
     }
 
+    /**
+     * Move items between several inventories at once.
+     * <p>
+     * This accepts a list of moves, each of which behaves like a call to {@link #pushItems}. All moves are performed
+     * in a single server tick, which is much faster than moving items one slot at a time.
+     * <p>
+     * Each move is a table with the following fields:
+     * <ul>
+     * <li>`from`: The name of the inventory to move items from. Defaults to this inventory.</li>
+     * <li>`fromSlot`: The slot to move items from.</li>
+     * <li>`to`: The name of the inventory to move items to. Defaults to this inventory.</li>
+     * <li>`limit`: The maximum number of items to move (optional).</li>
+     * <li>`toSlot`: The slot to move items to (optional). If not given, the item will be inserted into any slot.</li>
+     * </ul>
+     * <p>
+     * At most 128 moves may be given in a single call. Every move is checked before any items are moved, so an invalid
+     * move will not leave the transfer half-finished.
+     * However, if the moves take too long to perform, the remaining moves will be skipped. The returned list will then
+     * be shorter than the list of moves, and the remainder should be submitted again.
+     *
+     * @param self     The current inventory.
+     * @param computer The current computer.
+     * @param moves    The list of moves to perform.
+     * @return The number of items transferred by each move.
+     * @throws LuaException If there are too many moves, or any move is malformed, refers to a missing inventory, or has a
+     *                      slot out of range.
+     * @cc.treturn { number... } The number of items transferred by each move.
+     * @cc.usage Move the first two slots of a chest into another chest.
+     * <pre>{@code
+     * local chest_a = peripheral.wrap("minecraft:chest_0")
+     * local chest_b = peripheral.wrap("minecraft:chest_1")
+     *
+     * chest_a.transferItems({
+     *   { fromSlot = 1, to = peripheral.getName(chest_b) },
+     *   { fromSlot = 2, to = peripheral.getName(chest_b), limit = 16 },
+     * })
+     * }</pre>
+     * @cc.since 1.102.0
+     */
+    @LuaFunction( mainThread = true )
+    public static List<Integer> transferItems( IItemHandler self, IComputerAccess computer, Map<?, ?> moves ) throws LuaException
+    {
+        // Validate everything first, so we don't move half the items and then error.
+        Map<String, IItemHandler> handlers = new HashMap<>();
+        List<Move> toMove = new ArrayList<>();
+        for( int i = 1; ; i++ )
+        {
+            Object value = moves.get( (double) i );
+            if( value == null ) break;
+            if( i > MAX_MOVES ) throw new LuaException( "Too many moves (at most " + MAX_MOVES + " are allowed)" );
+            if( !(value instanceof Map) ) throw new LuaException( "Move " + i + ": expected table, got " + LuaValues.getType( value ) );
+
+            try
+            {
+                toMove.add( Move.parse( self, computer, handlers, (Map<?, ?>) value ) );
+            }
+            catch( LuaException e )
+            {
+                throw new LuaException( "Move " + i + ": " + e.getMessage() );
+            }
+        }
+
+        // Then perform as many moves as the main thread scheduler allows. We always perform at least one move, so we're
+        // guaranteed to make progress.
+        IWorkMonitor monitor = computer.getMainThreadMonitor();
+        List<Integer> result = new ArrayList<>( toMove.size() );
+        for( Move move : toMove )
+        {
+            if( !result.isEmpty() && !monitor.shouldWork() ) break;
+            result.add( move.limit <= 0 ? 0 : moveItem( move.from, move.fromSlot, move.to, move.toSlot, move.limit ) );
+        }
+
+        return result;
+    }
+
+    private static final class Move
+    {
+        final IItemHandler from;
+        final int fromSlot;
+        final IItemHandler to;
+        final int toSlot;
+        final int limit;
+
+        private Move( IItemHandler from, int fromSlot, IItemHandler to, int toSlot, int limit )
+        {
+            this.from = from;
+            this.fromSlot = fromSlot;
+            this.to = to;
+            this.toSlot = toSlot;
+            this.limit = limit;
+        }
+
+        static Move parse( IItemHandler self, IComputerAccess computer, Map<String, IItemHandler> handlers, Map<?, ?> move ) throws LuaException
+        {
+            IItemHandler from = getHandler( self, computer, handlers, optStringField( move, "from", null ), "Source" );
+            int fromSlot = getIntField( move, "fromSlot" );
+            IItemHandler to = getHandler( self, computer, handlers, optStringField( move, "to", null ), "Target" );
+            int toSlot = optIntField( move, "toSlot", 0 );
+            int limit = optIntField( move, "limit", Integer.MAX_VALUE );
+
+            assertBetween( fromSlot, 1, from.getSlots(), "From slot out of range (%s)" );
+            if( move.get( "toSlot" ) != null ) assertBetween( toSlot, 1, to.getSlots(), "To slot out of range (%s)" );
+
+            return new Move( from, fromSlot - 1, to, toSlot - 1, limit );
+        }
+
+        private static IItemHandler getHandler( IItemHandler self, IComputerAccess computer, Map<String, IItemHandler> handlers, @Nullable String name, String kind ) throws LuaException
+        {
+            if( name == null ) return self;
+
+            IItemHandler handler = handlers.get( name );
+            if( handler != null ) return handler;
+
+            IPeripheral location = computer.getAvailablePeripheral( name );
+            if( location == null ) throw new LuaException( kind + " '" + name + "' does not exist" );
+
+            handler = extractHandler( location.getTarget() );
+            if( handler == null ) throw new LuaException( kind + " '" + name + "' is not an inventory" );
+
+            handlers.put( name, handler );
+            return handler;
+        }
+    }
+
     @Nullable
     private static IItemHandler extractHandler( @Nullable Object object )
     {
@@ -0,0 +1,171 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.peripheral.generic.methods;
+
+import com.google.common.collect.MapMaker;
+import dan200.computercraft.api.detail.DetailRegistries;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.wrapper.InvWrapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A cache of the basic details of each slot in an inventory, used by {@link InventoryMethods#list} and
+ * {@link InventoryMethods#listChanges}.
+ * <p>
+ * Computing an item's details is relatively expensive (it requires hashing the item's NBT), and storage systems tend to
+ * poll the same inventories over and over again. Instead, we keep the details of each slot, and only recompute them
+ * when the slot's item, count or NBT changes. We keep a copy of each slot's NBT to compare against, as stacks' tags may
+ * be modified in place.
+ * <p>
+ * Snapshots are keyed by the inventory itself. {@link InvWrapper}s are unwrapped first, as they are often created fresh
+ * for each lookup. Other handlers which are recreated on every lookup will not benefit from this cache.
+ * <p>
+ * Every time a slot changes, it is assigned a new version. Versions are globally unique and increasing, which means a
+ * version from one snapshot will never be mistaken for a more recent version of another.
+ * <p>
+ * This should only be accessed from the server thread.
+ */
+final class InventorySnapshot
+{
+    private static final Map<Object, InventorySnapshot> snapshots = new MapMaker().weakKeys().concurrencyLevel( 1 ).makeMap();
+    private static long nextVersion = 1;
+
+    private final long created;
+    private long version;
+
+    private final Item[] items;
+    private final int[] counts;
+    private final CompoundNBT[] tags;
+    private final long[] versions;
+    private final Map<String, ?>[] details;
+    private Map<Integer, Map<String, ?>> list;
+
+    @SuppressWarnings( "unchecked" )
+    private InventorySnapshot( int size )
+    {
+        created = version = nextVersion++;
+        items = new Item[size];
+        counts = new int[size];
+        tags = new CompoundNBT[size];
+        versions = new long[size];
+        details = new Map[size];
+    }
+
+    /**
+     * Get an up-to-date snapshot of an inventory.
+     *
+     * @param inventory The inventory to snapshot.
+     * @return The inventory's snapshot.
+     */
+    static InventorySnapshot get( IItemHandler inventory )
+    {
+        Object key = inventory instanceof InvWrapper ? ((InvWrapper) inventory).getInv() : inventory;
+
+        int size = inventory.getSlots();
+        InventorySnapshot snapshot = snapshots.get( key );
+        if( snapshot == null || snapshot.items.length != size )
+        {
+            snapshots.put( key, snapshot = new InventorySnapshot( size ) );
+        }
+
+        snapshot.update( inventory );
+        return snapshot;
+    }
+
+    private void update( IItemHandler inventory )
+    {
+        long changed = 0;
+        for( int i = 0; i < items.length; i++ )
+        {
+            ItemStack stack = inventory.getStackInSlot( i );
+
+            Item item;
+            int count;
+            CompoundNBT tag;
+            if( stack.isEmpty() )
+            {
+                item = null;
+                count = 0;
+                tag = null;
+            }
+            else
+            {
+                item = stack.getItem();
+                count = stack.getCount();
+                tag = stack.getTag();
+            }
+
+            if( item == items[i] && count == counts[i] && Objects.equals( tag, tags[i] ) ) continue;
+
+            if( changed == 0 ) changed = nextVersion++;
+            items[i] = item;
+            counts[i] = count;
+            tags[i] = tag == null ? null : tag.copy();
+            versions[i] = changed;
+            details[i] = item == null ? null : DetailRegistries.ITEM_STACK.getBasicDetails( stack );
+        }
+
+        if( changed != 0 )
+        {
+            version = changed;
+            list = null;
+        }
+    }
+
+    long version()
+    {
+        return version;
+    }
+
+    /**
+     * Get the details of every non-empty slot. This is cached until the inventory next changes, and so may be shared
+     * between several computers.
+     *
+     * @return An unmodifiable map of (1-based) slot indices to details.
+     */
+    Map<Integer, Map<String, ?>> list()
+    {
+        if( list != null ) return list;
+
+        Map<Integer, Map<String, ?>> result = new HashMap<>();
+        for( int i = 0; i < details.length; i++ )
+        {
+            if( details[i] != null ) result.put( i + 1, details[i] );
+        }
+        return list = Collections.unmodifiableMap( result );
+    }
+
+    /**
+     * Get every slot which has changed since a given version. Slots which have been emptied are mapped to
+     * {@code false}.
+     * <p>
+     * If the version precedes this snapshot (for instance, it was never returned by this snapshot, or the snapshot was
+     * discarded), then every slot is included, empty or not.
+     *
+     * @param since The version to compare against.
+     * @return A map of (1-based) slot indices to their details, or {@code false} if empty.
+     */
+    Map<Integer, Object> changesSince( long since )
+    {
+        boolean all = since < created;
+
+        Map<Integer, Object> result = new HashMap<>();
+        for( int i = 0; i < details.length; i++ )
+        {
+            if( !all && versions[i] <= since ) continue;
+
+            result.put( i + 1, details[i] == null ? Boolean.FALSE : details[i] );
+        }
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.peripheral.generic.methods;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The read-only generic methods which may be answered from a snapshot, rather than waiting for the server thread.
+ * <p>
+ * These methods take no arguments and have no side effects, and so their result can be computed once a tick on the
+ * server thread and then shared between every computer which calls them. Methods opt in by being annotated with
+ * {@link Snapshot}, so methods from other {@link dan200.computercraft.api.lua.GenericSource}s are never snapshotted,
+ * even if they share a name with one of ours.
+ *
+ * @see dan200.computercraft.shared.peripheral.generic.PeripheralSnapshots
+ */
+public final class SnapshotMethods
+{
+    private SnapshotMethods()
+    {
+    }
+
+    /**
+     * Marks a generic method as being safe to answer from a snapshot. The method must be static, take only its target
+     * and return a value which is never modified afterwards.
+     */
+    @Retention( RetentionPolicy.RUNTIME )
+    @Target( ElementType.METHOD )
+    @interface Snapshot
+    {
+    }
+
+    /**
+     * Get a handle to compute a generic method's snapshot, if it can be answered from one.
+     *
+     * @param method The method to check.
+     * @return A handle to pass to {@link #get(MethodHandle, Object)}, or {@code null} if this method cannot be
+     * snapshotted.
+     */
+    @Nullable
+    public static MethodHandle getHandle( @Nonnull Method method )
+    {
+        if( !method.isAnnotationPresent( Snapshot.class ) ) return null;
+        if( !Modifier.isStatic( method.getModifiers() ) || method.getParameterCount() != 1 )
+        {
+            throw new IllegalStateException( "Snapshot method " + method + " must be static and take a single argument" );
+        }
+
+        try
+        {
+            return MethodHandles.publicLookup().unreflect( method );
+        }
+        catch( IllegalAccessException e )
+        {
+            throw new IllegalStateException( "Cannot access snapshot method " + method, e );
+        }
+    }
+
+    /**
+     * Compute the result of a snapshotted method. This must be called on the server thread.
+     *
+     * @param handle The handle returned by {@link #getHandle(Method)}.
+     * @param target The object the method is called on.
+     * @return The method's result. This must not be modified.
+     */
+    @Nonnull
+    public static Object get( @Nonnull MethodHandle handle, @Nonnull Object target )
+    {
+        try
+        {
+            return (Object) handle.invoke( target );
+        }
+        catch( RuntimeException | Error e )
+        {
+            throw e;
+        }
+        catch( Throwable e )
+        {
+            throw new IllegalStateException( "Error computing snapshot", e );
+        }
+    }
+}
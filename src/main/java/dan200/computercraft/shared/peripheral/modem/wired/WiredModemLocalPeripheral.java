@@ -9,6 +9,7 @@
 import dan200.computercraft.shared.Peripherals;
 import dan200.computercraft.shared.Registry;
 import dan200.computercraft.shared.computer.core.ServerContext;
+import dan200.computercraft.shared.util.NeighbourTracker;
 import net.minecraft.block.Block;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
@@ -38,10 +39,14 @@
 
     private IPeripheral peripheral;
     private final NonNullConsumer<Object> invalidate;
+    private final NeighbourTracker neighbour = new NeighbourTracker();
 
     public WiredModemLocalPeripheral( @Nonnull Runnable invalidate )
     {
-        this.invalidate = x -> invalidate.run();
+        this.invalidate = x -> {
+            neighbour.invalidate();
+            invalidate.run();
+        };
     }
 
     /**
@@ -54,8 +59,12 @@ public WiredModemLocalPeripheral( @Nonnull Runnable invalidate )
      */
     public boolean attach( @Nonnull World world, @Nonnull BlockPos origin, @Nonnull Direction direction )
     {
+        // If the neighbouring block is the same as before, the peripheral will not have changed either.
+        if( !neighbour.update( world, origin.relative( direction ) ) ) return false;
+
         IPeripheral oldPeripheral = peripheral;
         IPeripheral peripheral = this.peripheral = getPeripheralFrom( world, origin, direction );
+        neighbour.setPeripheral( peripheral );
 
         if( peripheral == null )
         {
@@ -88,6 +97,7 @@ else if( id < 0 || !type.equals( this.type ) )
      */
     public boolean detach()
     {
+        neighbour.invalidate();
         if( peripheral == null ) return false;
         peripheral = null;
         return true;
@@ -16,6 +16,7 @@
 import dan200.computercraft.shared.network.NetworkHandler;
 import dan200.computercraft.shared.network.client.PocketComputerDataMessage;
 import dan200.computercraft.shared.network.client.PocketComputerDeletedClientMessage;
+import dan200.computercraft.shared.network.client.TerminalState;
 import dan200.computercraft.shared.pocket.items.ItemPocketComputer;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -179,9 +180,9 @@ public synchronized void updateValues( Entity entity, @Nonnull ItemStack stack,
     }
 
     @Override
-    public void tickServer()
+    protected void finishTick()
     {
-        super.tickServer();
+        super.finishTick();
 
         // Find any players which have gone missing and remove them from the tracking list.
         tracking.removeIf( player -> !player.isAlive() || player.level != getWorld() );
@@ -211,14 +212,14 @@ public void tickServer()
     }
 
     @Override
-    protected void onTerminalChanged()
+    protected void onTerminalChanged( TerminalState terminal )
     {
-        super.onTerminalChanged();
+        super.onTerminalChanged( terminal );
 
         if( entity instanceof ServerPlayerEntity && entity.isAlive() )
         {
             // Broadcast the terminal to the current player.
-            NetworkHandler.sendToPlayer( (ServerPlayerEntity) entity, new PocketComputerDataMessage( this, true ) );
+            NetworkHandler.sendToPlayer( (ServerPlayerEntity) entity, new PocketComputerDataMessage( this, terminal ) );
         }
     }
 
@@ -14,6 +14,8 @@
 import dan200.computercraft.api.turtle.event.TurtleActionEvent;
 import dan200.computercraft.api.turtle.event.TurtleInspectItemEvent;
 import dan200.computercraft.core.apis.IAPIEnvironment;
+import dan200.computercraft.core.asm.LuaMethod;
+import dan200.computercraft.core.asm.NamedMethod;
 import dan200.computercraft.core.metrics.Metrics;
 import dan200.computercraft.shared.peripheral.generic.data.ItemData;
 import dan200.computercraft.shared.peripheral.generic.methods.InventoryMethods;
@@ -21,9 +23,8 @@
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.common.MinecraftForge;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import javax.annotation.Nullable;
+import java.util.*;
 
 /**
  * Turtles are a robotic device, which can break and place blocks, attack mobs, and move about the world. They have
@@ -76,9 +77,18 @@
  */
 public class TurtleAPI implements ILuaAPI
 {
+    private static final int MAX_BATCH = 64;
+    private static volatile Map<String, LuaMethod> methods;
+
     private final IAPIEnvironment environment;
     private final ITurtleAccess turtle;
 
+    /**
+     * The commands queued by the current {@link #batch}, or {@code null} if we are not in a batch.
+     */
+    @Nullable
+    private List<ITurtleCommand> batching;
+
     public TurtleAPI( IAPIEnvironment environment, ITurtleAccess turtle )
     {
         this.environment = environment;
@@ -94,6 +104,17 @@ public String[] getNames()
     private MethodResult trackCommand( ITurtleCommand command )
     {
         environment.observe( Metrics.TURTLE_OPS );
+        return executeCommand( command );
+    }
+
+    private MethodResult executeCommand( ITurtleCommand command )
+    {
+        if( batching != null )
+        {
+            batching.add( command );
+            return MethodResult.of();
+        }
+
         return turtle.executeCommand( command );
     }
 
@@ -351,7 +372,7 @@ public final MethodResult dropDown( Optional<Integer> count ) throws LuaExceptio
     public final MethodResult select( int slot ) throws LuaException
     {
         int actualSlot = checkSlot( slot );
-        return turtle.executeCommand( turtle -> {
+        return executeCommand( (InstantTurtleCommand) turtle -> {
             turtle.setSelectedSlot( actualSlot );
             return TurtleCommandResult.success();
         } );
@@ -833,6 +854,118 @@ private Object[] getItemDetail( int slot, boolean detailed )
     }
 
 
+    /**
+     * Run several turtle commands one after another, returning all of their results at once.
+     * <p>
+     * Each command is a table containing the name of a turtle function, followed by its arguments. For instance,
+     * `{ "transferTo", 2, 16 }` is equivalent to calling `turtle.transferTo(2, 16)`. Any function which returns a
+     * turtle command result may be used, such as movement, @{turtle.dig|dig}, @{turtle.select|select} or
+     * @{turtle.transferTo|transferTo}. Functions which return a value immediately, such as
+     * @{turtle.getItemCount|getItemCount}, may not.
+     * <p>
+     * Commands which only rearrange the turtle's inventory or look at the world (@{turtle.select|select},
+     * @{turtle.transferTo|transferTo}, @{turtle.compare|compare}, @{turtle.compareTo|compareTo},
+     * @{turtle.detect|detect} and @{turtle.inspect|inspect}) are run back-to-back, so a batch of them will usually finish
+     * within a single tick. Other commands run at the same pace as if they had been called individually. Every command
+     * is run, even if an earlier one fails.
+     *
+     * @param commands The commands to run.
+     * @return The turtle command result.
+     * @throws LuaException If any command is unknown or has invalid arguments.
+     * @cc.treturn [1] true If the commands were run.
+     * @cc.treturn [1] { { boolean, any... }... } The results of each command. Each result is a list containing
+     * whether the command succeeded, followed by its return values (or the reason it failed).
+     * @cc.treturn [2] false If the commands could not be queued, as too many commands are already running.
+     * @cc.treturn [2] string The reason the commands could not be queued.
+     * @cc.usage Drop every slot which does not match the first one.
+     * <pre>{@code
+     * local commands = {}
+     * for i = 2, 16 do
+     *   table.insert(commands, { "select", i })
+     *   table.insert(commands, { "compareTo", 1 })
+     * end
+     *
+     * local _, results = assert(turtle.batch(commands))
+     * for i = 2, 16 do
+     *   if not results[(i - 1) * 2][1] then
+     *     turtle.select(i)
+     *     turtle.drop()
+     *   end
+     * end}</pre>
+     * @cc.since 1.102.0
+     */
+    @LuaFunction
+    public final MethodResult batch( ILuaContext context, Map<?, ?> commands ) throws LuaException
+    {
+        if( !(turtle instanceof TurtleBrain) ) throw new LuaException( "Batches are not supported by this turtle" );
+        if( batching != null ) throw new LuaException( "Cannot nest batches" );
+
+        List<ITurtleCommand> toRun = batching = new ArrayList<>();
+        try
+        {
+            for( int i = 1; ; i++ )
+            {
+                Object value = commands.get( (double) i );
+                if( value == null ) break;
+                if( !(value instanceof Map) ) throw new LuaException( "Command " + i + ": expected table, got " + LuaValues.getType( value ) );
+                if( i > MAX_BATCH ) throw new LuaException( "Too many commands (at most " + MAX_BATCH + " are allowed)" );
+
+                try
+                {
+                    queueCommand( context, (Map<?, ?>) value );
+                }
+                catch( LuaException e )
+                {
+                    throw new LuaException( "Command " + i + ": " + e.getMessage() );
+                }
+            }
+        }
+        finally
+        {
+            batching = null;
+        }
+
+        return ((TurtleBrain) turtle).executeCommands( toRun );
+    }
+
+    /**
+     * Add a single entry of a {@link #batch} to the current batch, by calling the turtle function it names.
+     *
+     * @param context The current Lua context.
+     * @param command The command's name and arguments.
+     * @throws LuaException If the command is unknown, cannot be batched, or has invalid arguments.
+     */
+    private void queueCommand( ILuaContext context, Map<?, ?> command ) throws LuaException
+    {
+        Object name = command.get( 1.0 );
+        if( !(name instanceof String) ) throw new LuaException( "Expected command name, got " + LuaValues.getType( name ) );
+
+        LuaMethod method = getMethods().get( name );
+        if( method == null ) throw new LuaException( "Unknown command '" + name + "'" );
+
+        Object[] values = new Object[Math.max( 0, command.size() - 1 )];
+        for( int i = 0; i < values.length; i++ ) values[i] = command.get( (double) (i + 2) );
+
+        // Turtle commands are added to the batch rather than being run. Anything else (such as getItemDetail) runs
+        // immediately, which would give a misleading result, so is rejected.
+        int queued = batching.size();
+        method.apply( this, context, new ObjectArguments( values ) );
+        if( batching.size() != queued + 1 ) throw new LuaException( "Cannot batch '" + name + "'" );
+    }
+
+    private static Map<String, LuaMethod> getMethods()
+    {
+        Map<String, LuaMethod> methods = TurtleAPI.methods;
+        if( methods != null ) return methods;
+
+        methods = new HashMap<>();
+        for( NamedMethod<LuaMethod> method : LuaMethod.GENERATOR.getMethods( TurtleAPI.class ) )
+        {
+            methods.put( method.getName(), method.getMethod() );
+        }
+        return TurtleAPI.methods = methods;
+    }
+
     private static int checkSlot( int slot ) throws LuaException
     {
         if( slot < 1 || slot > 16 ) throw new LuaException( "Slot number " + slot + " out of range" );
@@ -65,6 +65,8 @@ public class TileTurtle extends TileComputerBase implements ITurtleTile, Default
         MOVED
     }
 
+    private static final String NBT_PARTIAL = "Partial";
+
     private final NonNullList<ItemStack> inventory = NonNullList.withSize( INVENTORY_SIZE, ItemStack.EMPTY );
     private final NonNullList<ItemStack> previousInventory = NonNullList.withSize( INVENTORY_SIZE, ItemStack.EMPTY );
     private final IItemHandlerModifiable itemHandler = new InvWrapper( this );
@@ -505,9 +507,25 @@ public CompoundNBT getUpdateTag()
         return nbt;
     }
 
+    @Nonnull
+    @Override
+    protected CompoundNBT getPartialUpdateTag()
+    {
+        CompoundNBT nbt = createUpdateTag();
+        nbt.putBoolean( NBT_PARTIAL, true );
+        brain.writePartialDescription( nbt );
+        return nbt;
+    }
+
     @Override
     public void handleUpdateTag( @Nonnull CompoundNBT nbt )
     {
+        if( nbt.getBoolean( NBT_PARTIAL ) )
+        {
+            brain.readPartialDescription( nbt );
+            return;
+        }
+
         super.handleUpdateTag( nbt );
         brain.readDescription( nbt );
     }
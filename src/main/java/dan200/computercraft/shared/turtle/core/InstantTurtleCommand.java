@@ -0,0 +1,20 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.turtle.core;
+
+import dan200.computercraft.api.turtle.ITurtleCommand;
+
+/**
+ * A turtle command which only reads the world or rearranges the turtle's own inventory, such as
+ * {@linkplain TurtleTransferToCommand transferring items} or {@linkplain TurtleInspectCommand inspecting a block}.
+ * <p>
+ * These do not need to be paced like other commands, so {@link TurtleBrain} may run several of them back-to-back
+ * within a single tick.
+ */
+@FunctionalInterface
+public interface InstantTurtleCommand extends ITurtleCommand
+{
+}
@@ -11,6 +11,7 @@
 import dan200.computercraft.api.lua.ILuaCallback;
 import dan200.computercraft.api.lua.MethodResult;
 import dan200.computercraft.api.peripheral.IPeripheral;
+import dan200.computercraft.api.peripheral.IWorkMonitor;
 import dan200.computercraft.api.turtle.*;
 import dan200.computercraft.core.computer.ComputerSide;
 import dan200.computercraft.shared.TurtleUpgrades;
@@ -64,6 +65,7 @@ public class TurtleBrain implements ITurtleAccess
     public static final String NBT_OVERLAY = "Overlay";
 
     private static final String NBT_SLOT = "Slot";
+    private static final String NBT_ANIMATION = "Animation";
 
     private static final int ANIM_DURATION = 8;
 
@@ -253,9 +255,41 @@ private static String getUpgradeId( ITurtleUpgrade upgrade )
     public void readDescription( CompoundNBT nbt )
     {
         readCommon( nbt );
+        readAnimation( nbt );
+    }
+
+    public void writeDescription( CompoundNBT nbt )
+    {
+        writeCommon( nbt );
+        nbt.putInt( NBT_ANIMATION, animation.ordinal() );
+    }
+
+    /**
+     * Read the fields which change frequently, sent by {@link #writePartialDescription(CompoundNBT)}.
+     *
+     * @param nbt The tag to read from.
+     */
+    public void readPartialDescription( CompoundNBT nbt )
+    {
+        fuelLevel = nbt.getInt( NBT_FUEL );
+        readAnimation( nbt );
+    }
+
+    /**
+     * Write the fields which change frequently (namely the current animation and fuel level). This is sent to clients
+     * instead of the full description when a turtle only plays an animation.
+     *
+     * @param nbt The tag to write to.
+     */
+    public void writePartialDescription( CompoundNBT nbt )
+    {
+        nbt.putInt( NBT_FUEL, fuelLevel );
+        nbt.putInt( NBT_ANIMATION, animation.ordinal() );
+    }
 
-        // Animation
-        TurtleAnimation anim = TurtleAnimation.values()[nbt.getInt( "Animation" )];
+    private void readAnimation( CompoundNBT nbt )
+    {
+        TurtleAnimation anim = TurtleAnimation.values()[nbt.getInt( NBT_ANIMATION )];
         if( anim != animation &&
             anim != TurtleAnimation.WAIT &&
             anim != TurtleAnimation.SHORT_WAIT &&
@@ -267,12 +301,6 @@ public void readDescription( CompoundNBT nbt )
         }
     }
 
-    public void writeDescription( CompoundNBT nbt )
-    {
-        writeCommon( nbt );
-        nbt.putInt( "Animation", animation.ordinal() );
-    }
-
     @Nonnull
     @Override
     public World getWorld()
@@ -521,6 +549,29 @@ public MethodResult executeCommand( @Nonnull ITurtleCommand command )
         return new CommandCallback( commandID ).pull;
     }
 
+    /**
+     * Queue several commands to be run one after another, returning all their results at once.
+     *
+     * @param commands The commands to run.
+     * @return The pending command result. This returns a list with the result of each command, in the same format as
+     * {@link #executeCommand(ITurtleCommand)}.
+     */
+    @Nonnull
+    public MethodResult executeCommands( @Nonnull List<ITurtleCommand> commands )
+    {
+        if( getWorld().isClientSide ) throw new UnsupportedOperationException( "Cannot run commands on the client" );
+        if( commandQueue.size() > 16 ) return MethodResult.of( false, "Too many ongoing turtle commands" );
+        if( commands.isEmpty() ) return MethodResult.of( true, new Object[0] );
+
+        int commandID = ++commandsIssued;
+        TurtleCommandBatch batch = new TurtleCommandBatch( commands.size() );
+        for( int i = 0; i < commands.size(); i++ )
+        {
+            commandQueue.offer( new TurtleCommandQueueEntry( commandID, commands.get( i ), batch, i ) );
+        }
+        return new CommandCallback( commandID ).pull;
+    }
+
     @Override
     public void playAnimation( @Nonnull TurtleAnimation animation )
     {
@@ -537,7 +588,9 @@ public void playAnimation( @Nonnull TurtleAnimation animation )
             animationProgress = 0;
             lastAnimationProgress = 0;
         }
-        owner.updateBlock();
+
+        // Animations are not saved, so we only need to notify the client.
+        owner.updateBlockPartially();
     }
 
     public ResourceLocation getOverlay()
@@ -779,23 +832,60 @@ private void updateCommands()
 
         // If we've got a computer, ensure that we're allowed to perform work.
         ServerComputer computer = owner.getServerComputer();
-        if( computer != null && !computer.getComputer().getMainThreadMonitor().canWork() ) return;
+        IWorkMonitor monitor = computer == null ? null : computer.getComputer().getMainThreadMonitor();
+        if( monitor != null && !monitor.canWork() ) return;
 
-        // Pull a new command
-        TurtleCommandQueueEntry nextCommand = commandQueue.poll();
-        if( nextCommand == null ) return;
+        boolean interacted = false;
+        while( true )
+        {
+            // Pull a new command
+            TurtleCommandQueueEntry nextCommand = commandQueue.poll();
+            if( nextCommand == null ) return;
+
+            // Execute the command
+            long start = System.nanoTime();
+            TurtleCommandResult result = nextCommand.command.execute( this );
+            long end = System.nanoTime();
+            if( !(nextCommand.command instanceof InstantTurtleCommand) ) interacted = true;
+
+            // Dispatch the callback
+            if( computer == null ) return;
+            monitor.trackWork( end - start, TimeUnit.NANOSECONDS );
+            dispatchResult( computer, nextCommand, result );
+
+            if( owner.isRemoved() || !monitor.shouldWork() ) return;
+
+            // Instant commands (such as select or transferTo) only touch the turtle's inventory or read the world, so
+            // we can run the next one this tick. Any other command is paced as usual: at most one runs each tick, and
+            // never after a move or tool animation has started.
+            TurtleCommandQueueEntry following = commandQueue.peek();
+            if( following == null || blocksCommands( animation ) ) return;
+            if( interacted && !(following.command instanceof InstantTurtleCommand) ) return;
+        }
+    }
 
-        // Execute the command
-        long start = System.nanoTime();
-        TurtleCommandResult result = nextCommand.command.execute( this );
-        long end = System.nanoTime();
+    private static boolean blocksCommands( TurtleAnimation animation )
+    {
+        return animation != TurtleAnimation.NONE && animation != TurtleAnimation.WAIT && animation != TurtleAnimation.SHORT_WAIT;
+    }
 
-        // Dispatch the callback
-        if( computer == null ) return;
-        computer.getComputer().getMainThreadMonitor().trackWork( end - start, TimeUnit.NANOSECONDS );
-        int callbackID = nextCommand.callbackID;
+    private static void dispatchResult( ServerComputer computer, TurtleCommandQueueEntry command, @Nullable TurtleCommandResult result )
+    {
+        int callbackID = command.callbackID;
         if( callbackID < 0 ) return;
 
+        if( command.batch != null )
+        {
+            Object[] results = command.batch.complete( command.index, result );
+            if( results != null ) computer.queueEvent( "turtle_response", new Object[] { callbackID, true, results } );
+            return;
+        }
+
+        computer.queueEvent( "turtle_response", toEvent( callbackID, result ) );
+    }
+
+    private static Object[] toEvent( int callbackID, @Nullable TurtleCommandResult result )
+    {
         if( result != null && result.isSuccess() )
         {
             Object[] results = result.getResults();
@@ -805,20 +895,16 @@ private void updateCommands()
                 arguments[0] = callbackID;
                 arguments[1] = true;
                 System.arraycopy( results, 0, arguments, 2, results.length );
-                computer.queueEvent( "turtle_response", arguments );
+                return arguments;
             }
             else
             {
-                computer.queueEvent( "turtle_response", new Object[] {
-                    callbackID, true,
-                } );
+                return new Object[] { callbackID, true };
             }
         }
         else
         {
-            computer.queueEvent( "turtle_response", new Object[] {
-                callbackID, false, result != null ? result.getErrorMessage() : null,
-            } );
+            return new Object[] { callbackID, false, result != null ? result.getErrorMessage() : null };
         }
     }
 
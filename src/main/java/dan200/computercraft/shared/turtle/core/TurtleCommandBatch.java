@@ -0,0 +1,56 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.turtle.core;
+
+import dan200.computercraft.api.turtle.TurtleCommandResult;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the results of several commands queued with {@link TurtleBrain#executeCommands}, so they can be sent to
+ * the computer as a single {@code turtle_response} event.
+ */
+final class TurtleCommandBatch
+{
+    private final Object[][] results;
+    private int remaining;
+
+    TurtleCommandBatch( int size )
+    {
+        results = new Object[size][];
+        remaining = size;
+    }
+
+    /**
+     * Record the result of a command in this batch.
+     *
+     * @param index  The index of this command.
+     * @param result The command's result.
+     * @return The results of every command if this was the last one to finish, otherwise {@code null}.
+     */
+    @Nullable
+    Object[] complete( int index, @Nullable TurtleCommandResult result )
+    {
+        results[index] = toResult( result );
+        return --remaining == 0 ? results : null;
+    }
+
+    private static Object[] toResult( @Nullable TurtleCommandResult result )
+    {
+        if( result == null || !result.isSuccess() )
+        {
+            return new Object[] { false, result != null ? result.getErrorMessage() : null };
+        }
+
+        Object[] values = result.getResults();
+        if( values == null ) return new Object[] { true };
+
+        Object[] out = new Object[values.length + 1];
+        out[0] = true;
+        System.arraycopy( values, 0, out, 1, values.length );
+        return out;
+    }
+}
@@ -7,14 +7,27 @@
 
 import dan200.computercraft.api.turtle.ITurtleCommand;
 
+import javax.annotation.Nullable;
+
 public class TurtleCommandQueueEntry
 {
     public final int callbackID;
     public final ITurtleCommand command;
 
+    @Nullable
+    final TurtleCommandBatch batch;
+    final int index;
+
     public TurtleCommandQueueEntry( int callbackID, ITurtleCommand command )
+    {
+        this( callbackID, command, null, 0 );
+    }
+
+    TurtleCommandQueueEntry( int callbackID, ITurtleCommand command, @Nullable TurtleCommandBatch batch, int index )
     {
         this.callbackID = callbackID;
         this.command = command;
+        this.batch = batch;
+        this.index = index;
     }
 }
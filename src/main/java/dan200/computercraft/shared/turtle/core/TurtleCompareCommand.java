@@ -6,7 +6,6 @@
 package dan200.computercraft.shared.turtle.core;
 
 import dan200.computercraft.api.turtle.ITurtleAccess;
-import dan200.computercraft.api.turtle.ITurtleCommand;
 import dan200.computercraft.api.turtle.TurtleCommandResult;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
@@ -19,7 +18,7 @@
 import javax.annotation.Nonnull;
 import java.util.List;
 
-public class TurtleCompareCommand implements ITurtleCommand
+public class TurtleCompareCommand implements InstantTurtleCommand
 {
     private final InteractDirection direction;
 
@@ -6,14 +6,13 @@
 package dan200.computercraft.shared.turtle.core;
 
 import dan200.computercraft.api.turtle.ITurtleAccess;
-import dan200.computercraft.api.turtle.ITurtleCommand;
 import dan200.computercraft.api.turtle.TurtleCommandResult;
 import dan200.computercraft.shared.util.InventoryUtil;
 import net.minecraft.item.ItemStack;
 
 import javax.annotation.Nonnull;
 
-public class TurtleCompareToCommand implements ITurtleCommand
+public class TurtleCompareToCommand implements InstantTurtleCommand
 {
     private final int slot;
 
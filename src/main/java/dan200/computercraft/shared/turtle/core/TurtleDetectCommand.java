@@ -6,7 +6,6 @@
 package dan200.computercraft.shared.turtle.core;
 
 import dan200.computercraft.api.turtle.ITurtleAccess;
-import dan200.computercraft.api.turtle.ITurtleCommand;
 import dan200.computercraft.api.turtle.TurtleCommandResult;
 import dan200.computercraft.shared.util.WorldUtil;
 import net.minecraft.util.Direction;
@@ -15,7 +14,7 @@
 
 import javax.annotation.Nonnull;
 
-public class TurtleDetectCommand implements ITurtleCommand
+public class TurtleDetectCommand implements InstantTurtleCommand
 {
     private final InteractDirection direction;
 
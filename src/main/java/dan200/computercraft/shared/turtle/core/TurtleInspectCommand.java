@@ -8,7 +8,6 @@
 import dan200.computercraft.api.detail.BlockReference;
 import dan200.computercraft.api.detail.DetailRegistries;
 import dan200.computercraft.api.turtle.ITurtleAccess;
-import dan200.computercraft.api.turtle.ITurtleCommand;
 import dan200.computercraft.api.turtle.TurtleCommandResult;
 import dan200.computercraft.api.turtle.event.TurtleBlockEvent;
 import net.minecraft.block.BlockState;
@@ -20,7 +19,7 @@
 import javax.annotation.Nonnull;
 import java.util.Map;
 
-public class TurtleInspectCommand implements ITurtleCommand
+public class TurtleInspectCommand implements InstantTurtleCommand
 {
     private final InteractDirection direction;
 
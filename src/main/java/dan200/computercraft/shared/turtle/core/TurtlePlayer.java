@@ -197,6 +197,10 @@ public void unloadInventory( ITurtleAccess turtle )
         }
 
         inventory.setChanged();
+
+        // Stacks may have been modified in place (for instance, shrunk when placing a block), in which case setting
+        // them again above is a no-op. Mark the turtle as changed, so it compares its contents and is saved.
+        turtle.getInventory().setChanged();
     }
 
     @Override
@@ -6,7 +6,6 @@
 package dan200.computercraft.shared.turtle.core;
 
 import dan200.computercraft.api.turtle.ITurtleAccess;
-import dan200.computercraft.api.turtle.ITurtleCommand;
 import dan200.computercraft.api.turtle.TurtleAnimation;
 import dan200.computercraft.api.turtle.TurtleCommandResult;
 import dan200.computercraft.shared.util.InventoryUtil;
@@ -14,7 +13,7 @@
 
 import javax.annotation.Nonnull;
 
-public class TurtleTransferToCommand implements ITurtleCommand
+public class TurtleTransferToCommand implements InstantTurtleCommand
 {
     private final int slot;
     private final int quantity;
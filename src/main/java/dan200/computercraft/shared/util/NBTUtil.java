@@ -5,6 +5,8 @@
  */
 package dan200.computercraft.shared.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.BaseEncoding;
 import dan200.computercraft.ComputerCraft;
 import net.minecraft.nbt.*;
@@ -28,6 +30,23 @@
 {
     private static final BaseEncoding ENCODING = BaseEncoding.base16().lowerCase();
 
+    /**
+     * The maximum size of the {@linkplain #getNBTHash(CompoundNBT) hash cache}, measured by the serialised size of the
+     * cached tags.
+     */
+    private static final int HASH_CACHE_WEIGHT = 4 * 1024 * 1024;
+
+    /**
+     * The largest tag we'll cache the hash of. Larger tags are rare enough, and expensive enough to keep, that we just
+     * hash them each time.
+     */
+    private static final int MAX_CACHED_TAG = HASH_CACHE_WEIGHT / 64;
+
+    private static final Cache<CompoundNBT, HashEntry> HASH_CACHE = CacheBuilder.newBuilder()
+        .maximumWeight( HASH_CACHE_WEIGHT )
+        .<CompoundNBT, HashEntry>weigher( ( tag, entry ) -> entry.size )
+        .build();
+
     private NBTUtil() {}
 
     private static INBT toNBTTag( Object object )
@@ -173,18 +192,43 @@ public static Object[] decodeObjects( CompoundNBT tag )
         return objects;
     }
 
+    /**
+     * Get a stable hash of an NBT tag, suitable for distinguishing two otherwise identical items.
+     * <p>
+     * Computing this hash requires serialising the whole tag, which is relatively expensive. As the same tags tend to be
+     * hashed over and over again (for instance, when listing the contents of a chest), we keep a small cache of recently
+     * hashed tags. This is keyed on the tag's contents rather than its identity, as tags are mutable, and is bounded by
+     * the total size of the cached tags.
+     *
+     * @param tag The tag to hash.
+     * @return The tag's hash, or {@code null} if the tag is {@code null} or could not be hashed.
+     */
     @Nullable
     public static String getNBTHash( @Nullable CompoundNBT tag )
     {
         if( tag == null ) return null;
 
+        HashEntry entry = HASH_CACHE.getIfPresent( tag );
+        if( entry != null ) return entry.hash;
+
+        entry = computeNBTHash( tag );
+        if( entry == null ) return null;
+
+        // Copy the tag, so later modifications to it don't affect our cache.
+        if( entry.size <= MAX_CACHED_TAG ) HASH_CACHE.put( tag.copy(), entry );
+        return entry.hash;
+    }
+
+    @Nullable
+    private static HashEntry computeNBTHash( @Nonnull CompoundNBT tag )
+    {
         try
         {
             MessageDigest digest = MessageDigest.getInstance( "MD5" );
-            DataOutput output = new DataOutputStream( new DigestOutputStream( digest ) );
+            DataOutputStream output = new DataOutputStream( new DigestOutputStream( digest ) );
             writeTag( output, "", tag );
             byte[] hash = digest.digest();
-            return ENCODING.encode( hash );
+            return new HashEntry( ENCODING.encode( hash ), output.size() );
         }
         catch( NoSuchAlgorithmException | IOException e )
         {
@@ -225,6 +269,18 @@ private static void writeTag( DataOutput output, String name, INBT tag ) throws
         }
     }
 
+    private static final class HashEntry
+    {
+        final String hash;
+        final int size;
+
+        HashEntry( String hash, int size )
+        {
+            this.hash = hash;
+            this.size = size;
+        }
+    }
+
     private static final class DigestOutputStream extends OutputStream
     {
         private final MessageDigest digest;
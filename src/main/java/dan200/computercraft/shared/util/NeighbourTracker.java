@@ -0,0 +1,93 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.util;
+
+import dan200.computercraft.api.peripheral.IPeripheral;
+import net.minecraft.block.BlockState;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the block a peripheral was last fetched from, so we can skip looking it up again when nothing has changed.
+ * <p>
+ * Neighbour updates are fired for many reasons which do not affect a block's peripheral (for instance, a redstone
+ * wire changing nearby, or a machine toggling its "lit" state). If the last lookup found a peripheral, and the block is
+ * unchanged, we reuse the existing one:
+ * <ul>
+ * <li>For blocks with a tile entity, we only require the same tile and the same block. Peripherals are always returned
+ * as a {@link net.minecraftforge.common.util.LazyOptional}, so any change to a peripheral which depends on the block's
+ * state must {@linkplain #invalidate() invalidate} it.</li>
+ * <li>For other blocks, we require the exact same block state.</li>
+ * </ul>
+ * We always look up empty positions again, as some peripheral providers may start returning a peripheral without the
+ * block changing.
+ */
+public final class NeighbourTracker
+{
+    private boolean valid;
+    private boolean hasPeripheral;
+    private BlockPos pos;
+    private BlockState state;
+    private TileEntity tile;
+
+    /**
+     * Force the next call to {@link #update(World, BlockPos)} to report a change. This should be called when a
+     * neighbouring capability is invalidated, or the peripheral is detached.
+     */
+    public void invalidate()
+    {
+        valid = false;
+        hasPeripheral = false;
+        pos = null;
+        state = null;
+        tile = null;
+    }
+
+    /**
+     * Record the current block at a position, and determine whether it has changed since the last call.
+     * <p>
+     * If this returns {@code true}, the caller should look up the peripheral and pass it to
+     * {@link #setPeripheral(IPeripheral)}.
+     *
+     * @param world The world the block is in.
+     * @param pos   The position of the block.
+     * @return Whether the block has changed, and so the peripheral should be looked up again.
+     */
+    public boolean update( @Nonnull World world, @Nonnull BlockPos pos )
+    {
+        BlockState state = world.getBlockState( pos );
+        TileEntity tile = world.getBlockEntity( pos );
+
+        boolean changed = !valid || !hasPeripheral || !pos.equals( this.pos ) || !isSame( tile, state );
+
+        valid = true;
+        if( changed ) hasPeripheral = false;
+        this.pos = pos.immutable();
+        this.state = state;
+        this.tile = tile;
+        return changed;
+    }
+
+    /**
+     * Record the peripheral which was found after {@link #update(World, BlockPos)} reported a change.
+     *
+     * @param peripheral The peripheral at this position, or {@code null} if there is none.
+     */
+    public void setPeripheral( @Nullable IPeripheral peripheral )
+    {
+        hasPeripheral = valid && peripheral != null;
+    }
+
+    private boolean isSame( @Nullable TileEntity tile, BlockState state )
+    {
+        if( tile != this.tile ) return false;
+        return tile == null ? state == this.state : !tile.isRemoved() && state.getBlock() == this.state.getBlock();
+    }
+}
@@ -6,16 +6,33 @@
 package dan200.computercraft.core.computer;
 
 import com.google.common.io.CharStreams;
+import dan200.computercraft.api.filesystem.IWritableMount;
+import dan200.computercraft.api.lua.ILuaAPI;
+import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.core.ComputerContext;
+import dan200.computercraft.core.computer.mainthread.MainThread;
+import dan200.computercraft.core.metrics.Metric;
+import dan200.computercraft.core.metrics.Metrics;
+import dan200.computercraft.core.terminal.Terminal;
+import dan200.computercraft.test.core.computer.BasicEnvironment;
+import dan200.computercraft.test.core.filesystem.MemoryMount;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static java.time.Duration.ofSeconds;
-import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ComputerTest
 {
@@ -37,6 +54,204 @@ public void testTimeout()
         } );
     }
 
+    @Test
+    public void testParksWhenIdle() throws InterruptedException
+    {
+        BasicEnvironment environment = new BasicEnvironment();
+        ComputerContext context = new ComputerContext( environment, 1, new MainThread() );
+        try
+        {
+            Computer computer = new Computer( context, environment, new Terminal( 51, 19, true ), 0 );
+
+            computer.tick();
+            assertFalse( computer.isParked(), "Computers are not parked on their first tick" );
+
+            computer.tick();
+            assertTrue( computer.isParked(), "Idle computers are parked" );
+
+            computer.getEnvironment().setRedstoneInput( ComputerSide.TOP, 15 );
+            computer.tick();
+            assertFalse( computer.isParked(), "Changing redstone input wakes the computer" );
+
+            computer.tick();
+            assertTrue( computer.isParked(), "Computers are parked again once idle" );
+        }
+        finally
+        {
+            context.ensureClosed( 1, TimeUnit.SECONDS );
+        }
+    }
+
+    @Test
+    public void testParksWhileWaitingForEvents()
+    {
+        assertTimeoutPreemptively( ofSeconds( 20 ), () -> {
+            MemoryMount mount = new MemoryMount().addFile( "startup.lua",
+                "probe.record('started')\n" +
+                    "os.pullEvent('test')\n" +
+                    "probe.record('event')\n" +
+                    "local alarm = os.setAlarm(6)\n" +
+                    "repeat local _, id = os.pullEvent('alarm') until id == alarm\n" +
+                    "probe.record('alarm')\n" +
+                    "local timer = os.startTimer(0.5)\n" +
+                    "repeat local _, id = os.pullEvent('timer') until id == timer\n" +
+                    "probe.record('timer')\n"
+            );
+
+            TimeEnvironment environment = new TimeEnvironment( mount );
+            MainThread mainThread = new MainThread();
+            ComputerContext context = new ComputerContext( environment, 1, mainThread );
+            try
+            {
+                Computer computer = new Computer( context, environment, new Terminal( 51, 19, true ), 0 );
+                ProbeApi probe = new ProbeApi();
+                computer.addApi( probe );
+                computer.turnOn();
+
+                tickUntil( computer, mainThread, () -> probe.has( "started" ) && computer.isParked(), "Computer parks while waiting for an event" );
+
+                computer.queueEvent( "test", null );
+                computer.tick();
+                assertFalse( computer.isParked(), "Queuing an event wakes the computer" );
+                tickUntil( computer, mainThread, () -> probe.has( "event" ), "Queued event is handled" );
+
+                tickUntil( computer, mainThread, computer::isParked, "Computer parks while waiting for an alarm" );
+                environment.time = 12;
+                tickUntil( computer, mainThread, () -> {
+                    environment.time += 0.1;
+                    return probe.has( "alarm" );
+                }, "Alarm wakes the computer and is handled" );
+
+                tickUntil( computer, mainThread, () -> {
+                    assertFalse( computer.isParked(), "Computers with a running timer are not parked" );
+                    return probe.has( "timer" );
+                }, "Timer fires and is handled" );
+            }
+            finally
+            {
+                context.ensureClosed( 1, TimeUnit.SECONDS );
+            }
+        } );
+    }
+
+    @Test
+    public void testDropsFilteredEvents()
+    {
+        assertTimeoutPreemptively( ofSeconds( 20 ), () -> {
+            // Use a bios which waits on a filter directly, as the real one runs everything inside the parallel API.
+            FilterEnvironment environment = new FilterEnvironment(
+                "probe.record('started')\n" +
+                    "while true do probe.record((coroutine.yield('wanted'))) end\n"
+            );
+            MainThread mainThread = new MainThread();
+            ComputerContext context = new ComputerContext( environment, 1, mainThread );
+            try
+            {
+                Computer computer = new Computer( context, environment, new Terminal( 51, 19, true ), 0 );
+                ProbeApi probe = new ProbeApi();
+                computer.addApi( probe );
+                computer.turnOn();
+
+                tickUntil( computer, mainThread, () -> probe.has( "started" ) && computer.isParked(), "Computer parks while waiting for an event" );
+
+                computer.queueEvent( "ignored", null );
+                assertEquals( 1, environment.filtered.get(), "Non-matching event is dropped" );
+
+                computer.queueEvent( "terminate", null );
+                computer.queueEvent( "wanted", null );
+                tickUntil( computer, mainThread, () -> probe.has( "wanted" ), "Filtered event is handled" );
+
+                assertEquals( Arrays.asList( "started", "terminate", "wanted" ), probe.recorded(), "Events are received in order" );
+                assertEquals( 1, environment.filtered.get(), "Only the non-matching event is dropped" );
+            }
+            finally
+            {
+                context.ensureClosed( 1, TimeUnit.SECONDS );
+            }
+        } );
+    }
+
+    private static void tickUntil( Computer computer, MainThread mainThread, BooleanSupplier condition, String message ) throws InterruptedException
+    {
+        for( int i = 0; i < 200; i++ )
+        {
+            computer.tick();
+            mainThread.tick();
+            if( condition.getAsBoolean() ) return;
+            Thread.sleep( 10 );
+        }
+
+        fail( message );
+    }
+
+    private static final class TimeEnvironment extends BasicEnvironment
+    {
+        volatile double time;
+
+        TimeEnvironment( IWritableMount mount )
+        {
+            super( mount );
+        }
+
+        @Override
+        public double getTimeOfDay()
+        {
+            return time;
+        }
+    }
+
+    private static final class FilterEnvironment extends BasicEnvironment
+    {
+        final AtomicInteger filtered = new AtomicInteger();
+        private final String bios;
+
+        FilterEnvironment( String bios )
+        {
+            this.bios = bios;
+        }
+
+        @Override
+        public InputStream createResourceFile( String domain, String subPath )
+        {
+            return subPath.equals( "lua/bios.lua" )
+                ? new ByteArrayInputStream( bios.getBytes( StandardCharsets.UTF_8 ) )
+                : super.createResourceFile( domain, subPath );
+        }
+
+        @Override
+        public void observe( Metric.Counter counter )
+        {
+            if( counter == Metrics.EVENTS_FILTERED ) filtered.incrementAndGet();
+        }
+    }
+
+    public static class ProbeApi implements ILuaAPI
+    {
+        private final List<String> seen = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String[] getNames()
+        {
+            return new String[] { "probe" };
+        }
+
+        @LuaFunction
+        public final void record( String name )
+        {
+            seen.add( name );
+        }
+
+        boolean has( String name )
+        {
+            return seen.contains( name );
+        }
+
+        List<String> recorded()
+        {
+            return seen;
+        }
+    }
+
     public static void main( String[] args ) throws Exception
     {
         InputStream stream = ComputerTest.class.getClassLoader().getResourceAsStream( "benchmark.lua" );
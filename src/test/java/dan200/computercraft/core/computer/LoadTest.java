@@ -0,0 +1,277 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.computer;
+
+import dan200.computercraft.ComputerCraft;
+import dan200.computercraft.api.filesystem.IWritableMount;
+import dan200.computercraft.api.lua.ILuaAPI;
+import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.core.ComputerContext;
+import dan200.computercraft.core.computer.mainthread.MainThread;
+import dan200.computercraft.core.filesystem.FileMount;
+import dan200.computercraft.core.metrics.Histogram;
+import dan200.computercraft.core.terminal.Terminal;
+import dan200.computercraft.test.core.computer.BasicEnvironment;
+import dan200.computercraft.test.core.filesystem.MemoryMount;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A headless load test, which runs many computers at once without Minecraft.
+ * <p>
+ * Every computer runs one of several {@linkplain Workload workloads}, while we drive the computers and the
+ * {@link MainThread} at 20 ticks a second. At the end, we report how much work the computers got done, how long events
+ * took to be handled, and how much memory each computer used.
+ * <p>
+ * This is run with {@code ./gradlew runLoadTest --args="computers=500 workload=mixed"}. Options are:
+ * <ul>
+ * <li>{@code computers}: The number of computers to run (default 100).</li>
+ * <li>{@code workload}: The workload to run, or {@code mixed} to use all of them (default {@code mixed}).</li>
+ * <li>{@code seconds}: How long to run for after all computers have started (default 30).</li>
+ * <li>{@code threads}: The number of computer threads (default 1).</li>
+ * <li>{@code mount}: Whether computers use a {@code memory} or temporary {@code file} mount (default {@code memory}).</li>
+ * </ul>
+ */
+public final class LoadTest
+{
+    private static final int TPS = 20;
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos( 1 ) / TPS;
+    private static final int BOOT_TIMEOUT = 60;
+
+    private enum Workload
+    {
+        /**
+         * Run a tight loop, yielding every so often.
+         */
+        BUSY( "" +
+            "while true do\n" +
+            "  local x = 0 for i = 1, 1e5 do x = x + i end\n" +
+            "  loadtest.work()\n" +
+            "  os.queueEvent('yield') os.pullEvent('yield')\n" +
+            "end\n"
+        ),
+
+        /**
+         * Respond to events queued by the test harness, measuring how long they took to be handled.
+         */
+        PING( "" +
+            "while true do\n" +
+            "  local _, sent = os.pullEvent('loadtest_ping')\n" +
+            "  loadtest.pong(sent)\n" +
+            "  loadtest.work()\n" +
+            "end\n"
+        ),
+
+        /**
+         * Repeatedly write and read back a small file.
+         */
+        FILES( "" +
+            "local contents = ('x'):rep(1024)\n" +
+            "while true do\n" +
+            "  local h = fs.open('data.txt', 'w') h.write(contents) h.close()\n" +
+            "  h = fs.open('data.txt', 'r') h.readAll() h.close()\n" +
+            "  loadtest.work()\n" +
+            "  os.queueEvent('yield') os.pullEvent('yield')\n" +
+            "end\n"
+        ),
+
+        /**
+         * Start lots of timers, and wait for them all to fire.
+         */
+        TIMERS( "" +
+            "while true do\n" +
+            "  for i = 1, 16 do os.startTimer(0) end\n" +
+            "  for i = 1, 16 do os.pullEvent('timer') end\n" +
+            "  loadtest.work()\n" +
+            "end\n"
+        );
+
+        final String program;
+
+        Workload( String program )
+        {
+            this.program = program;
+        }
+    }
+
+    private LoadTest()
+    {
+    }
+
+    public static void main( String[] args ) throws Exception
+    {
+        Map<String, String> options = new HashMap<>();
+        for( String arg : args )
+        {
+            int index = arg.indexOf( '=' );
+            if( index < 0 ) throw new IllegalArgumentException( "Expected key=value, got " + arg );
+            options.put( arg.substring( 0, index ), arg.substring( index + 1 ) );
+        }
+
+        int count = Integer.parseInt( options.getOrDefault( "computers", "100" ) );
+        String workload = options.getOrDefault( "workload", "mixed" ).toUpperCase( Locale.ROOT );
+        int seconds = Integer.parseInt( options.getOrDefault( "seconds", "30" ) );
+        int threads = Integer.parseInt( options.getOrDefault( "threads", "1" ) );
+        boolean fileMount = options.getOrDefault( "mount", "memory" ).equals( "file" );
+
+        Workload[] workloads = workload.equals( "MIXED" ) ? Workload.values() : new Workload[] { Workload.valueOf( workload ) };
+
+        ComputerCraft.logComputerErrors = true;
+
+        MainThread mainThread = new MainThread();
+        BasicEnvironment globalEnvironment = new BasicEnvironment();
+        ComputerContext context = new ComputerContext( globalEnvironment, threads, mainThread );
+        LoadApi api = new LoadApi();
+
+        File tempDir = fileMount ? Files.createTempDirectory( "cc-loadtest" ).toFile() : null;
+
+        long baseMemory = usedMemory();
+
+        List<Computer> computers = new ArrayList<>( count );
+        List<Computer> pinged = new ArrayList<>();
+        for( int i = 0; i < count; i++ )
+        {
+            Workload computerWorkload = workloads[i % workloads.length];
+            IWritableMount mount = createMount( tempDir, i, computerWorkload.program );
+
+            Terminal term = new Terminal( ComputerCraft.computerTermWidth, ComputerCraft.computerTermHeight, true );
+            Computer computer = new Computer( context, new BasicEnvironment( mount ), term, i );
+            computer.addApi( api );
+            computer.turnOn();
+            computers.add( computer );
+            if( computerWorkload == Workload.PING ) pinged.add( computer );
+        }
+
+        try
+        {
+            // Wait for every computer to start.
+            long bootStart = System.nanoTime();
+            int ticks = 0;
+            while( !allOn( computers ) )
+            {
+                if( ++ticks > BOOT_TIMEOUT * TPS ) throw new IllegalStateException( "Computers did not start in time" );
+                tick( computers, pinged, mainThread, null );
+            }
+            long bootTime = System.nanoTime() - bootStart;
+
+            // Warm up, then measure memory once everything has settled.
+            for( int i = 0; i < TPS; i++ ) tick( computers, pinged, mainThread, null );
+            long memory = usedMemory() - baseMemory;
+
+            api.reset();
+            Histogram tickTimes = new Histogram();
+            long start = System.nanoTime();
+            for( int i = 0; i < seconds * TPS; i++ ) tick( computers, pinged, mainThread, tickTimes );
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf( "Computers:         %d (%s, %d threads, %s mount)%n", count, workload.toLowerCase( Locale.ROOT ), threads, fileMount ? "file" : "memory" );
+            System.out.printf( "Boot time:         %.2fs%n", bootTime / 1e9 );
+            System.out.printf( "Throughput:        %.1f iterations/s (%.2f per computer)%n", api.work.sum() / elapsed, api.work.sum() / elapsed / count );
+            System.out.printf( "Tick time:         %s%n", percentiles( tickTimes ) );
+            System.out.printf( "Event latency:     %s%n", api.latency.count() == 0 ? "n/a" : percentiles( api.latency ) );
+            System.out.printf( "Memory:            %.1fMiB (%.1fKiB per computer)%n", memory / (1024.0 * 1024), memory / 1024.0 / count );
+        }
+        finally
+        {
+            for( Computer computer : computers ) computer.unload();
+            context.ensureClosed( 5, TimeUnit.SECONDS );
+        }
+    }
+
+    private static IWritableMount createMount( File tempDir, int id, String program ) throws IOException
+    {
+        if( tempDir == null ) return new MemoryMount().addFile( "startup.lua", program );
+
+        File root = new File( tempDir, Integer.toString( id ) );
+        if( !root.mkdirs() ) throw new IOException( "Cannot create " + root );
+        Files.write( new File( root, "startup.lua" ).toPath(), program.getBytes( StandardCharsets.UTF_8 ) );
+        return new FileMount( root, ComputerCraft.computerSpaceLimit );
+    }
+
+    private static void tick( List<Computer> computers, List<Computer> pinged, MainThread mainThread, Histogram tickTimes ) throws InterruptedException
+    {
+        long start = System.nanoTime();
+
+        Object[] sent = new Object[] { start - LoadApi.EPOCH };
+        for( Computer computer : pinged ) computer.queueEvent( "loadtest_ping", sent );
+
+        for( Computer computer : computers ) computer.tick();
+        mainThread.tick();
+
+        long taken = System.nanoTime() - start;
+        if( tickTimes != null ) tickTimes.record( taken );
+        if( taken < TICK_NANOS ) TimeUnit.NANOSECONDS.sleep( TICK_NANOS - taken );
+    }
+
+    private static boolean allOn( List<Computer> computers )
+    {
+        for( Computer computer : computers )
+        {
+            if( !computer.isOn() ) return false;
+        }
+        return true;
+    }
+
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for( int i = 0; i < 3; i++ ) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String percentiles( Histogram histogram )
+    {
+        return String.format( "p50 %.2fms, p90 %.2fms, p99 %.2fms, max %.2fms",
+            histogram.percentile( 0.5 ) / 1e6, histogram.percentile( 0.9 ) / 1e6,
+            histogram.percentile( 0.99 ) / 1e6, histogram.max() / 1e6
+        );
+    }
+
+    /**
+     * The API computers use to report their progress.
+     */
+    public static class LoadApi implements ILuaAPI
+    {
+        static final long EPOCH = System.nanoTime();
+
+        final LongAdder work = new LongAdder();
+        volatile Histogram latency = new Histogram();
+
+        void reset()
+        {
+            work.reset();
+            latency = new Histogram();
+        }
+
+        @Override
+        public String[] getNames()
+        {
+            return new String[] { "loadtest" };
+        }
+
+        @LuaFunction
+        public final void work()
+        {
+            work.increment();
+        }
+
+        @LuaFunction
+        public final void pong( double sent )
+        {
+            latency.record( System.nanoTime() - EPOCH - (long) sent );
+        }
+    }
+}
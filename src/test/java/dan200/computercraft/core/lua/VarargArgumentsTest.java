@@ -0,0 +1,111 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.lua;
+
+import dan200.computercraft.api.lua.LuaException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.squiddev.cobalt.Constants;
+import org.squiddev.cobalt.LuaValue;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.squiddev.cobalt.ValueFactory.valueOf;
+import static org.squiddev.cobalt.ValueFactory.varargsOf;
+
+public class VarargArgumentsTest
+{
+    private static VarargArguments args( LuaValue... values )
+    {
+        return VarargArguments.of( varargsOf( values ) );
+    }
+
+    private static void assertBadArgument( String message, Executable executable )
+    {
+        LuaException e = assertThrows( LuaException.class, executable );
+        assertEquals( message, e.getMessage() );
+    }
+
+    @Test
+    public void testTypeErrors()
+    {
+        VarargArguments args = args( valueOf( "x" ), valueOf( 1 ), Constants.NIL );
+
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.getDouble( 0 ) );
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.getLong( 0 ) );
+        assertBadArgument( "bad argument #1 (boolean expected, got string)", () -> args.getBoolean( 0 ) );
+        assertBadArgument( "bad argument #2 (string expected, got number)", () -> args.getString( 1 ) );
+        assertBadArgument( "bad argument #3 (string expected, got nil)", () -> args.getString( 2 ) );
+
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.optInt( 0, 0 ) );
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.optLong( 0, 0 ) );
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.optDouble( 0, 0 ) );
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.optFiniteDouble( 0, 0 ) );
+        assertBadArgument( "bad argument #2 (boolean expected, got number)", () -> args.optBoolean( 1, false ) );
+        assertBadArgument( "bad argument #2 (string expected, got number)", () -> args.optString( 1, "" ) );
+
+        assertBadArgument( "bad argument #1 (number expected, got string)", () -> args.optInt( 0 ) );
+        assertBadArgument( "bad argument #2 (boolean expected, got number)", () -> args.optBoolean( 1 ) );
+        assertBadArgument( "bad argument #2 (string expected, got number)", () -> args.optString( 1 ) );
+    }
+
+    @Test
+    public void testFiniteChecks() throws LuaException
+    {
+        VarargArguments args = args( valueOf( Double.NaN ), valueOf( Double.POSITIVE_INFINITY ), valueOf( 2.5 ) );
+
+        assertTrue( Double.isNaN( args.getDouble( 0 ) ) );
+        assertBadArgument( "bad argument #1 (number expected, got nan)", () -> args.getFiniteDouble( 0 ) );
+        assertBadArgument( "bad argument #2 (number expected, got inf)", () -> args.getLong( 1 ) );
+        assertBadArgument( "bad argument #2 (number expected, got inf)", () -> args.optLong( 1, 0 ) );
+        assertBadArgument( "bad argument #2 (number expected, got inf)", () -> args.optInt( 1, 0 ) );
+        assertBadArgument( "bad argument #1 (number expected, got nan)", () -> args.optFiniteDouble( 0, 0 ) );
+
+        assertEquals( 2.5, args.getFiniteDouble( 2 ) );
+        assertEquals( 2, args.getLong( 2 ) );
+        assertEquals( 2, args.optInt( 2, 0 ) );
+    }
+
+    @Test
+    public void testNilUsesDefault() throws LuaException
+    {
+        VarargArguments args = args( Constants.NIL );
+
+        // Both explicit nils and missing arguments use the default.
+        for( int i = 0; i < 2; i++ )
+        {
+            assertEquals( 3, args.optInt( i, 3 ) );
+            assertEquals( 4L, args.optLong( i, 4 ) );
+            assertEquals( 1.5, args.optDouble( i, 1.5 ) );
+            assertEquals( Double.POSITIVE_INFINITY, args.optFiniteDouble( i, Double.POSITIVE_INFINITY ) );
+            assertTrue( args.optBoolean( i, true ) );
+            assertEquals( "def", args.optString( i, "def" ) );
+            assertNull( args.optString( i, null ) );
+
+            assertEquals( Optional.empty(), args.optInt( i ) );
+            assertEquals( Optional.empty(), args.optLong( i ) );
+            assertEquals( Optional.empty(), args.optDouble( i ) );
+            assertEquals( Optional.empty(), args.optBoolean( i ) );
+            assertEquals( Optional.empty(), args.optString( i ) );
+        }
+    }
+
+    @Test
+    public void testReadsValues() throws LuaException
+    {
+        VarargArguments args = args( valueOf( 12 ), valueOf( false ), valueOf( "hello" ) );
+
+        assertEquals( 12, args.optInt( 0, 0 ) );
+        assertEquals( 12L, args.optLong( 0, 0 ) );
+        assertEquals( 12.0, args.optDouble( 0, 0 ) );
+        assertEquals( Optional.of( 12 ), args.optInt( 0 ) );
+        assertFalse( args.optBoolean( 1, true ) );
+        assertEquals( Optional.of( false ), args.optBoolean( 1 ) );
+        assertEquals( "hello", args.optString( 2, "def" ) );
+        assertEquals( "hello", args.getString( 2 ) );
+    }
+}
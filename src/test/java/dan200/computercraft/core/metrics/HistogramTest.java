@@ -0,0 +1,91 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistogramTest
+{
+    @Test
+    public void testBucketsAreContiguous()
+    {
+        for( long value = 0; value < 1 << 16; value++ )
+        {
+            int bucket = Histogram.bucket( value );
+            assertTrue( value <= Histogram.upperBound( bucket ), () -> "Value is within bucket" );
+            if( bucket > 0 ) assertTrue( value > Histogram.upperBound( bucket - 1 ), () -> "Value is after previous bucket" );
+        }
+    }
+
+    @Test
+    public void testPercentiles()
+    {
+        Histogram histogram = new Histogram();
+        for( long i = 1; i <= 1000; i++ ) histogram.record( i * 1000 );
+
+        assertEquals( 1000, histogram.count() );
+        assertEquals( 1_000_000, histogram.max() );
+        assertWithin( 500_000, histogram.percentile( 0.5 ) );
+        assertWithin( 990_000, histogram.percentile( 0.99 ) );
+        assertEquals( 1_000_000, histogram.percentile( 1 ) );
+    }
+
+    @Test
+    public void testClampsLargeValues()
+    {
+        Histogram histogram = new Histogram();
+        histogram.record( Long.MAX_VALUE );
+        histogram.record( -1 );
+
+        assertEquals( 2, histogram.count() );
+        assertEquals( Long.MAX_VALUE, histogram.max() );
+        assertEquals( 0, histogram.percentile( 0.5 ) );
+        assertEquals( Histogram.MAX_VALUE, histogram.percentile( 1 ) );
+    }
+
+    @Test
+    public void testMerge()
+    {
+        Histogram a = new Histogram(), b = new Histogram();
+        a.record( 10 );
+        b.record( 20 );
+        a.merge( b );
+
+        assertEquals( 2, a.count() );
+        assertEquals( 30, a.total() );
+        assertEquals( 20, a.max() );
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException
+    {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for( int i = 0; i < 8; i++ )
+        {
+            Thread thread = new Thread( () -> {
+                for( int j = 0; j < 10_000; j++ ) histogram.record( j );
+            } );
+            thread.start();
+            threads.add( thread );
+        }
+        for( Thread thread : threads ) thread.join();
+
+        assertEquals( 80_000, histogram.count() );
+        assertEquals( 9_999, histogram.max() );
+        assertEquals( 8L * (9_999 * 10_000 / 2), histogram.total() );
+    }
+
+    private static void assertWithin( long expected, long actual )
+    {
+        assertTrue( Math.abs( expected - actual ) <= expected / 8, () -> "Expected " + actual + " to be close to " + expected );
+    }
+}
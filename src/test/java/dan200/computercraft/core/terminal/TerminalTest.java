@@ -16,6 +16,7 @@
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import static dan200.computercraft.test.core.terminal.TerminalMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -383,6 +384,66 @@ public void testBlitPartialBuffer()
         assertThat( terminal.getLine( 0 ).toString(), equalTo( "2345" ) );
     }
 
+    @Test
+    public void testBlitFromArrays()
+    {
+        CallCounter callCounter = new CallCounter();
+        Terminal terminal = new Terminal( 4, 3, true, callCounter );
+
+        terminal.setCursorPos( 1, 1 );
+        callCounter.reset();
+        byte[] text = "xhello".getBytes( StandardCharsets.US_ASCII );
+        byte[] colours = "123456".getBytes( StandardCharsets.US_ASCII );
+        terminal.blit( text, 1, colours, 2, colours, 0, 5 );
+
+        assertThat( terminal, allOf(
+            textMatches( new String[] {
+                "    ",
+                " hel",
+                "    ",
+            } ),
+            textColourMatches( new String[] {
+                "0000",
+                "0345",
+                "0000",
+            } ),
+            backgroundColourMatches( new String[] {
+                "ffff",
+                "f123",
+                "ffff",
+            } )
+        ) );
+
+        callCounter.assertCalledTimes( 1 );
+    }
+
+    @Test
+    public void testWriteFromArray()
+    {
+        CallCounter callCounter = new CallCounter();
+        Terminal terminal = new Terminal( 4, 3, true, callCounter );
+
+        terminal.setCursorPos( -1, 0 );
+        terminal.setTextColour( 2 );
+        callCounter.reset();
+        terminal.write( "xtest".getBytes( StandardCharsets.US_ASCII ), 1, 4 );
+
+        assertThat( terminal, allOf(
+            textMatches( new String[] {
+                "est ",
+                "    ",
+                "    ",
+            } ),
+            textColourMatches( new String[] {
+                "2220",
+                "0000",
+                "0000",
+            } )
+        ) );
+
+        callCounter.assertCalledTimes( 1 );
+    }
+
     @Test
     void testWriteFromOrigin()
     {
@@ -0,0 +1,49 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.computer.metrics.prometheus;
+
+import dan200.computercraft.core.metrics.Histogram;
+import dan200.computercraft.core.metrics.Metrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrometheusWriterTest
+{
+    @Test
+    public void testNames()
+    {
+        assertEquals( "computercraft_computer_tasks_seconds", PrometheusWriter.name( "", Metrics.COMPUTER_TASKS ) );
+        assertEquals( "computercraft_computer_http_upload_bytes", PrometheusWriter.name( "computer_", Metrics.HTTP_UPLOAD ) );
+        assertEquals( "computercraft_turtle_ops", PrometheusWriter.name( "", Metrics.TURTLE_OPS ) );
+    }
+
+    @Test
+    public void testEscapesLabels()
+    {
+        StringBuilder out = new StringBuilder();
+        new PrometheusWriter( out ).sample( "name", "label", "a\"b\\c\nd", 1 );
+        assertEquals( "name{label=\"a\\\"b\\\\c\\nd\"} 1\n", out.toString() );
+    }
+
+    @Test
+    public void testSummary()
+    {
+        Histogram histogram = new Histogram();
+        histogram.record( 2_000_000_000L );
+
+        StringBuilder out = new StringBuilder();
+        new PrometheusWriter( out ).summary( "time_seconds", Metrics.COMPUTER_TASKS, "computer", "1", histogram );
+        assertEquals(
+            "time_seconds{computer=\"1\",quantile=\"0.5\"} 2\n" +
+                "time_seconds{computer=\"1\",quantile=\"0.99\"} 2\n" +
+                "time_seconds{computer=\"1\",quantile=\"0.999\"} 2\n" +
+                "time_seconds_sum{computer=\"1\"} 2\n" +
+                "time_seconds_count{computer=\"1\"} 1\n",
+            out.toString()
+        );
+    }
+}
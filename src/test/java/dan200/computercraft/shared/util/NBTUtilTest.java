@@ -0,0 +1,52 @@
+/*
+ * This file is part of ComputerCraft - http://www.computercraft.info
+ * Copyright Daniel Ratcliffe, 2011-2022. Do not distribute without permission.
+ * Send enquiries to dratcliffe@gmail.com
+ */
+package dan200.computercraft.shared.util;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NBTUtilTest
+{
+    private static CompoundNBT createTag()
+    {
+        CompoundNBT display = new CompoundNBT();
+        display.putString( "Name", "{\"text\":\"My sword\"}" );
+        ListNBT lore = new ListNBT();
+        lore.add( StringNBT.valueOf( "{\"text\":\"Very sharp\"}" ) );
+        display.put( "Lore", lore );
+
+        CompoundNBT tag = new CompoundNBT();
+        tag.putInt( "Damage", 12 );
+        tag.put( "display", display );
+        return tag;
+    }
+
+    @Test
+    public void testHashIsStructural()
+    {
+        assertEquals( NBTUtil.getNBTHash( createTag() ), NBTUtil.getNBTHash( createTag() ) );
+        assertNull( NBTUtil.getNBTHash( null ) );
+    }
+
+    @Test
+    public void testHashChangesOnMutation()
+    {
+        CompoundNBT tag = createTag();
+        String original = NBTUtil.getNBTHash( tag );
+        assertNotNull( original );
+
+        tag.putInt( "Damage", 13 );
+        String modified = NBTUtil.getNBTHash( tag );
+        assertNotEquals( original, modified );
+
+        tag.putInt( "Damage", 12 );
+        assertEquals( original, NBTUtil.getNBTHash( tag ) );
+    }
+}
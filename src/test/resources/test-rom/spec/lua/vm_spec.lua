@@ -6,4 +6,32 @@ describe("The VM", function()
         local tbl = { (" "):rep(len):byte(1, -1) }
         expect(#tbl):eq(len)
     end)
+
+    it("rejects strings larger than the memory limit", function()
+        expect.error(string.rep, "x", 2 ^ 40):eq("not enough memory")
+        expect.error(string.rep, "x", 2 ^ 20, ("y"):rep(2 ^ 20)):eq("not enough memory")
+    end)
+
+    it("rejects concatenating tables larger than the memory limit", function()
+        local chunk = ("x"):rep(2 ^ 20)
+        local parts = {}
+        for i = 1, 128 do parts[i] = chunk end
+
+        expect.error(table.concat, parts):eq("not enough memory")
+        expect.error(table.concat, { "a", "b", "c" }, chunk:rep(40)):eq("not enough memory")
+        expect(table.concat(parts, "", 1, 4)):eq(chunk:rep(4))
+    end)
+
+    it("rejects formatting strings larger than the memory limit", function()
+        local chunk = ("x"):rep(2 ^ 25)
+        expect.error(string.format, "%s%s%s", chunk, chunk, chunk):eq("not enough memory")
+        expect(string.format("%s!", "hello")):eq("hello!")
+    end)
+
+    it("allows repeatedly allocating short-lived strings", function()
+        -- 128 allocations of 1MiB is well over the 64MiB limit, but each string is garbage once the next is made.
+        for _ = 1, 128 do
+            local _ = ("x"):rep(2 ^ 20)
+        end
+    end)
 end)
@@ -1,9 +1,16 @@
 package dan200.computercraft.ingame
 
 import dan200.computercraft.ingame.api.*
+import dan200.computercraft.ingame.api.Timeouts.COMPUTER_TIMEOUT
+import dan200.computercraft.shared.computer.blocks.TileComputerBase
+import dan200.computercraft.core.computer.ComputerSide
+import dan200.computercraft.shared.computer.core.ComputerFamily
+import dan200.computercraft.shared.computer.core.ServerComputer
+import dan200.computercraft.shared.computer.core.ServerContext
 import net.minecraft.block.LeverBlock
 import net.minecraft.block.RedstoneLampBlock
 import net.minecraft.util.math.BlockPos
+import java.util.concurrent.atomic.AtomicBoolean
 
 class Computer_Test {
     /**
@@ -29,4 +36,84 @@ fun No_through_signal(context: GameTestHelper) = context.sequence {
                 )
             }
     }
+
+    /**
+     * Checks a parked computer still picks up terminal changes which do not wake it, such as when a pocket computer is
+     * picked up by another player.
+     */
+    @GameTest(timeoutTicks = COMPUTER_TIMEOUT)
+    fun Parked_computer_sends_terminal(context: GameTestHelper) = context.sequence {
+        val pos = BlockPos(1, 1, 1)
+        lateinit var computer: ServerComputer
+        val terminalChanged = ServerComputer::class.java.getDeclaredField("terminalChanged").also { it.isAccessible = true }
+        this
+            .thenComputerOk()
+            .thenWaitUntil {
+                computer = (context.getBlockEntity(pos) as TileComputerBase).serverComputer
+                    ?: throw GameTestAssertException("Computer has not been created")
+                if (!computer.computer.isParked) throw GameTestAssertException("Computer is not parked")
+            }
+            .thenExecute {
+                ServerComputer::class.java.getDeclaredMethod("markTerminalChanged").also { it.isAccessible = true }.invoke(computer)
+            }
+            .thenIdle(2)
+            .thenExecute {
+                if (!computer.computer.isParked) context.fail("Computer should still be parked", pos)
+                if ((terminalChanged.get(computer) as AtomicBoolean).get()) {
+                    context.fail("Terminal change was not picked up while parked", pos)
+                }
+            }
+    }
+
+    /**
+     * Ticks enough computers that [ServerComputerRegistry][dan200.computercraft.shared.computer.core.ServerComputerRegistry]
+     * updates them in parallel, and checks terminal and redstone changes are still propagated.
+     */
+    @GameTest
+    fun Ticks_computers_in_parallel(context: GameTestHelper) = context.sequence {
+        // Comfortably more than the registry's PARALLEL_THRESHOLD, and not a multiple of its batch size.
+        val count = 300
+        val computers = mutableListOf<ServerComputer>()
+        val terminalChanged = ServerComputer::class.java.getDeclaredField("terminalChanged").also { it.isAccessible = true }
+        val pendingTerminal = ServerComputer::class.java.getDeclaredField("pendingTerminal").also { it.isAccessible = true }
+        this
+            .thenExecute {
+                // These computers are never turned on, so never touch the disk. If the test fails, they time out and
+                // are removed once we stop keeping them alive.
+                for (i in 0 until count) {
+                    val computer = ServerComputer(context.level, i, null, ComputerFamily.ADVANCED, 51, 19)
+                    computer.register()
+                    computers.add(computer)
+                }
+
+                val loaded = ServerContext.get(context.level.server).registry().loadedComputers.size
+                if (loaded < count) context.fail("Expected at least $count computers, got $loaded")
+            }
+            .thenWaitUntil {
+                for (computer in computers) {
+                    computer.keepAlive()
+                    if (!computer.computer.isParked) throw GameTestAssertException("Computer #${computer.id} is not parked")
+                }
+            }
+            .thenExecute {
+                for (computer in computers) {
+                    computer.keepAlive()
+                    computer.computer.apiEnvironment.setOutput(ComputerSide.TOP, computer.id % 15 + 1)
+                    computer.computer.apiEnvironment.terminal.write("#${computer.id}")
+                }
+            }
+            .thenWaitUntil {
+                for (computer in computers) {
+                    computer.keepAlive()
+                    val output = computer.computer.environment.getExternalRedstoneOutput(ComputerSide.TOP)
+                    if (output != computer.id % 15 + 1) throw GameTestAssertException("Computer #${computer.id} has output $output")
+                    if ((terminalChanged.get(computer) as AtomicBoolean).get() || pendingTerminal.get(computer) != null) {
+                        throw GameTestAssertException("Computer #${computer.id} has not sent its terminal")
+                    }
+                }
+            }
+            .thenExecute {
+                for (computer in computers) computer.close()
+            }
+    }
 }
@@ -74,6 +74,18 @@ fun Use_compostors(helper: GameTestHelper) = helper.sequence { thenComputerOk()
     @GameTest
     fun Cleaned_with_cauldrons(helper: GameTestHelper) = helper.sequence { thenComputerOk() }
 
+    /**
+     * Checks a batch of inventory commands runs within a single tick, even though each one plays a WAIT animation.
+     */
+    @GameTest(timeoutTicks = COMPUTER_TIMEOUT)
+    fun Batch_transfers_in_one_tick(helper: GameTestHelper) = helper.sequence { thenComputerOk() }
+
+    /**
+     * Checks placing a block (which shrinks the stack in place) still queues a `turtle_inventory` event.
+     */
+    @GameTest(timeoutTicks = COMPUTER_TIMEOUT)
+    fun Place_queues_inventory_event(helper: GameTestHelper) = helper.sequence { thenComputerOk() }
+
     /**
      * Checks turtles can use IDetailProviders by getting details for a printed page.
      */
@@ -0,0 +1 @@
+-- Nothing to do here: the test just needs the computer to finish starting and sit idle at the shell.
@@ -0,0 +1,24 @@
+-- Spread the 15 items in slot 1 over the other slots. Each transferTo plays a WAIT animation, which previously made
+-- this take 120 ticks. Check it finishes before a 10 tick timer fires.
+local commands = {}
+for i = 2, 16 do table.insert(commands, { "transferTo", i, 1 }) end
+
+local finished, ok, results
+parallel.waitForAny(
+    function()
+        ok, results = turtle.batch(commands)
+        finished = "batch"
+    end,
+    function()
+        sleep(0.5)
+        finished = "timer"
+    end
+)
+
+test.eq("batch", finished, "Batch finished before the timer")
+test.assert(ok, results)
+test.eq(15, #results, "Has a result for each command")
+for i = 1, 15 do test.eq(true, results[i][1], "Command " .. i .. " succeeded") end
+
+test.eq(0, turtle.getItemCount(1), "Slot 1 is empty")
+for i = 2, 16 do test.eq(1, turtle.getItemCount(i), "Slot " .. i .. " has one item") end
@@ -0,0 +1,12 @@
+-- turtle.place shrinks the placed stack in place, rather than replacing it. Check the turtle still notices the
+-- inventory has changed.
+test.eq(2, turtle.getItemCount(1), "Starts with two items")
+test.assert(turtle.place())
+test.eq(1, turtle.getItemCount(1), "Placed one item")
+
+local timer = os.startTimer(0.5)
+while true do
+    local event, id = os.pullEvent()
+    if event == "turtle_inventory" then break end
+    test.assert(event ~= "timer" or id ~= timer, "Received a turtle_inventory event")
+end